@@ -1,13 +1,24 @@
 package com.gunho.artifact.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // LocalArtifactStorage 와 같은 루트
+    @Value("${artifact.storage.local.root:data/artifact}")
+    private String artifactRoot;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // 정적 리소스 핸들러 설정
@@ -20,14 +31,28 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/js/**")
                 .addResourceLocations("classpath:/static/js/");
 
+        // 산출물 공통 CSS/JS: 내용 해시가 붙은 URL 로 제공하므로 영구 캐시
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+
         registry.addResourceHandler("/static/artifact/**")
-                .addResourceLocations("file:src/main/resources/static/artifact/")
+                .addResourceLocations(artifactLocation())
                 .setCachePeriod(0)  // 캐시 비활성화로 빠른 접근
-                .resourceChain(false);  // 리소스 체인 비활성화
+                .resourceChain(false)  // 재생성되는 파일이라 리졸브 결과는 캐시하지 않음
+                .addResolver(new EncodedResourceResolver());  // Accept-Encoding 에 맞춰 미리 압축된 .gz/.br 제공
 
 
     }
 
+    // 디렉터리가 아직 없으면 toUri() 끝에 '/' 가 붙지 않는다
+    private String artifactLocation() {
+        String location = Path.of(artifactRoot).toAbsolutePath().normalize().toUri().toString();
+        return location.endsWith("/") ? location : location + "/";
+    }
+
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
         // 홈페이지 기본 리다이렉트
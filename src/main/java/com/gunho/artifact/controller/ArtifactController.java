@@ -2,19 +2,32 @@ package com.gunho.artifact.controller;
 
 import com.gunho.artifact.dto.ApiResponse;
 import com.gunho.artifact.dto.ArtifactDto;
+import com.gunho.artifact.dto.ArtifactVersionDto;
 import com.gunho.artifact.dto.DocsDto;
 import com.gunho.artifact.dto.FlowChartDto;
+import com.gunho.artifact.dto.LoadTestDto;
 import com.gunho.artifact.security.ArtifactUserDetails;
+import com.gunho.artifact.service.ArtifactDownloadService;
 import com.gunho.artifact.service.ArtifactService;
+import com.gunho.artifact.service.ArtifactVersionStore;
+import com.gunho.artifact.service.DocsImportService;
 import com.gunho.artifact.service.DocsService;
 import com.gunho.artifact.service.FlowService;
+import com.gunho.artifact.service.LoadTestService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Description;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
 
 @Controller
 @RequiredArgsConstructor
@@ -24,6 +37,10 @@ public class ArtifactController {
     private final ArtifactService artifactService;
     private final FlowService flowService;
     private final DocsService docsService;
+    private final DocsImportService docsImportService;
+    private final LoadTestService loadTestService;
+    private final ArtifactDownloadService artifactDownloadService;
+    private final ArtifactVersionStore artifactVersionStore;
 
     @Description("산출물 등록 모달")
     @GetMapping("/new/{idx}")
@@ -64,6 +81,30 @@ public class ArtifactController {
         return docsService.deleteDocs(idx, userDetails.getUser());
     }
 
+    @Description("OpenAPI 3 문서(JSON/YAML) 가져오기")
+    @PostMapping(value = "/docs/{idx}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public @ResponseBody ApiResponse<?> docsImport(@PathVariable Long idx, @RequestParam("file") MultipartFile file, @AuthenticationPrincipal ArtifactUserDetails userDetails) {
+        return docsImportService.importSpec(idx, file, userDetails.getUser());
+    }
+
+    @Description("OpenAPI 가져오기 진행 상황")
+    @GetMapping("/docs/{idx}/import/progress")
+    public @ResponseBody ApiResponse<?> docsImportProgress(@PathVariable Long idx, @AuthenticationPrincipal ArtifactUserDetails userDetails) {
+        return docsImportService.getProgress(idx, userDetails.getUser());
+    }
+
+    @Description("문서 기반 부하 테스트 시나리오")
+    @GetMapping("/docs/{idx}/load-scenario")
+    public @ResponseBody ApiResponse<LoadTestDto.Scenario> docsLoadScenario(@PathVariable Long idx, @AuthenticationPrincipal ArtifactUserDetails userDetails) {
+        return loadTestService.getScenario(idx, userDetails.getUser());
+    }
+
+    @Description("문서 기반 부하 테스트 실행")
+    @PostMapping("/docs/{idx}/load-test")
+    public @ResponseBody ApiResponse<?> docsLoadTest(@PathVariable Long idx, @Valid @RequestBody LoadTestDto.RunRequest request, @AuthenticationPrincipal ArtifactUserDetails userDetails) {
+        return loadTestService.run(idx, request, userDetails.getUser());
+    }
+
     @GetMapping("/flows")
     public String flowsAdd(Model model) {
         return "project/artifact/flows/index";
@@ -85,4 +126,27 @@ public class ArtifactController {
     public @ResponseBody ApiResponse<?> flowsDelete(@PathVariable Long idx, @AuthenticationPrincipal ArtifactUserDetails userDetails) {
         return flowService.deleteFlow(idx, userDetails.getUser());
     }
+
+    @Description("산출물 파일 다운로드 (Range, ETag/304 지원)")
+    @GetMapping("/files/{idx}")
+    public void fileDownload(@PathVariable Long idx, @RequestParam(value = "attachment", defaultValue = "false") boolean attachment,
+                             HttpServletRequest request, HttpServletResponse response,
+                             @AuthenticationPrincipal ArtifactUserDetails userDetails) throws IOException {
+        artifactDownloadService.download(idx, attachment, userDetails.getUser(), request, response);
+    }
+
+    @Description("산출물 생성 이력")
+    @GetMapping("/files/{idx}/versions")
+    public @ResponseBody ApiResponse<List<ArtifactVersionDto.Response>> fileVersions(@PathVariable Long idx, @AuthenticationPrincipal ArtifactUserDetails userDetails) {
+        return artifactVersionStore.getVersions(idx, userDetails.getUser());
+    }
+
+    @Description("산출물 이전 버전 다운로드")
+    @GetMapping("/files/{idx}/versions/{version}")
+    public void fileVersionDownload(@PathVariable Long idx, @PathVariable int version,
+                                    @RequestParam(value = "attachment", defaultValue = "false") boolean attachment,
+                                    HttpServletRequest request, HttpServletResponse response,
+                                    @AuthenticationPrincipal ArtifactUserDetails userDetails) throws IOException {
+        artifactDownloadService.downloadVersion(idx, version, attachment, userDetails.getUser(), request, response);
+    }
 }
@@ -0,0 +1,36 @@
+package com.gunho.artifact.controller;
+
+import com.gunho.artifact.service.ArtifactDownloadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Description;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * S3 저장소일 때 /static/artifact/** 를 저장소에서 내려준다.
+ * 요청 매핑이 정적 리소스 핸들러보다 먼저 매칭되므로 WebConfig 의 로컬 디렉터리 핸들러 대신 쓰인다.
+ */
+@Controller
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "artifact.storage.type", havingValue = "s3")
+public class ArtifactStaticController {
+
+    private static final String PREFIX = "/static/artifact/";
+
+    private final ArtifactDownloadService artifactDownloadService;
+
+    @Description("저장소의 산출물 정적 파일")
+    @GetMapping(PREFIX + "**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        String key = UriUtils.decode(uri.substring(PREFIX.length()), StandardCharsets.UTF_8);
+        artifactDownloadService.serveStatic(key, request, response);
+    }
+}
@@ -0,0 +1,35 @@
+package com.gunho.artifact.controller;
+
+import com.gunho.artifact.security.ArtifactUserDetails;
+import com.gunho.artifact.service.ApiMockService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Description;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/mock")
+public class MockController {
+
+    private final ApiMockService apiMockService;
+
+    @Description("API 문서 기반 목 응답")
+    @RequestMapping("/{docsIdx}/**")
+    public ResponseEntity<byte[]> mock(@PathVariable Long docsIdx,
+                                       @RequestHeader(value = ApiMockService.STATUS_HEADER, required = false) String status,
+                                       @RequestHeader(value = ApiMockService.EXAMPLE_HEADER, required = false) String example,
+                                       HttpServletRequest request,
+                                       @AuthenticationPrincipal ArtifactUserDetails userDetails) {
+        // /mock/{docsIdx} 뒤의 경로가 문서의 엔드포인트 경로
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        int start = uri.indexOf('/', "/mock/".length());
+        String path = start < 0 ? "/" : uri.substring(start);
+        return apiMockService.respond(docsIdx, request.getMethod(), path, status, example, userDetails.getUser());
+    }
+}
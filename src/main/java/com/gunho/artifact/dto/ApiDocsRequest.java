@@ -18,6 +18,7 @@ public class ApiDocsRequest {
     private String version = "1.0.0";
     @NotNull
     private List<Endpoint> endpoints; // 최소 정보로 OpenAPI-like 생성
+    private boolean splitByTag; // 태그별 스펙 조각 + 인덱스로 내보내기 (대형 문서용)
 
     @Data
     public static class Endpoint {
@@ -0,0 +1,22 @@
+package com.gunho.artifact.dto;
+
+import com.gunho.artifact.repository.ArtifactVersionRepository;
+
+import java.time.LocalDateTime;
+
+public class ArtifactVersionDto {
+
+    // storedBytes 는 이 버전에서 새로 저장된 청크 크기 (이전 버전과 같은 부분은 0)
+    public record Response(
+            int version,
+            long size,
+            long storedBytes,
+            int chunkCount,
+            LocalDateTime createdAt
+    ){
+        public static Response from(ArtifactVersionRepository.Summary summary) {
+            return new Response(summary.getVersion(), summary.getSize(), summary.getStoredBytes(),
+                    summary.getChunkCount(), summary.getCreatedAt());
+        }
+    }
+}
@@ -26,4 +26,13 @@ public class DocsDto {
 //            List<Map<String, Object>> params,
 //            Map<String, Map<String, Object>> responses
     ){}
+
+    // OpenAPI 가져오기 진행 상황 (status: PARSING, SAVING, DONE, FAILED)
+    public record ImportProgress(
+            String status,
+            long bytesRead,
+            long totalBytes,
+            int endpoints,
+            String message
+    ){}
 }
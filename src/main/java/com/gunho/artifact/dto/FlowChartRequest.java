@@ -25,5 +25,9 @@ public class FlowChartRequest {
 
     private Map<String, Object> themeVariables; // 비 필수
     private Map<String, Object> classes; // 비 필수
+    private boolean serverLayout; // true 면 서버에서 계층형 좌표를 계산해 preset 으로 내려줌
+    private boolean chunked; // true 면 클러스터 요약만 인라인하고 상세는 청크 파일로 지연 로딩 (serverLayout 과 함께 쓸 수 없음)
+    private boolean latencySimulation; // true 면 노드/엣지 latency 로 종단 간 지연을 시뮬레이션해 히트맵으로 표시
+    private Integer simulationIterations; // 기본 10,000
 }
 
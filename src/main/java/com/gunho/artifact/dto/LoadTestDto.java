@@ -0,0 +1,66 @@
+package com.gunho.artifact.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.util.List;
+import java.util.Map;
+
+public class LoadTestDto {
+
+    // 문서에서 만든 부하 테스트 시나리오. 요청은 weight 비율로 섞어서 보낸다
+    public record Scenario(
+            Long docsIdx,
+            String title,
+            String baseUrl,
+            List<Step> steps
+    ){}
+
+    public record Step(
+            String name, // "GET /orders/{id}"
+            String method,
+            String path, // 경로 변수/쿼리까지 채운 실제 요청 경로
+            Map<String, String> headers,
+            String body,
+            int weight
+    ){}
+
+    public record RunRequest(
+            @Min(value = 1, message = "동시 사용자 수는 1 이상이어야 합니다.")
+            Integer concurrency,
+            @Min(value = 1, message = "실행 시간은 1초 이상이어야 합니다.")
+            Integer durationSeconds,
+            @Min(value = 1, message = "최대 요청 수는 1 이상이어야 합니다.")
+            @Max(value = 1_000_000, message = "최대 요청 수가 너무 큽니다.")
+            Integer maxRequests,
+            Map<String, Integer> weights // 스텝 이름별 가중치 덮어쓰기 (0 이면 제외)
+    ){}
+
+    public record Report(
+            String baseUrl,
+            int concurrency,
+            long requests,
+            long errors,
+            double elapsedSeconds,
+            double throughput,
+            Latency latency,
+            List<StepReport> steps
+    ){}
+
+    public record StepReport(
+            String name,
+            long requests,
+            long errors,
+            Map<Integer, Long> statuses,
+            Latency latency
+    ){}
+
+    // 단위 ms
+    public record Latency(
+            double p50,
+            double p90,
+            double p99,
+            double max,
+            double mean
+    ){}
+}
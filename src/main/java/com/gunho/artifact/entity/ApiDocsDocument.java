@@ -35,7 +35,7 @@ public class ApiDocsDocument {
     private String version;
 
     @Builder.Default
-    @Column(name = "endpoints", columnDefinition = "TEXT")
+    @Column(name = "endpoints", columnDefinition = "LONGTEXT")
     private String endpoints = "{}";
 
     @CreationTimestamp
@@ -57,6 +57,10 @@ public class ApiDocsDocument {
     @JoinColumn(name = "file_idx")
     private ArtifactFile file;
 
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "spec_idx")
+    private ApiDocsSpec spec;
+
     public static ApiDocsDocument toEntity(ArtifactDto.Request req, Project project, User user) {
         return ApiDocsDocument.builder()
                 .project(project)
@@ -75,4 +79,8 @@ public class ApiDocsDocument {
     public void updateFile(ArtifactFile file) {
         this.file = file;
     }
+
+    public void updateSpec(ApiDocsSpec spec) {
+        this.spec = spec;
+    }
 }
@@ -0,0 +1,62 @@
+package com.gunho.artifact.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 문서 저장 시점에 컴파일해 둔 스펙.
+ * 원본 문서의 updatedAt 을 함께 기록해서 그 버전에서 만들어진 것인지 판단한다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "api_docs_spec")
+public class ApiDocsSpec {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idx;
+
+    // Scalar 에 인라인으로 넣는 OpenAPI JSON (HTML-safe escape 적용)
+    @Lob
+    @Column(name = "open_api", columnDefinition = "LONGTEXT")
+    private String openApi;
+
+    // 편집기 화면용 {title, version, endpoints}
+    @Lob
+    @Column(name = "editor_spec", columnDefinition = "LONGTEXT")
+    private String editorSpec;
+
+    // 컴파일 입력(제목, 버전, 엔드포인트) 의 SHA-256
+    @Column(name = "source_hash", length = 64)
+    private String sourceHash;
+
+    @Column(name = "source_updated_at")
+    private LocalDateTime sourceUpdatedAt;
+
+    @Column(name = "compiled_at")
+    private LocalDateTime compiledAt;
+
+    public void update(String openApi, String editorSpec, String sourceHash) {
+        this.openApi = openApi;
+        this.editorSpec = editorSpec;
+        this.sourceHash = sourceHash;
+        this.compiledAt = LocalDateTime.now();
+    }
+
+    public void markSourceVersion(LocalDateTime sourceUpdatedAt) {
+        this.sourceUpdatedAt = sourceUpdatedAt;
+    }
+
+    public boolean isCompiledFrom(ApiDocsDocument docs) {
+        return sourceUpdatedAt != null && Objects.equals(sourceUpdatedAt, docs.getUpdatedAt());
+    }
+}
@@ -0,0 +1,34 @@
+package com.gunho.artifact.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 버전 저장소의 청크. 같은 내용은 한 번만 저장하고 참조하는 버전 수를 ref_count 로 센다.
+ * 행은 ArtifactChunkRepository.pin 으로만 만든다 (동시에 같은 청크를 올려도 한 행으로 합쳐진다)
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "artifact_chunk", indexes = @Index(name = "idx_artifact_chunk_ref_count", columnList = "ref_count"))
+public class ArtifactChunk {
+
+    // 원본 청크의 SHA-256 (hex)
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "size", nullable = false)
+    private Integer size;
+
+    @Column(name = "ref_count", nullable = false)
+    private Long refCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -41,6 +41,14 @@ public class ArtifactFile {
     @Column(name = "size")
     private Long size;
 
+    // 렌더링 입력(정규화된 요청) 의 SHA-256
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // 저장된 HTML 본문의 SHA-256. 다운로드 ETag 로 쓴다
+    @Column(name = "output_hash", length = 64)
+    private String outputHash;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -69,4 +77,12 @@ public class ArtifactFile {
         this.size = size;
     }
 
+    public void updateContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public void updateOutputHash(String outputHash) {
+        this.outputHash = outputHash;
+    }
+
 }
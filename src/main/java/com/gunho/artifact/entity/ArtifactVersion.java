@@ -0,0 +1,61 @@
+package com.gunho.artifact.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 산출물 한 번 생성분의 매니페스트. 본문은 artifact_chunk 청크 해시 순서(32바이트씩 이어 붙인 manifest)로만 갖는다.
+ * 산출물 삭제(cascade) 순서에 묶이지 않도록 artifact_file 에 FK 를 걸지 않고, 산출물을 지울 때 ArtifactVersionStore.deleteAll 로 함께 정리한다
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "artifact_version",
+        uniqueConstraints = @UniqueConstraint(name = "uk_artifact_version_file_version", columnNames = {"file_idx", "version"}))
+public class ArtifactVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idx;
+
+    @Column(name = "file_idx", nullable = false)
+    private Long fileIdx;
+
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    // 원본 크기
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    // 이 버전에서 새로 저장한 청크 크기 (나머지는 이전 버전과 공유)
+    @Column(name = "stored_bytes", nullable = false)
+    private Long storedBytes;
+
+    @Column(name = "chunk_count", nullable = false)
+    private Integer chunkCount;
+
+    // 원본 전체의 SHA-256, 다운로드 ETag 로 쓴다
+    @Column(name = "digest", nullable = false, length = 64)
+    private String digest;
+
+    // 생성 당시 렌더링 입력 해시 (ArtifactFile.contentHash)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Lob
+    @Column(name = "manifest", nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] manifest;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
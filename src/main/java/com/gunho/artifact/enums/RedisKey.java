@@ -7,7 +7,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public enum RedisKey {
     SIGN_VERIFY("signVerify:"),
-    SIGN_VERIFIED("signVerified:");
+    SIGN_VERIFIED("signVerified:"),
+    DOCS_IMPORT("docsImport:"),
+    ARTIFACT_GC("artifactGc:");
     private final String key;
 
     public String getFormatKey(String replace) {
@@ -0,0 +1,209 @@
+package com.gunho.artifact.model;
+
+import com.gunho.artifact.exception.ArtifactException;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 플로우 요청(List&lt;Map&gt;)을 정수 인덱스 기반 그래프로 바꾼 내부 모델.
+ * 노드 id 는 요청 순서대로 0..n-1 로 치환하고, 인접 정보는 CSR(offsets/targets) 원시 배열로 가진다.
+ * 생성 시 한 번의 선형 순회로 검증(빈/중복 노드 id, 끊어진 엣지), 중복 엣지 제거, 사이클 탐지를 수행한다.
+ */
+public final class FlowGraph {
+
+    private static final int MAX_REPORTED_ERRORS = 5;
+
+    private final String[] nodeIds;
+    private final Map<String, Integer> index;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final int[] edgeIndex;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] topologicalOrder;
+    private final int duplicateEdgeCount;
+
+    private FlowGraph(String[] nodeIds, Map<String, Integer> index, int[] edgeFrom, int[] edgeTo, int[] edgeIndex, int duplicateEdgeCount) {
+        this.nodeIds = nodeIds;
+        this.index = index;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.edgeIndex = edgeIndex;
+        this.duplicateEdgeCount = duplicateEdgeCount;
+
+        int n = nodeIds.length;
+        this.outOffsets = new int[n + 1];
+        for (int from : edgeFrom) outOffsets[from + 1]++;
+        for (int v = 0; v < n; v++) outOffsets[v + 1] += outOffsets[v];
+        this.outTargets = new int[edgeFrom.length];
+        int[] fill = Arrays.copyOf(outOffsets, n);
+        for (int e = 0; e < edgeFrom.length; e++) outTargets[fill[edgeFrom[e]]++] = edgeTo[e];
+
+        this.topologicalOrder = topologicalSort();
+    }
+
+    /**
+     * 노드/엣지를 검증해서 그래프를 만든다. 문제가 있으면 ArtifactException.
+     */
+    public static FlowGraph of(List<Map<String, Object>> nodes, List<Map<String, Object>> edges) {
+        List<String> errors = new ArrayList<>();
+
+        String[] nodeIds = new String[nodes.size()];
+        Map<String, Integer> index = new HashMap<>(nodes.size() * 2);
+        for (int i = 0; i < nodes.size(); i++) {
+            Map<String, Object> node = nodes.get(i);
+            Object id = node != null ? node.get("id") : null;
+            if (!(id instanceof String str) || str.isBlank()) {
+                addError(errors, "%d번째 노드의 id 가 비어있습니다.".formatted(i + 1));
+                continue;
+            }
+            nodeIds[i] = str;
+            if (index.putIfAbsent(str, i) != null) {
+                addError(errors, "중복된 노드 id 입니다: " + str);
+            }
+        }
+
+        int[] from = new int[edges.size()];
+        int[] to = new int[edges.size()];
+        int[] kept = new int[edges.size()];
+        Set<String> edgeIds = new HashSet<>(edges.size() * 2);
+        int count = 0;
+        int duplicates = 0;
+        for (int i = 0; i < edges.size(); i++) {
+            Map<String, Object> edge = edges.get(i);
+            Object source = edge != null ? edge.get("from") : null;
+            Object target = edge != null ? edge.get("to") : null;
+            Integer s = source instanceof String sourceId ? index.get(sourceId) : null;
+            Integer t = target instanceof String targetId ? index.get(targetId) : null;
+            if (s == null || t == null) {
+                addError(errors, "연결 대상 노드가 없습니다: %s → %s".formatted(source, target));
+                continue;
+            }
+            // Cytoscape 엣지 id ("from-to") 가 겹치면 첫 번째만 남긴다
+            if (!edgeIds.add(source + "-" + target)) {
+                duplicates++;
+                continue;
+            }
+            from[count] = s;
+            to[count] = t;
+            kept[count++] = i;
+        }
+
+        if (!errors.isEmpty()) {
+            throw new ArtifactException(String.join("\n", errors));
+        }
+        return new FlowGraph(nodeIds, index, Arrays.copyOf(from, count), Arrays.copyOf(to, count), Arrays.copyOf(kept, count), duplicates);
+    }
+
+    private static void addError(List<String> errors, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(message);
+        }
+    }
+
+    // Kahn 알고리즘. 사이클에 속한 노드는 결과에서 빠진다.
+    private int[] topologicalSort() {
+        int n = nodeIds.length;
+        int[] inDegree = new int[n];
+        for (int target : edgeTo) inDegree[target]++;
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) order[tail++] = v;
+        }
+        while (head < tail) {
+            int v = order[head++];
+            for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+                if (--inDegree[outTargets[i]] == 0) order[tail++] = outTargets[i];
+            }
+        }
+        return tail == n ? order : Arrays.copyOf(order, tail);
+    }
+
+    public int nodeCount() {
+        return nodeIds.length;
+    }
+
+    public int edgeCount() {
+        return edgeFrom.length;
+    }
+
+    public String nodeId(int node) {
+        return nodeIds[node];
+    }
+
+    public String[] nodeIds() {
+        return nodeIds;
+    }
+
+    public int indexOf(String id) {
+        Integer node = index.get(id);
+        return node != null ? node : -1;
+    }
+
+    public int[] edgeFrom() {
+        return edgeFrom;
+    }
+
+    public int[] edgeTo() {
+        return edgeTo;
+    }
+
+    /**
+     * 남은 엣지의 원본 요청 내 위치
+     */
+    public int[] edgeIndex() {
+        return edgeIndex;
+    }
+
+    public int[] outOffsets() {
+        return outOffsets;
+    }
+
+    public int[] outTargets() {
+        return outTargets;
+    }
+
+    public boolean hasCycle() {
+        return topologicalOrder.length < nodeIds.length;
+    }
+
+    /**
+     * 사이클이 없으면 전체 위상 순서, 있으면 사이클 밖 노드들의 위상 순서
+     */
+    public int[] topologicalOrder() {
+        return topologicalOrder;
+    }
+
+    public int duplicateEdgeCount() {
+        return duplicateEdgeCount;
+    }
+
+    /**
+     * 원본 엣지 목록에서 중복 제거 후 남은 엣지만 보이는 뷰
+     */
+    public <T> List<T> keptEdges(List<T> edges) {
+        if (duplicateEdgeCount == 0 && edgeIndex.length == edges.size()) {
+            return edges;
+        }
+        return new AbstractList<>() {
+            @Override
+            public T get(int i) {
+                return edges.get(edgeIndex[i]);
+            }
+
+            @Override
+            public int size() {
+                return edgeIndex.length;
+            }
+        };
+    }
+}
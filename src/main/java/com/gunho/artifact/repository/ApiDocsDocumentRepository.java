@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +17,7 @@ public interface ApiDocsDocumentRepository extends JpaRepository<ApiDocsDocument
 
     @Query("SELECT f FROM ApiDocsDocument f JOIN f.project p WHERE f.idx = :docsIdx AND p.user.idx = :userIdx")
     Optional<ApiDocsDocument> findByIdxAndUserIdx(@Param("docsIdx") Long docsIdx, @Param("userIdx") Long userIdx);
+
+    @Query("SELECT d.updatedAt FROM ApiDocsDocument d WHERE d.idx = :docsIdx")
+    Optional<LocalDateTime> findUpdatedAtByIdx(@Param("docsIdx") Long docsIdx);
 }
@@ -0,0 +1,40 @@
+package com.gunho.artifact.repository;
+
+import com.gunho.artifact.entity.ArtifactChunk;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArtifactChunkRepository extends JpaRepository<ArtifactChunk, String> {
+
+    // 없으면 ref_count 1 로 만들고 있으면 1 올린다. 새로 만들었을 때만 1 을 돌려준다 (갱신은 2)
+    @Modifying
+    @Query(value = "INSERT INTO artifact_chunk (hash, size, ref_count, created_at) VALUES (:hash, :size, 1, NOW()) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    int pin(@Param("hash") String hash, @Param("size") int size);
+
+    @Modifying
+    @Query("UPDATE ArtifactChunk c SET c.refCount = c.refCount - 1 WHERE c.hash IN :hashes")
+    int release(@Param("hashes") Collection<String> hashes);
+
+    @Query("SELECT c.hash FROM ArtifactChunk c WHERE c.refCount <= 0")
+    List<String> findReleased(Limit limit);
+
+    // 정리하는 동안 같은 청크를 pin 하는 쓰기는 이 잠금(행이 없으면 gap 잠금)에서 기다린다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ArtifactChunk c WHERE c.hash = :hash")
+    Optional<ArtifactChunk> findForUpdate(@Param("hash") String hash);
+
+    @Query("SELECT c.hash FROM ArtifactChunk c WHERE c.hash IN :hashes")
+    List<String> findExisting(@Param("hashes") Collection<String> hashes);
+}
@@ -1,9 +1,33 @@
 package com.gunho.artifact.repository;
 
 import com.gunho.artifact.entity.ArtifactFile;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ArtifactFileRepository extends JpaRepository<ArtifactFile, Long> {
+
+    Optional<ArtifactFile> findByIdxAndUserIdx(Long idx, Long userIdx);
+
+    // 버전 번호를 매기는 동안 같은 산출물의 다른 생성이 기다리게 한다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM ArtifactFile f WHERE f.idx = :idx")
+    Optional<ArtifactFile> findForUpdate(@Param("idx") Long idx);
+
+    // 저장소 한 페이지의 후보 위치만 읽는다 (고아 파일 정리용)
+    List<StoredPath> findByRelativePathInAndStoredNameIn(Collection<String> relativePaths, Collection<String> storedNames);
+
+    interface StoredPath {
+        String getRelativePath();
+
+        String getStoredName();
+    }
 }
@@ -0,0 +1,49 @@
+package com.gunho.artifact.repository;
+
+import com.gunho.artifact.entity.ArtifactVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArtifactVersionRepository extends JpaRepository<ArtifactVersion, Long> {
+
+    Optional<ArtifactVersion> findByFileIdxAndVersion(Long fileIdx, Integer version);
+
+    // 목록에서는 manifest 를 읽지 않는다
+    List<Summary> findByFileIdxOrderByVersionDesc(Long fileIdx);
+
+    // 잠금 읽기라 REPEATABLE READ 스냅샷이 아니라 마지막으로 커밋된 버전을 본다
+    @Query(value = "SELECT version, digest FROM artifact_version WHERE file_idx = :fileIdx " +
+            "ORDER BY version DESC LIMIT 1 FOR UPDATE", nativeQuery = true)
+    Optional<Latest> findLatestForUpdate(@Param("fileIdx") Long fileIdx);
+
+    List<ArtifactVersion> findByFileIdxAndVersionLessThanEqual(Long fileIdx, Integer version);
+
+    List<ArtifactVersion> findByFileIdx(Long fileIdx);
+
+    interface Latest {
+        Integer getVersion();
+
+        String getDigest();
+    }
+
+    interface Summary {
+        Integer getVersion();
+
+        Long getSize();
+
+        Long getStoredBytes();
+
+        Integer getChunkCount();
+
+        String getDigest();
+
+        LocalDateTime getCreatedAt();
+    }
+}
@@ -2,23 +2,33 @@ package com.gunho.artifact.service;
 
 import com.gunho.artifact.dto.ApiResponse;
 import com.gunho.artifact.entity.ApiDocsDocument;
+import com.gunho.artifact.entity.ApiDocsSpec;
 import com.gunho.artifact.entity.ArtifactFile;
 import com.gunho.artifact.entity.User;
 import com.gunho.artifact.exception.ArtifactException;
 import com.gunho.artifact.model.UrlArtifact;
 import com.gunho.artifact.repository.ArtifactFileRepository;
 import com.gunho.artifact.repository.ApiDocsDocumentRepository;
+import com.gunho.artifact.util.CompiledTemplate;
+import com.gunho.artifact.util.OpenApiJsonWriter;
+import com.gunho.artifact.util.OpenApiTagSplitter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import com.gunho.artifact.dto.ApiDocsRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.springframework.web.util.UriUtils;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.security.MessageDigest;
 import java.util.*;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ApiDocsGenerator {
@@ -26,6 +36,19 @@ public class ApiDocsGenerator {
     private final QuotaService quotaService;
     private final ArtifactFileRepository artifactFileRepository;
     private final ApiDocsDocumentRepository apiDocsDocumentRepository;
+    private final ArtifactRenderCache renderCache;
+    private final TemplateRegistry templateRegistry;
+    private final OpenApiSpecCompiler specCompiler;
+    private final ResourceUrlProvider resourceUrlProvider;
+    private final ArtifactStorage artifactStorage;
+    private final ArtifactVersionStore artifactVersionStore;
+
+    // local: bootJar/bootRun 이 싣는 /assets/scalar 번들 사용 (없으면 생성 실패), cdn: 버전 고정 CDN
+    @Value("${artifact.docs.scalar.source:local}")
+    private String scalarSource;
+
+    @Value("${artifact.docs.scalar.version:1.25.11}")
+    private String scalarVersion;
 
     @Transactional
     public ApiResponse<UrlArtifact> generateAsFiles(ApiDocsRequest req, User user) throws Exception {
@@ -33,234 +56,115 @@ public class ApiDocsGenerator {
                 .orElseThrow(() -> new ArtifactException("문서를 찾을 수 없습니다."));
         quotaService.consumeByDownload(user.getIdx());
 
-        String openApiJson = buildOpenApiJson(req);
-        String html = buildScalarHtmlInline(openApiJson);
-        byte[] htmlBytes = html.getBytes(StandardCharsets.UTF_8);
-        Path dir = Path.of("src", "main", "resources", "static",  "artifact", user.getId() ,"docs", req.getDocsIdx().toString());
-        Files.createDirectories(dir);
+        // 입력이 같으면 기존 파일을 그대로 사용
+        String scalarScriptUrl = scalarScriptUrl();
+        String templateName = req.isSplitByTag() ? TemplateRegistry.API_DOCS_SPLIT : TemplateRegistry.API_DOCS;
+        String contentHash = renderCache.digest(req, user.getId(), templateRegistry.fingerprint(templateName), scalarScriptUrl);
+        ArtifactFile artifactFile = document.getFile();
+        String dir = ArtifactStorage.key(user.getId(), "docs", req.getDocsIdx().toString());
+        String htmlKey = ArtifactStorage.key(dir, req.getTitle() + ".html");
+        if (renderCache.isFresh("docs", artifactFile, contentHash) && artifactStorage.exists(htmlKey)) {
+            return ApiResponse.success(toUrlArtifact(req, user, artifactFile.getSize()));
+        }
 
-        Path htmlPath = dir.resolve(req.getTitle() + ".html");
-        Files.write(htmlPath, htmlBytes);
-        long fileSize = Files.size(htmlPath);
+        Map<String, CompiledTemplate.Slot> slots = new HashMap<>();
+        slots.put("SCALAR_SCRIPT_URL", CompiledTemplate.Slot.text(scalarScriptUrl));
+        if (req.isSplitByTag()) {
+            Map<String, Object> index = writeTagFragments(req, dir);
+            slots.put("INDEX_JSON", writer -> OpenApiJsonWriter.write(index, writer));
+            slots.put("TAG_BASE_URL", CompiledTemplate.Slot.text(
+                    UriUtils.encodePathSegment(req.getTitle() + ".tags", StandardCharsets.UTF_8).replace("'", "%27") + "/"));
+        } else {
+            // 이전에 태그 분할로 생성하며 남긴 조각 정리
+            artifactStorage.retain(ArtifactStorage.key(dir, req.getTitle() + ".tags"), Set.of());
+            slots.put("SPEC_JSON", resolveSpecJson(req, document));
+        }
 
-        UrlArtifact urlArtifact = new UrlArtifact(
-                "%s.html".formatted(req.getTitle()),
-                "text/html",
-                fileSize,
-                "/static/artifact/" + user.getId() +  "/docs/" +  req.getDocsIdx().toString()  + "/%s.html".formatted(req.getTitle())
-        );
+        // 쓰는 동안 청크로 잘라 이력에 남긴다 (이전 버전과 같은 청크는 다시 저장하지 않음)
+        ArtifactVersionStore.Draft draft = artifactVersionStore.draft();
+        ArtifactStorage.DigestingContent html = new ArtifactStorage.DigestingContent(draft.capture(stream -> {
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+                // 스펙 JSON 은 < > & 를 \\uXXXX 로 escape 하므로 </script> 로 끊기지 않는다
+                templateRegistry.get(templateName).render(out, slots);
+            }
+        }));
+        long fileSize = artifactStorage.writeWithGzip(htmlKey, html);
 
-        ArtifactFile artifactFile = document.getFile();
         if (artifactFile == null) {
-            artifactFile = ArtifactFile.toEntity(user, req.getTitle(), req.getTitle(), dir.toString(), "html", fileSize);
+            artifactFile = ArtifactFile.toEntity(user, req.getTitle(), req.getTitle(), dir, "html", fileSize);
             document.updateFile(artifactFile);
         } else {
-            artifactFile.updateMetadata(req.getTitle(), req.getTitle(), dir.toString(), "html", fileSize);
+            artifactFile.updateMetadata(req.getTitle(), req.getTitle(), dir, "html", fileSize);
         }
+        artifactFile.updateContentHash(contentHash);
+        artifactFile.updateOutputHash(html.hex());
 
         artifactFileRepository.save(artifactFile);
+        artifactVersionStore.commit(artifactFile, draft);
 
-        return ApiResponse.success(urlArtifact);
+        return ApiResponse.success(toUrlArtifact(req, user, fileSize));
     }
 
-    private String buildOpenApiJson(ApiDocsRequest req) {
-        Map<String, Object> root = new LinkedHashMap<>();
-        root.put("openapi", "3.0.3");
-        Map<String, Object> info = Map.of(
-                "title", req.getTitle(),
-                "version", req.getVersion()
+    private UrlArtifact toUrlArtifact(ApiDocsRequest req, User user, long fileSize) {
+        return new UrlArtifact(
+                "%s.html".formatted(req.getTitle()),
+                "text/html",
+                fileSize,
+                "/static/artifact/" + user.getId() +  "/docs/" +  req.getDocsIdx().toString()  + "/%s.html".formatted(req.getTitle())
         );
-        root.put("info", info);
-
-        Map<String, Object> paths = new LinkedHashMap<>();
-        for (var ep : req.getEndpoints()) {
-            String path = ep.getPath();
-            String method = ep.getMethod().toLowerCase(Locale.ROOT);
-            Map<String, Object> methodObj = new LinkedHashMap<>();
-
-            if (ep.getSummary() != null) methodObj.put("summary", ep.getSummary());
-            if (ep.getTags() != null) methodObj.put("tags", ep.getTags());
-            Map<String, Object> requestBody = ep.getRequestBody();
-            if (ep.getParams() != null && !ep.getParams().isEmpty()) {
-                List<Map<String, Object>> filtered = new ArrayList<>();
-                for (Map<String, Object> param : ep.getParams()) {
-                    if (param == null) {
-                        continue;
-                    }
-                    Object locationObj = param.get("in");
-                    String location = locationObj != null ? locationObj.toString().toLowerCase(Locale.ROOT) : "";
-                    if ("requestbody".equals(location) || "body".equals(location)) {
-                        if (requestBody == null) {
-                            requestBody = legacyParamToRequestBody(param);
-                        }
-                    } else {
-                        filtered.add(param);
-                    }
-                }
-                if (!filtered.isEmpty()) {
-                    methodObj.put("parameters", filtered);
-                }
-            }
-            if (requestBody != null && !requestBody.isEmpty()) {
-                Map<String, Object> sanitized = sanitizeRequestBody(requestBody);
-                if (!sanitized.isEmpty()) {
-                    methodObj.put("requestBody", sanitized);
-                }
-            }
-
-            Map<String, Object> responses = new LinkedHashMap<>();
-            if (ep.getResponses() != null && !ep.getResponses().isEmpty()) {
-                responses.putAll(ep.getResponses());
-            } else {
-                responses.put("200", Map.of("description", "OK"));
-            }
-            methodObj.put("responses", responses);
-
-            Map<String, Object> pathItem = (Map<String, Object>) paths.getOrDefault(path, new LinkedHashMap<>());
-            pathItem.put(method, methodObj);
-            paths.put(path, pathItem);
-        }
-        root.put("paths", paths);
-
-        return toJson(root);
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private Map<String, Object> sanitizeRequestBody(Map<String, Object> requestBody) {
-        if (requestBody == null) {
-            return Collections.emptyMap();
-        }
-        Map<String, Object> copy = new LinkedHashMap<>(requestBody);
-        copy.remove("enabled");
-        copy.remove("contentType");
-
-        Object required = copy.get("required");
-        if (required instanceof String str) {
-            copy.put("required", Boolean.parseBoolean(str));
-        }
-
-        Object contentObj = copy.get("content");
-        if (contentObj instanceof Map<?, ?> contentMap) {
-            Map<String, Object> sanitizedContent = new LinkedHashMap<>();
-            contentMap.forEach((key, value) -> sanitizedContent.put(String.valueOf(key), value));
-            copy.put("content", sanitizedContent);
-        } else if (contentObj == null) {
-            copy.remove("content");
-        }
-
-        Object sanitizedContentObj = copy.get("content");
-        if (sanitizedContentObj instanceof Map<?, ?> sanitizedContent && sanitizedContent.isEmpty()) {
-            copy.remove("content");
+    /**
+     * 요청 내용이 저장 시 컴파일해 둔 스펙과 같으면 보관본을 그대로 쓰고, 아니면(미저장 편집분) 바로 컴파일
+     */
+    private CompiledTemplate.Slot resolveSpecJson(ApiDocsRequest req, ApiDocsDocument document) {
+        ApiDocsSpec spec = document.getSpec();
+        if (spec != null && spec.getOpenApi() != null
+                && specCompiler.sourceHash(req.getTitle(), req.getVersion(), req.getEndpoints()).equals(spec.getSourceHash())) {
+            return CompiledTemplate.Slot.text(spec.getOpenApi());
         }
-
-        return copy.isEmpty() ? Collections.emptyMap() : copy;
+        Map<String, Object> openApi = specCompiler.compile(req.getTitle(), req.getVersion(), req.getEndpoints());
+        return writer -> OpenApiJsonWriter.write(openApi, writer);
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private Map<String, Object> legacyParamToRequestBody(Map<String, Object> param) {
-        if (param == null) {
-            return null;
-        }
-        Map<String, Object> body = new LinkedHashMap<>();
-        Object description = param.get("description");
-        if (description != null) {
-            body.put("description", description);
-        }
-        Object required = param.get("required");
-        if (required instanceof Boolean bool && bool) {
-            body.put("required", true);
-        } else if (required instanceof String str && Boolean.parseBoolean(str)) {
-            body.put("required", true);
+    /**
+     * 태그별 스펙 조각을 <title>.tags/<n>.json 으로 쓰고 인덱스를 반환.
+     * 뷰어는 인덱스만 인라인으로 받고 선택한 태그의 조각만 내려받는다.
+     */
+    private Map<String, Object> writeTagFragments(ApiDocsRequest req, String dir) throws IOException {
+        Map<String, Object> openApi = specCompiler.compile(req.getTitle(), req.getVersion(), req.getEndpoints());
+        OpenApiTagSplitter.Split split = OpenApiTagSplitter.split(openApi);
+
+        String tagDir = ArtifactStorage.key(dir, req.getTitle() + ".tags");
+        Set<String> written = new HashSet<>();
+        for (int i = 0; i < split.fragments().size(); i++) {
+            Map<String, Object> fragment = split.fragments().get(i);
+            String key = ArtifactStorage.key(tagDir, i + ".json");
+            artifactStorage.writeWithGzip(key, out -> OpenApiJsonWriter.write(fragment, out));
+            written.add(key);
         }
+        String indexKey = ArtifactStorage.key(tagDir, "index.json");
+        artifactStorage.writeWithGzip(indexKey, out -> OpenApiJsonWriter.write(split.index(), out));
+        written.add(indexKey);
 
-        Object contentTypeObj = param.get("contentType");
-        String contentType = (contentTypeObj != null && !contentTypeObj.toString().isBlank()) ? contentTypeObj.toString() : "application/json";
-        Map<String, Object> mediaType = new LinkedHashMap<>();
-        Object schemaObj = param.get("schema");
-        if (schemaObj instanceof Map<?, ?> schemaMap) {
-            mediaType.put("schema", schemaMap);
-        } else {
-            mediaType.put("schema", Map.of("type", "object"));
-        }
-        Object example = param.get("example");
-        if (example != null) {
-            mediaType.put("example", example);
-        }
-
-        Map<String, Object> content = new LinkedHashMap<>();
-        content.put(contentType, mediaType);
-        body.put("content", content);
-        return body;
-    }
-
-    // Scalar API Reference: 인라인 JSON + 단일 script#api-reference (컨테이너 div 제거)
-    private String buildScalarHtmlInline(String openapiJson) {
-        // </script> 안전 처리
-        String safeJson = openapiJson.replace("</script>", "<\\/script>");
-
-        String template = """
-                <!doctype html>
-                <html lang="ko">
-                <head>
-                  <meta charset="utf-8" />
-                  <meta name="viewport" content="width=device-width, initial-scale=1" />
-                  <title>API 문서</title>
-                  <style>
-                    html, body { height: 100%; margin: 0; }
-                  </style>
-                </head>
-                <body>
-                  <!-- OpenAPI 스펙을 인라인으로 제공 (이 요소 하나만 id="api-reference") -->
-                  <script id="api-reference" type="application/json">
-                  ${SPEC_JSON}
-                  </script>
-
-                  <!-- Scalar API Reference 스크립트 -->
-                  <script src="https://cdn.jsdelivr.net/npm/@scalar/api-reference"></script>
-                </body>
-                </html>
-                """;
-
-        return template.replace("${SPEC_JSON}", safeJson);
+        // 새 조각을 다 쓴 뒤에 이전 조각을 지워서 재생성 중에도 기존 뷰어가 깨지지 않게 한다
+        artifactStorage.retain(tagDir, written);
+        return split.index();
     }
 
-    // 간단 JSON 직렬화
-    private String toJson(Object obj) {
-        if (obj == null) return "null";
-        if (obj instanceof String s) return "\"" + escape(s) + "\"";
-        if (obj instanceof Number || obj instanceof Boolean) return obj.toString();
-        if (obj instanceof Map<?, ?> map) {
-            StringBuilder sb = new StringBuilder("{");
-            boolean first = true;
-            for (var e : map.entrySet()) {
-                if (!first) sb.append(",");
-                sb.append(toJson(String.valueOf(e.getKey()))).append(":").append(toJson(e.getValue()));
-                first = false;
-            }
-            sb.append("}");
-            return sb.toString();
+    /**
+     * Scalar 스크립트 주소. 로컬 번들은 내용 해시가 붙은 /assets URL 로 제공된다.
+     */
+    private String scalarScriptUrl() {
+        if (!"local".equalsIgnoreCase(scalarSource)) {
+            return "https://cdn.jsdelivr.net/npm/@scalar/api-reference@" + scalarVersion;
         }
-        if (obj instanceof Iterable<?> it) {
-            StringBuilder sb = new StringBuilder("[");
-            boolean first = true;
-            for (var v : it) {
-                if (!first) sb.append(",");
-                sb.append(toJson(v));
-                first = false;
-            }
-            sb.append("]");
-            return sb.toString();
+        String localUrl = resourceUrlProvider.getForLookupPath("/assets/scalar/" + scalarVersion + "/api-reference.js");
+        if (localUrl == null) {
+            // 폐쇄망에서 CDN 으로 넘어가면 뷰어가 조용히 깨지므로 생성 자체를 막는다
+            log.error("로컬 Scalar 번들이 없습니다. (./gradlew downloadScalarBundle -PscalarVersion={}) 또는 artifact.docs.scalar.source=cdn", scalarVersion);
+            throw new ArtifactException("API 문서 뷰어 번들을 찾을 수 없습니다. 관리자에게 문의해주세요.");
         }
-        return "\"" + escape(String.valueOf(obj)) + "\"";
-    }
-
-    private String escape(String s) {
-        return s.replace("\\", "\\\\").replace("\"", "\\\"");
-    }
-
-    private static String sha256Hex(byte[] data) throws Exception {
-        MessageDigest md = MessageDigest.getInstance("SHA-256");
-        byte[] d = md.digest(data);
-        return HexFormat.of().formatHex(d);
+        return localUrl;
     }
 }
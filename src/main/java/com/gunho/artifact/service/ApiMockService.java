@@ -0,0 +1,233 @@
+package com.gunho.artifact.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gunho.artifact.dto.ApiDocsRequest;
+import com.gunho.artifact.entity.ApiDocsDocument;
+import com.gunho.artifact.entity.User;
+import com.gunho.artifact.exception.ArtifactException;
+import com.gunho.artifact.repository.ApiDocsDocumentRepository;
+import com.gunho.artifact.util.OpenApiSampleValues;
+import com.gunho.artifact.util.RouteTrie;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * API 문서에 적힌 응답 예시를 그대로 돌려주는 목 서버.
+ * 문서별로 경로 템플릿 트라이와 응답 본문(직렬화된 바이트)을 한 번 컴파일해 캐시하고,
+ * 문서가 저장/삭제되면 커밋 이후에 캐시를 비운다. 캐시는 컴파일한 문서의 updatedAt 과 함께 두어
+ * 무효화 전에 다른 요청이 이전 내용으로 다시 채워 넣었더라도 다음 요청에서 버려지게 한다.
+ * 컴파일은 맵 잠금 밖에서 하므로 같은 문서를 동시에 요청하면 중복 컴파일될 수 있고, 더 새 updatedAt 쪽이 남는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ApiMockService {
+
+    public static final String STATUS_HEADER = "X-Mock-Status";
+    public static final String EXAMPLE_HEADER = "X-Mock-Example";
+
+    private final ApiDocsDocumentRepository apiDocsDocumentRepository;
+    private final OpenApiSpecCompiler specCompiler;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, MockRoutes> routes = new ConcurrentHashMap<>();
+
+    private record MockRoutes(Long ownerIdx, LocalDateTime updatedAt, RouteTrie<MockOperation> trie) {
+    }
+
+    private record MockOperation(String defaultStatus, Map<String, MockResponse> responses) {
+    }
+
+    private record MockResponse(int status, String contentType, byte[] body, Map<String, byte[]> examples) {
+    }
+
+    /**
+     * @param status  X-Mock-Status 헤더 (없으면 가장 작은 2xx)
+     * @param example X-Mock-Example 헤더 (없으면 첫 예시)
+     */
+    public ResponseEntity<byte[]> respond(Long docsIdx, String method, String path, String status, String example, User user) {
+        LocalDateTime updatedAt = apiDocsDocumentRepository.findUpdatedAtByIdx(docsIdx)
+                .orElseThrow(() -> new ArtifactException("문서를 찾을 수 없습니다."));
+        MockRoutes mock = routes.get(docsIdx);
+        if (mock == null || !Objects.equals(mock.updatedAt(), updatedAt)) {
+            // DB 조회와 트라이 생성은 맵 밖에서 한다 (compute 안에서 하면 같은 bin 의 다른 문서 요청까지 기다린다).
+            // 그 사이 다른 요청이 더 새 내용을 넣었으면 그쪽을 남긴다
+            MockRoutes compiled = compile(docsIdx);
+            mock = routes.merge(docsIdx, compiled, (current, fresh) -> isNewer(fresh, current) ? fresh : current);
+        }
+        if (!Objects.equals(mock.ownerIdx(), user.getIdx())) {
+            throw new ArtifactException("문서를 찾을 수 없습니다.");
+        }
+
+        RouteTrie.Match<MockOperation> match = mock.trie().match(method, path);
+        if (match == null) {
+            HttpStatus notMatched = mock.trie().hasPath(path) ? HttpStatus.METHOD_NOT_ALLOWED : HttpStatus.NOT_FOUND;
+            return error(notMatched, "문서에 없는 엔드포인트입니다: " + method + " " + path);
+        }
+
+        MockOperation operation = match.value();
+        String statusKey = StringUtils.hasText(status) ? status.trim() : operation.defaultStatus();
+        MockResponse response = operation.responses().get(statusKey);
+        if (response == null) {
+            return error(HttpStatus.BAD_REQUEST, "문서에 없는 응답 코드입니다: " + statusKey);
+        }
+
+        byte[] body = response.body();
+        if (StringUtils.hasText(example)) {
+            body = response.examples().get(example.trim());
+            if (body == null) {
+                return error(HttpStatus.BAD_REQUEST, "문서에 없는 예시입니다: " + example);
+            }
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.status())
+                .header("X-Mock-Route", match.template());
+        if (body == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.parseMediaType(response.contentType())).body(body);
+    }
+
+    /**
+     * 커밋 이후에 비워야 다른 요청이 커밋 전 데이터로 다시 컴파일해 캐시하는 일이 없다
+     */
+    public void invalidate(Long docsIdx) {
+        if (docsIdx == null) {
+            return;
+        }
+        routes.remove(docsIdx);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    routes.remove(docsIdx);
+                }
+            });
+        }
+    }
+
+    private static boolean isNewer(MockRoutes fresh, MockRoutes current) {
+        return current.updatedAt() == null
+                || (fresh.updatedAt() != null && !fresh.updatedAt().isBefore(current.updatedAt()));
+    }
+
+    private MockRoutes compile(Long docsIdx) {
+        ApiDocsDocument docs = apiDocsDocumentRepository.findById(docsIdx)
+                .orElseThrow(() -> new ArtifactException("문서를 찾을 수 없습니다."));
+
+        List<ApiDocsRequest.Endpoint> endpoints = specCompiler.toEndpoints(readEndpoints(docs.getEndpoints()));
+        RouteTrie<MockOperation> trie = new RouteTrie<>();
+        for (ApiDocsRequest.Endpoint endpoint : endpoints) {
+            if (endpoint == null || !StringUtils.hasText(endpoint.getMethod()) || !StringUtils.hasText(endpoint.getPath())) {
+                continue;
+            }
+            if (!trie.add(endpoint.getMethod(), endpoint.getPath(), compileOperation(endpoint))) {
+                log.debug("중복 엔드포인트 무시 docsIdx : {}, {} {}", docsIdx, endpoint.getMethod(), endpoint.getPath());
+            }
+        }
+        return new MockRoutes(docs.getProject().getUser().getIdx(), docs.getUpdatedAt(), trie);
+    }
+
+    private List<Map<String, Object>> readEndpoints(String json) {
+        if (!StringUtils.hasText(json)) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<>() {
+            });
+        } catch (Exception e) {
+            log.warn("엔드포인트 파싱 실패", e);
+            return List.of();
+        }
+    }
+
+    private MockOperation compileOperation(ApiDocsRequest.Endpoint endpoint) {
+        Map<String, Map<String, Object>> documented = endpoint.getResponses();
+        if (documented == null || documented.isEmpty()) {
+            return new MockOperation("200", Map.of("200", new MockResponse(200, MediaType.APPLICATION_JSON_VALUE, null, Map.of())));
+        }
+
+        Map<String, MockResponse> responses = new LinkedHashMap<>();
+        documented.forEach((code, response) -> {
+            int status = parseStatus(code);
+            if (status > 0) {
+                responses.put(code, compileResponse(status, response));
+            }
+        });
+        String defaultStatus = responses.keySet().stream()
+                .filter(code -> code.startsWith("2"))
+                .min(Comparator.naturalOrder())
+                .orElse(responses.isEmpty() ? "200" : responses.keySet().iterator().next());
+        return new MockOperation(defaultStatus, responses);
+    }
+
+    // "2XX", "default" 같은 범위 코드는 대표 코드로 바꾼다
+    private static int parseStatus(String code) {
+        if ("default".equalsIgnoreCase(code)) {
+            return 200;
+        }
+        String normalized = code.toUpperCase(Locale.ROOT).replace('X', '0');
+        try {
+            int status = Integer.parseInt(normalized);
+            return status >= 100 && status <= 599 ? status : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private MockResponse compileResponse(int status, Map<String, Object> response) {
+        if (response == null || !(response.get("content") instanceof Map<?, ?> content) || content.isEmpty()) {
+            return new MockResponse(status, MediaType.APPLICATION_JSON_VALUE, null, Map.of());
+        }
+        String contentType = content.containsKey(MediaType.APPLICATION_JSON_VALUE)
+                ? MediaType.APPLICATION_JSON_VALUE : String.valueOf(content.keySet().iterator().next());
+        Map<?, ?> media = content.get(contentType) instanceof Map<?, ?> map ? map : Map.of();
+
+        Map<String, byte[]> examples = new LinkedHashMap<>();
+        if (media.get("examples") instanceof Map<?, ?> named) {
+            named.forEach((name, example) -> {
+                Object value = example instanceof Map<?, ?> map ? map.get("value") : example;
+                examples.put(String.valueOf(name), serialize(contentType, value));
+            });
+        }
+
+        byte[] body = serialize(contentType, OpenApiSampleValues.sampleOfMedia(media));
+        return new MockResponse(status, contentType, body, examples);
+    }
+
+    private byte[] serialize(String contentType, Object value) {
+        if (value instanceof String text && !contentType.contains("json")) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private ResponseEntity<byte[]> error(HttpStatus status, String message) {
+        try {
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(objectMapper.writeValueAsBytes(Map.of("message", message)));
+        } catch (Exception e) {
+            return ResponseEntity.status(status).build();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.gunho.artifact.service;
+
+import com.gunho.artifact.entity.ArtifactFile;
+import com.gunho.artifact.entity.ArtifactVersion;
+import com.gunho.artifact.entity.User;
+import com.gunho.artifact.exception.ArtifactException;
+import com.gunho.artifact.repository.ArtifactFileRepository;
+import com.gunho.artifact.util.PrecompressedOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ArtifactFile.idx 로 산출물을 내려준다.
+ * 저장할 때 계산한 HTML 본문 해시를 강한 ETag 로 써서 If-None-Match 가 맞으면 304 만 보내고,
+ * Range 요청은 206 으로 필요한 구간만 보낸다.
+ * 로컬 파일은 Tomcat sendfile 이나 FileChannel.transferTo 로 사용자 공간 버퍼 복사 없이 소켓에 쓰고,
+ * 원격 저장소는 서명 URL 로 리다이렉트하거나 요청 구간만 받아 스트리밍한다.
+ * 전송이 길어질 수 있으므로 트랜잭션(DB 커넥션)을 잡지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArtifactDownloadService {
+
+    // Tomcat NIO 커넥터의 sendfile 요청 속성 (org.apache.coyote.Constants 와 같은 값)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // 이보다 작으면 sendfile 준비 비용이 더 크다 (Tomcat DefaultServlet 기본값과 같음)
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private final ArtifactFileRepository artifactFileRepository;
+    private final ArtifactStorage artifactStorage;
+    private final ArtifactVersionStore artifactVersionStore;
+    private final ResourceRegionHttpMessageConverter regionConverter = new ResourceRegionHttpMessageConverter();
+
+    public void download(Long idx, boolean attachment, User user, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ArtifactFile file = artifactFileRepository.findByIdxAndUserIdx(idx, user.getIdx())
+                .orElseThrow(() -> new ArtifactException("파일을 찾을 수 없습니다."));
+        String filename = file.getStoredName() + "." + file.getContentType();
+        String key = ArtifactStorage.key(ArtifactStorage.normalizeDir(file.getRelativePath()), filename);
+        if (!artifactStorage.exists(key)) {
+            throw new ArtifactException("파일을 찾을 수 없습니다.");
+        }
+        serve(key, filename, file.getOutputHash(), attachment, true, request, response);
+    }
+
+    /**
+     * 이력에 남은 버전을 청크에서 이어 붙여 내려준다. 버전 내용은 바뀌지 않으므로 원본 SHA-256 을 ETag 로 두고 오래 캐시한다
+     */
+    public void downloadVersion(Long idx, int version, boolean attachment, User user, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        ArtifactFile file = artifactFileRepository.findByIdxAndUserIdx(idx, user.getIdx())
+                .orElseThrow(() -> new ArtifactException("파일을 찾을 수 없습니다."));
+        ArtifactVersion stored = artifactVersionStore.find(file.getIdx(), version)
+                .orElseThrow(() -> new ArtifactException("버전을 찾을 수 없습니다."));
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + stored.getDigest() + "\"")) {
+            return;
+        }
+        String filename = "%s.v%d.%s".formatted(file.getStoredName(), version, file.getContentType());
+        response.setContentType(mediaType(filename).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                (attachment ? ContentDisposition.attachment() : ContentDisposition.inline())
+                        .filename(filename, StandardCharsets.UTF_8).build().toString());
+        response.setContentLengthLong(stored.getSize());
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        try (InputStream in = artifactVersionStore.open(stored)) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+
+    /**
+     * /static/artifact/** 경로를 저장소에서 바로 내려준다. 로컬 디스크가 없는 저장소(S3)에서 정적 핸들러 대신 쓴다.
+     * 뷰어 HTML 이 청크/조각을 상대 경로로 읽으므로 리다이렉트하지 않고 스트리밍한다
+     */
+    public void serveStatic(String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!artifactStorage.exists(key)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        serve(key, key.substring(key.lastIndexOf('/') + 1), null, false, false, request, response);
+    }
+
+    private void serve(String key, String filename, String outputHash, boolean attachment, boolean redirect,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 미리 압축해 둔 .gz 가 있으면 그 표현을 보낸다. 표현마다 ETag 가 달라야 한다
+        boolean gzip = acceptsGzip(request) && artifactStorage.exists(key + PrecompressedOutputStream.GZIP_EXTENSION);
+        String storedKey = gzip ? key + PrecompressedOutputStream.GZIP_EXTENSION : key;
+        Resource resource = artifactStorage.resource(storedKey);
+        // 본문 해시가 없으면 ETag 없이 Last-Modified 로만 재검증한다
+        String etag = StringUtils.hasText(outputHash)
+                ? "\"" + outputHash + (gzip ? "-gzip" : "") + "\""
+                : null;
+        long lastModified = resource.lastModified();
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache"); // 항상 재검증, 바뀌지 않았으면 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        // 저장소가 직접 내려줄 수 있으면(S3 서명 URL) 본문은 거기서 받게 한다
+        Optional<URI> directUrl = redirect ? artifactStorage.downloadUrl(storedKey, filename, attachment) : Optional.empty();
+        if (directUrl.isPresent()) {
+            response.sendRedirect(directUrl.get().toString());
+            return;
+        }
+
+        MediaType mediaType = mediaType(filename);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                (attachment ? ContentDisposition.attachment() : ContentDisposition.inline())
+                        .filename(filename, StandardCharsets.UTF_8).build().toString());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        long length = resource.contentLength();
+        List<HttpRange> ranges = requestedRanges(request, etag, lastModified);
+        if (ranges.isEmpty()) {
+            response.setContentType(mediaType.toString());
+            response.setContentLengthLong(length);
+            transfer(resource, storedKey, 0, length, request, response);
+            return;
+        }
+
+        List<ResourceRegion> regions = new ArrayList<>(ranges.size());
+        try {
+            for (HttpRange range : ranges) {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                regions.add(new ResourceRegion(resource, start, end - start + 1));
+            }
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (regions.size() == 1) {
+            ResourceRegion region = regions.get(0);
+            long end = region.getPosition() + region.getCount() - 1;
+            response.setContentType(mediaType.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d".formatted(region.getPosition(), end, length));
+            response.setContentLengthLong(region.getCount());
+            transfer(resource, storedKey, region.getPosition(), region.getCount(), request, response);
+            return;
+        }
+        // 여러 구간은 컨버터가 multipart/byteranges 로 묶는다 (드물어서 일반 스트림 복사)
+        regionConverter.write(regions, null, mediaType, new ServletServerHttpResponse(response));
+    }
+
+    /**
+     * Range 헤더를 읽는다. If-Range 가 현재 ETag/수정 시각과 다르면 전체를 보낸다
+     */
+    private static List<HttpRange> requestedRanges(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (!StringUtils.hasText(header)) {
+            return List.of();
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (StringUtils.hasText(ifRange)) {
+            if (!ifRangeMatches(request, ifRange, etag, lastModified)) {
+                return List.of();
+            }
+        }
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            log.debug("Range 헤더 무시 {} : {}", header, e.getMessage());
+            return List.of();
+        }
+    }
+
+    // If-Range 는 강한 ETag 나 날짜만 허용한다 (약한 ETag 는 일치하지 않는 것으로 본다)
+    private static boolean ifRangeMatches(HttpServletRequest request, String ifRange, String etag, long lastModified) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static MediaType mediaType(String filename) {
+        MediaType mediaType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        if (mediaType.getType().equals("text") && mediaType.getCharset() == null) {
+            mediaType = new MediaType(mediaType, StandardCharsets.UTF_8);
+        }
+        return mediaType;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private void transfer(Resource resource, String storedKey, long start, long count, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        if (count == 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (!resource.isFile()) {
+            artifactStorage.copyRange(storedKey, start, count, response.getOutputStream());
+            return;
+        }
+
+        Path path = resource.getFile().toPath().toRealPath();
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // 커넥터가 응답을 쓴 뒤 sendfile(2) 로 파일을 소켓에 바로 보낸다
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
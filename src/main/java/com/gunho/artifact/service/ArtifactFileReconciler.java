@@ -0,0 +1,252 @@
+package com.gunho.artifact.service;
+
+import com.gunho.artifact.enums.RedisKey;
+import com.gunho.artifact.repository.ArtifactFileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 저장소에는 남아 있지만 어떤 artifact_file 행도 가리키지 않는 파일(삭제된 플로우/문서, 제목 변경 전 파일)을 지운다.
+ * 저장소는 Redis 에 둔 커서부터 정해진 페이지 수만큼만 훑어서 다음 실행에 이어 가고,
+ * 페이지마다 그 키들의 후보 접두사("{relativePath}/{storedName}")만 artifact_file 에서 IN 으로 찾아 비교한다.
+ * 테이블 전체를 읽지 않으므로 실행 비용은 산출물 수가 아니라 페이지 크기에 비례한다.
+ * 방금 생성돼 아직 커밋 전인 파일을 지우지 않도록 유예 시간보다 오래된 파일만 대상으로 하고,
+ * 삭제는 초당 횟수를 제한해 디스크/오브젝트 스토리지에 부하를 몰아주지 않는다.
+ * 버전 저장소의 청크("_cas/chunks/")는 경로가 아니라 artifact_chunk 행 유무로 판단한다.
+ * 진행 상황은 artifact.gc.* 지표로 노출된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArtifactFileReconciler {
+
+    private static final String CURSOR_KEY = RedisKey.ARTIFACT_GC.getFormatKey("cursor");
+    private static final String LOCK_KEY = RedisKey.ARTIFACT_GC.getFormatKey("lock");
+    // 산출물 하나가 저장소에 남기는 파일 이름. 접두사 바로 뒤에 이 중 하나가 와야 살아 있는 파일이다
+    private static final List<String> FILE_SUFFIXES = List.of(".html", ".html.gz", ".layout.json");
+    private static final List<String> DIR_SUFFIXES = List.of(".chunks/", ".tags/");
+    // 삭제 시간 외에 목록/DB 조회에 쓸 여유
+    private static final Duration LOCK_MARGIN = Duration.ofMinutes(5);
+
+    private final ArtifactStorage artifactStorage;
+    private final ArtifactFileRepository artifactFileRepository;
+    private final ArtifactVersionStore artifactVersionStore;
+    private final RedisService redisService;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong passScanned = new AtomicLong();
+    private final AtomicLong passOrphans = new AtomicLong();
+    private final AtomicLong passes = new AtomicLong();
+    private final AtomicLong passLive = new AtomicLong();
+    private Counter deletedFiles;
+    private Counter deletedBytes;
+
+    @Value("${artifact.gc.enabled:true}")
+    private boolean enabled;
+
+    // true 면 지울 대상만 로그로 남긴다
+    @Value("${artifact.gc.dry-run:false}")
+    private boolean dryRun;
+
+    @Value("${artifact.gc.page-size:500}")
+    private int pageSize;
+
+    @Value("${artifact.gc.pages-per-run:20}")
+    private int pagesPerRun;
+
+    @Value("${artifact.gc.deletes-per-second:20}")
+    private int deletesPerSecond;
+
+    @Value("${artifact.gc.grace-minutes:60}")
+    private long graceMinutes;
+
+    private long nextDeleteAt;
+    private Duration lockTtl;
+
+    @PostConstruct
+    void init() {
+        // 한 번 실행의 최대 삭제 시간(페이지 수 x 페이지 크기 / 초당 삭제 수)보다 잠금이 먼저 풀리지 않게 한다
+        long deletes = (long) pagesPerRun * pageSize;
+        lockTtl = Duration.ofSeconds((deletes + Math.max(1, deletesPerSecond) - 1) / Math.max(1, deletesPerSecond)).plus(LOCK_MARGIN);
+        Gauge.builder("artifact.gc.pass.scanned", passScanned, AtomicLong::get)
+                .description("현재 패스에서 훑은 저장소 파일 수")
+                .register(meterRegistry);
+        Gauge.builder("artifact.gc.pass.orphans", passOrphans, AtomicLong::get)
+                .description("현재 패스에서 찾은 고아 파일 수")
+                .register(meterRegistry);
+        Gauge.builder("artifact.gc.passes", passes, AtomicLong::get)
+                .description("끝까지 훑은 패스 수")
+                .register(meterRegistry);
+        Gauge.builder("artifact.gc.pass.live", passLive, AtomicLong::get)
+                .description("현재 패스에서 살아 있는 산출물 파일로 확인한 수")
+                .register(meterRegistry);
+        deletedFiles = Counter.builder("artifact.gc.deleted.files").description("삭제한 고아 파일 수").register(meterRegistry);
+        deletedBytes = Counter.builder("artifact.gc.deleted.bytes").description("삭제한 고아 파일 크기").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${artifact.gc.initial-delay-ms:120000}", fixedDelayString = "${artifact.gc.interval-ms:60000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        // 여러 노드가 같은 저장소를 보더라도 한 번에 한 노드만 실행. 해제할 때 자기 토큰일 때만 지운다
+        String token = UUID.randomUUID().toString();
+        if (!redisService.setIfAbsent(LOCK_KEY, token, lockTtl)) {
+            return;
+        }
+        try {
+            runOnce(System.nanoTime() + lockTtl.minus(LOCK_MARGIN).toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("고아 파일 정리 실패", e);
+        } finally {
+            if (!redisService.deleteIfEquals(LOCK_KEY, token)) {
+                log.warn("고아 파일 정리 잠금이 실행 중에 만료됐습니다. ttl : {}", lockTtl);
+            }
+        }
+    }
+
+    /**
+     * @param deadline System.nanoTime 기준. 넘기면 커서를 남기고 멈춰서 잠금 TTL 안에 끝낸다
+     */
+    private void runOnce(long deadline) throws Exception {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(graceMinutes);
+
+        String cursor = redisService.get(CURSOR_KEY, String.class).orElse(null);
+        if (cursor == null) {
+            passScanned.set(0);
+            passOrphans.set(0);
+            passLive.set(0);
+        }
+        // 첫 페이지는 항상 처리해서 예산이 작아도 커서가 나아간다
+        for (int page = 0; page < pagesPerRun && (page == 0 || System.nanoTime() < deadline); page++) {
+            List<ArtifactStorage.StoredObject> objects = artifactStorage.list(cursor, pageSize);
+            List<String> keys = objects.stream().map(ArtifactStorage.StoredObject::key).toList();
+            Set<String> live = livePrefixes(keys);
+            Set<String> chunks = artifactVersionStore.referencedChunkKeys(keys);
+            for (ArtifactStorage.StoredObject object : objects) {
+                passScanned.incrementAndGet();
+                if (object.lastModified() > cutoff || chunks.contains(object.key())) {
+                    continue;
+                }
+                if (isLive(object.key(), live)) {
+                    passLive.incrementAndGet();
+                    continue;
+                }
+                passOrphans.incrementAndGet();
+                remove(object, cutoff);
+            }
+            if (objects.size() < pageSize) {
+                // 끝까지 훑었으면 다음 실행은 처음부터
+                passes.incrementAndGet();
+                redisService.delete(CURSOR_KEY);
+                log.info("고아 파일 정리 패스 완료 scanned : {}, orphans : {}, dryRun : {}", passScanned.get(), passOrphans.get(), dryRun);
+                return;
+            }
+            cursor = objects.get(objects.size() - 1).key();
+            redisService.set(CURSOR_KEY, cursor);
+        }
+    }
+
+    /**
+     * 주어진 키들의 후보 접두사 중 artifact_file 행이 있는 것만 돌려준다.
+     * 예전 행은 relativePath 가 소스 트리 기준이거나 끝에 '/' 가 붙어 있을 수 있어 그 형태로도 찾고, 결과는 정규화해서 맞춘다
+     */
+    private Set<String> livePrefixes(Collection<String> keys) {
+        Set<String> dirs = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (String key : keys) {
+            for (String prefix : candidatePrefixes(key)) {
+                int slash = prefix.lastIndexOf('/');
+                if (slash <= 0) {
+                    continue;
+                }
+                String dir = prefix.substring(0, slash);
+                dirs.addAll(List.of(dir, dir + "/", ArtifactStorage.LEGACY_ROOT + "/" + dir, ArtifactStorage.LEGACY_ROOT + "/" + dir + "/"));
+                names.add(prefix.substring(slash + 1));
+            }
+        }
+        if (names.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> live = new HashSet<>();
+        for (ArtifactFileRepository.StoredPath path : artifactFileRepository.findByRelativePathInAndStoredNameIn(dirs, names)) {
+            live.add(ArtifactStorage.key(ArtifactStorage.normalizeDir(path.getRelativePath()), path.getStoredName()));
+        }
+        return live;
+    }
+
+    /**
+     * "{dir}/{title}" 바로 뒤에 산출물 파일 이름(.html, .html.gz, .layout.json)이 오거나
+     * 청크/태그 디렉터리(.chunks/, .tags/) 아래에 있어야 살아 있는 파일이다.
+     * "a.b" 가 살아 있다고 "a.b.old.html" 이나 "a.b.bak" 까지 남기지 않는다
+     */
+    static boolean isLive(String key, Set<String> livePrefixes) {
+        return candidatePrefixes(key).stream().anyMatch(livePrefixes::contains);
+    }
+
+    // 키가 어떤 산출물의 파일이라면 그 산출물의 "{dir}/{title}" 이 될 수 있는 값들
+    static List<String> candidatePrefixes(String key) {
+        List<String> prefixes = new ArrayList<>(2);
+        for (String suffix : FILE_SUFFIXES) {
+            if (key.endsWith(suffix)) {
+                prefixes.add(key.substring(0, key.length() - suffix.length()));
+            }
+        }
+        for (String suffix : DIR_SUFFIXES) {
+            int i = key.indexOf(suffix);
+            if (i >= 0) {
+                prefixes.add(key.substring(0, i));
+            }
+        }
+        return prefixes;
+    }
+
+    private void remove(ArtifactStorage.StoredObject object, long cutoff) throws Exception {
+        if (dryRun) {
+            log.info("[dry-run] 고아 파일 {} ({} bytes)", object.key(), object.size());
+            return;
+        }
+        throttle();
+        if (ArtifactVersionStore.isChunkKey(object.key())) {
+            // 목록을 읽은 뒤 같은 청크가 다시 저장됐을 수 있어 잠금을 잡고 다시 확인한다
+            if (!artifactVersionStore.deleteOrphanChunk(object.key(), cutoff)) {
+                return;
+            }
+        } else {
+            artifactStorage.delete(object.key());
+        }
+        deletedFiles.increment();
+        deletedBytes.increment(object.size());
+        log.debug("고아 파일 삭제 {} ({} bytes)", object.key(), object.size());
+    }
+
+    // 삭제 사이 간격을 1/deletesPerSecond 초로 맞춘다
+    private void throttle() throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, deletesPerSecond);
+        long now = System.nanoTime();
+        long wait = nextDeleteAt - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        nextDeleteAt = Math.max(now, nextDeleteAt) + interval;
+    }
+}
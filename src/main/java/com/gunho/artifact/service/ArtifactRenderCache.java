@@ -0,0 +1,75 @@
+package com.gunho.artifact.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.gunho.artifact.entity.ArtifactFile;
+import com.gunho.artifact.exception.ArtifactException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * 산출물 렌더링 입력을 정규화(키 정렬 JSON)해서 해시하고,
+ * ArtifactFile 에 저장된 해시와 같으면 재렌더링/디스크 쓰기를 생략할 수 있게 한다.
+ * 적중/미스 횟수는 artifact.render.cache 카운터(kind, result 태그)로 노출된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArtifactRenderCache {
+
+    private final ObjectMapper canonicalMapper = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 입력값들을 정규화된 JSON 으로 이어 붙여 SHA-256 을 계산한다.
+     */
+    public String digest(Object... parts) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            try (DigestOutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), md)) {
+                for (Object part : parts) {
+                    canonicalMapper.writeValue(out, part);
+                    out.write('\n');
+                }
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (Exception e) {
+            log.error("렌더링 입력 해시 계산 실패", e);
+            throw new ArtifactException("산출물 생성 정보를 처리하지 못했습니다.");
+        }
+    }
+
+    /**
+     * 저장된 산출물이 같은 입력으로 렌더링된 것인지 확인하고 적중/미스를 기록한다.
+     * 본문 해시가 없는 예전 행은 ETag 를 만들 수 있도록 한 번 다시 렌더링한다.
+     */
+    public boolean isFresh(String kind, ArtifactFile file, String contentHash) {
+        boolean hit = file != null && contentHash.equals(file.getContentHash()) && file.getOutputHash() != null;
+        counter(kind, hit ? "hit" : "miss").increment();
+        return hit;
+    }
+
+    private Counter counter(String kind, String result) {
+        return Counter.builder("artifact.render.cache")
+                .description("산출물 렌더링 캐시 적중/미스")
+                .tag("kind", kind)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
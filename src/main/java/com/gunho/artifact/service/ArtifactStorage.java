@@ -0,0 +1,147 @@
+package com.gunho.artifact.service;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 생성된 산출물(HTML, 청크/태그 JSON, 레이아웃 캐시) 저장소.
+ * 키는 저장소 루트 기준의 '/' 구분 상대 경로이고 ("{userId}/flowcharts/{flowIdx}/{title}.html"),
+ * 쓰기는 끝까지 성공했을 때만 한 번에 보인다. 쓰다 만 파일이 읽히거나 이전 파일을 덮어쓰지 않는다.
+ */
+public interface ArtifactStorage {
+
+    /**
+     * 예전 ArtifactFile.relativePath 에 저장되던 소스 트리 기준 접두사
+     */
+    String LEGACY_ROOT = "src/main/resources/static/artifact";
+
+    /**
+     * @param lastModified epoch ms
+     */
+    record StoredObject(String key, long size, long lastModified) {
+    }
+
+    @FunctionalInterface
+    interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 내용을 쓰면서 그 바이트의 SHA-256 을 함께 계산한다. 쓰기가 끝난 뒤 hex() 가 저장된 본문의 해시다
+     */
+    final class DigestingContent implements Content {
+
+        private final Content content;
+        private final MessageDigest digest;
+
+        public DigestingContent(Content content) {
+            this.content = content;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            digest.reset();
+            content.writeTo(new DigestOutputStream(out, digest));
+        }
+
+        public String hex() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    /**
+     * @return 기록한 바이트 수
+     */
+    long write(String key, Content content) throws IOException;
+
+    /**
+     * 같은 키에는 항상 같은 내용만 쓰는 경우(내용 주소 청크) 키 잠금 없이 쓴다.
+     * 다른 키를 쓰는 도중(그 키의 잠금을 잡은 채) 불러도 잠금 순서가 엇갈려 교착되지 않는다
+     *
+     * @return 기록한 바이트 수
+     */
+    default long writeImmutable(String key, Content content) throws IOException {
+        return write(key, content);
+    }
+
+    /**
+     * key 와 key.gz 를 한 번의 쓰기로 함께 만든다.
+     * 정적 핸들러가 Accept-Encoding 에 맞춰 .gz 를 그대로 내려준다.
+     *
+     * @return 원본 크기
+     */
+    long writeWithGzip(String key, Content content) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    InputStream read(String key) throws IOException;
+
+    /**
+     * 다운로드용 리소스. 로컬 파일이면 isFile() 이 true 라서 커널 복사(sendfile/transferTo)로 보낼 수 있다
+     */
+    Resource resource(String key) throws IOException;
+
+    /**
+     * [start, start + count) 구간을 out 으로 복사한다. 원격 저장소는 구간만 요청하도록 재정의한다
+     */
+    default void copyRange(String key, long start, long count, OutputStream out) throws IOException {
+        try (InputStream in = read(key)) {
+            StreamUtils.copyRange(in, out, start, start + count - 1);
+        }
+    }
+
+    /**
+     * 저장소가 직접 내려줄 수 있으면(서명된 URL 등) 그 주소. 없으면 애플리케이션이 스트리밍한다
+     */
+    default Optional<URI> downloadUrl(String key, String filename, boolean attachment) {
+        return Optional.empty();
+    }
+
+    /**
+     * 키 사전순으로 startAfter 다음부터 최대 limit 개. null 이면 처음부터.
+     * 커서만 넘기면 이어서 훑을 수 있어서 저장소 전체를 한 번에 읽지 않는다
+     */
+    List<StoredObject> list(String startAfter, int limit) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * prefix 아래에서 keep 에 없는 항목을 지운다. 재생성 후 남은 이전 청크/조각 정리용
+     */
+    void retain(String prefix, Set<String> keep) throws IOException;
+
+    static String key(String... segments) {
+        return String.join("/", segments);
+    }
+
+    /**
+     * ArtifactFile.relativePath 를 저장소 키 접두사로 바꾼다 (예전 소스 트리 경로도 허용)
+     */
+    static String normalizeDir(String relativePath) {
+        if (relativePath == null) {
+            return "";
+        }
+        String path = relativePath.replace('\\', '/');
+        if (path.startsWith(LEGACY_ROOT)) {
+            path = path.substring(LEGACY_ROOT.length());
+        }
+        return path.replaceAll("^/+|/+$", "");
+    }
+}
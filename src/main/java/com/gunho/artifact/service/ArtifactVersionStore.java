@@ -0,0 +1,401 @@
+package com.gunho.artifact.service;
+
+import com.gunho.artifact.dto.ApiResponse;
+import com.gunho.artifact.dto.ArtifactVersionDto;
+import com.gunho.artifact.entity.ArtifactChunk;
+import com.gunho.artifact.entity.ArtifactFile;
+import com.gunho.artifact.entity.ArtifactVersion;
+import com.gunho.artifact.entity.User;
+import com.gunho.artifact.exception.ArtifactException;
+import com.gunho.artifact.repository.ArtifactChunkRepository;
+import com.gunho.artifact.repository.ArtifactFileRepository;
+import com.gunho.artifact.repository.ArtifactVersionRepository;
+import com.gunho.artifact.util.ChunkingOutputStream;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 산출물 생성 이력을 내용 기반 청크로 중복 없이 보관한다.
+ * 렌더링 결과를 저장소에 쓰는 동안 ChunkingOutputStream 으로 잘라 처음 보는 청크만 "_cas/chunks/" 아래에 압축해 저장하고,
+ * 버전은 청크 해시 순서(manifest)만 artifact_version 에 남긴다. 한두 군데 바뀐 재생성은 바뀐 청크 몇 개만큼만 디스크가 늘어난다.
+ * 청크는 참조하는 버전 수(ref_count)로 관리하고, 0 이 된 청크는 주기적으로 지운다.
+ * pin 은 청크마다 짧은 별도 트랜잭션으로 바로 커밋해서 렌더링 내내 행 잠금을 잡지 않고(동시 생성 간 교착 방지),
+ * 호출한 쪽 트랜잭션이 롤백되면 잡아 둔 참조를 다시 내린다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArtifactVersionStore {
+
+    public static final String CAS_PREFIX = "_cas/";
+    private static final String CHUNK_PREFIX = CAS_PREFIX + "chunks/";
+    private static final int HASH_BYTES = 32;
+    private static final int RELEASE_BATCH = 500;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final ArtifactStorage artifactStorage;
+    private final ArtifactChunkRepository artifactChunkRepository;
+    private final ArtifactVersionRepository artifactVersionRepository;
+    private final ArtifactFileRepository artifactFileRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${artifact.version.enabled:true}")
+    private boolean enabled;
+
+    // 산출물마다 남길 버전 수, 넘으면 오래된 것부터 지운다
+    @Value("${artifact.version.max-versions:30}")
+    private int maxVersions;
+
+    @Value("${artifact.version.sweep-batch:200}")
+    private int sweepBatch;
+
+    private TransactionTemplate pinTransaction;
+
+    @PostConstruct
+    void init() {
+        pinTransaction = new TransactionTemplate(Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        pinTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 생성 한 번에 쓰는 기록지. capture 로 감싼 Content 가 쓰일 때 청크를 저장하고 commit 에서 버전을 남긴다.
+     * 트랜잭션 안에서 써야 한다. 생성이 실패해 롤백되면 잡아 둔 청크 참조를 내린다
+     */
+    public Draft draft() {
+        return new Draft();
+    }
+
+    public class Draft {
+
+        private final MessageDigest digest = sha256();
+        private final MessageDigest chunkDigest = sha256();
+        private final ByteArrayOutputStream manifest = new ByteArrayOutputStream();
+        private final Set<String> pinned = new HashSet<>();
+        private long size;
+        private long storedBytes;
+        private int chunkCount;
+        private boolean captured;
+        private boolean synchronizing;
+
+        public ArtifactStorage.Content capture(ArtifactStorage.Content content) {
+            if (!enabled) {
+                return content;
+            }
+            return out -> {
+                ChunkingOutputStream chunking = new ChunkingOutputStream(out, this::store);
+                content.writeTo(chunking);
+                chunking.finish();
+                captured = true;
+            };
+        }
+
+        private void store(byte[] buffer, int length) throws IOException {
+            digest.update(buffer, 0, length);
+            chunkDigest.update(buffer, 0, length);
+            byte[] hash = chunkDigest.digest();
+            manifest.write(hash);
+            size += length;
+            chunkCount++;
+
+            String hex = HEX.formatHex(hash);
+            if (!pinned.add(hex)) {
+                return;
+            }
+            releaseOnRollback();
+            // 참조가 커밋된 뒤에는 정리 작업이 청크를 지우지 못한다.
+            // 기존 행이어도 먼저 잡은 쪽이 아직 올리는 중이거나 올리다 실패했을 수 있으니 파일이 없으면 직접 올린다 (같은 내용이라 덮어써도 된다)
+            Integer created = pinTransaction.execute(status -> artifactChunkRepository.pin(hex, length));
+            String key = chunkKey(hex);
+            if (Integer.valueOf(1).equals(created) || !artifactStorage.exists(key)) {
+                // 산출물 키의 잠금을 잡은 채 불리므로 잠금 없는 쓰기를 쓴다 (다른 키 잠금을 또 잡으면 생성끼리 교착될 수 있다)
+                artifactStorage.writeImmutable(key, out -> {
+                    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                        gzip.write(buffer, 0, length);
+                    }
+                });
+                storedBytes += length;
+            }
+        }
+
+        private void releaseOnRollback() {
+            if (synchronizing || !TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            synchronizing = true;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        releasePins();
+                    }
+                }
+            });
+        }
+
+        // 잡아 둔 참조를 별도 트랜잭션으로 내린다. 호출한 쪽이 롤백돼도 되돌려지지 않는다
+        private void releasePins() {
+            if (pinned.isEmpty()) {
+                return;
+            }
+            List<String> hashes = new ArrayList<>(pinned);
+            pinned.clear();
+            try {
+                pinTransaction.executeWithoutResult(status -> release(hashes));
+            } catch (Exception e) {
+                log.warn("청크 참조 해제 실패 count : {}", hashes.size(), e);
+            }
+        }
+    }
+
+    /**
+     * 기록지 내용으로 새 버전을 남긴다. 직전 버전과 바이트가 같으면 잡아 둔 참조만 돌려준다.
+     * 같은 산출물을 동시에 생성해도 번호가 겹치지 않도록 artifact_file 행을 잠근 뒤 마지막 번호를 잠금 읽기로 본다
+     */
+    @Transactional
+    public void commit(ArtifactFile file, Draft draft) {
+        if (!draft.captured) {
+            draft.releasePins();
+            return;
+        }
+        String digest = HEX.formatHex(draft.digest.digest());
+        artifactFileRepository.findForUpdate(file.getIdx());
+        Optional<ArtifactVersionRepository.Latest> latest = artifactVersionRepository.findLatestForUpdate(file.getIdx());
+        if (latest.isPresent() && latest.get().getDigest().equals(digest)) {
+            draft.releasePins();
+            return;
+        }
+
+        int version = latest.map(last -> last.getVersion() + 1).orElse(1);
+        artifactVersionRepository.save(ArtifactVersion.builder()
+                .fileIdx(file.getIdx())
+                .version(version)
+                .size(draft.size)
+                .storedBytes(draft.storedBytes)
+                .chunkCount(draft.chunkCount)
+                .digest(digest)
+                .contentHash(file.getContentHash())
+                .manifest(draft.manifest.toByteArray())
+                .build());
+        log.debug("산출물 버전 기록 fileIdx : {}, version : {}, size : {}, stored : {}", file.getIdx(), version, draft.size, draft.storedBytes);
+
+        if (version > maxVersions) {
+            artifactVersionRepository.findByFileIdxAndVersionLessThanEqual(file.getIdx(), version - maxVersions)
+                    .forEach(this::remove);
+        }
+    }
+
+    /**
+     * 산출물을 지울 때 이력도 함께 지운다
+     */
+    @Transactional
+    public void deleteAll(ArtifactFile file) {
+        if (file == null || file.getIdx() == null) {
+            return;
+        }
+        artifactVersionRepository.findByFileIdx(file.getIdx()).forEach(this::remove);
+    }
+
+    @Transactional(readOnly = true)
+    public ApiResponse<List<ArtifactVersionDto.Response>> getVersions(Long idx, User user) {
+        ArtifactFile file = artifactFileRepository.findByIdxAndUserIdx(idx, user.getIdx())
+                .orElseThrow(() -> new ArtifactException("파일을 찾을 수 없습니다."));
+        return ApiResponse.success(artifactVersionRepository.findByFileIdxOrderByVersionDesc(file.getIdx()).stream()
+                .map(ArtifactVersionDto.Response::from)
+                .toList());
+    }
+
+    public Optional<ArtifactVersion> find(Long fileIdx, int version) {
+        return artifactVersionRepository.findByFileIdxAndVersion(fileIdx, version);
+    }
+
+    /**
+     * 버전 본문을 청크 순서대로 이어서 읽는다. 청크는 필요할 때 하나씩 연다
+     */
+    public InputStream open(ArtifactVersion version) {
+        return new ManifestInputStream(version.getManifest());
+    }
+
+    /**
+     * 참조가 0 이 된 청크를 지운다. 청크마다 행 잠금을 잡고 지우므로 그 사이 같은 청크를 pin 하는 쓰기는
+     * 잠금이 풀린 뒤 새 행으로 들어가 내용을 다시 올린다
+     */
+    @Scheduled(initialDelayString = "${artifact.version.sweep-initial-delay-ms:180000}", fixedDelayString = "${artifact.version.sweep-interval-ms:300000}")
+    public void sweepReleasedChunks() {
+        List<String> released = artifactChunkRepository.findReleased(Limit.of(sweepBatch));
+        int deleted = 0;
+        for (String hash : released) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> removeChunk(hash, Long.MAX_VALUE)))) {
+                    deleted++;
+                }
+            } catch (Exception e) {
+                log.warn("청크 삭제 실패 hash : {}", hash, e);
+            }
+        }
+        if (deleted > 0) {
+            log.info("참조 없는 청크 {} 개 삭제", deleted);
+        }
+    }
+
+    public static boolean isChunkKey(String key) {
+        if (!key.startsWith(CHUNK_PREFIX)) {
+            return false;
+        }
+        String name = key.substring(key.lastIndexOf('/') + 1);
+        return name.length() == HASH_BYTES * 2 && name.chars().allMatch(HexFormat::isHexDigit) && key.equals(chunkKey(name));
+    }
+
+    /**
+     * 주어진 저장소 키 중 artifact_chunk 행이 있는 청크 키만 돌려준다 (고아 파일 정리용)
+     */
+    public Set<String> referencedChunkKeys(Collection<String> keys) {
+        Map<String, String> byHash = new HashMap<>();
+        for (String key : keys) {
+            if (isChunkKey(key)) {
+                byHash.put(key.substring(key.lastIndexOf('/') + 1), key);
+            }
+        }
+        if (byHash.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> referenced = new HashSet<>();
+        for (String hash : artifactChunkRepository.findExisting(byHash.keySet())) {
+            referenced.add(byHash.get(hash));
+        }
+        return referenced;
+    }
+
+    /**
+     * 행이 없는 청크 파일을 지운다. 행 잠금(없으면 gap 잠금)을 잡은 채 다시 확인하므로
+     * 그 사이 같은 청크를 새로 pin 한 쓰기가 있으면 지우지 않는다
+     */
+    public boolean deleteOrphanChunk(String key, long modifiedBefore) {
+        String hash = key.substring(key.lastIndexOf('/') + 1);
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> removeChunk(hash, modifiedBefore)));
+    }
+
+    private boolean removeChunk(String hash, long modifiedBefore) {
+        Optional<ArtifactChunk> chunk = artifactChunkRepository.findForUpdate(hash);
+        if (chunk.isPresent() && chunk.get().getRefCount() > 0) {
+            return false;
+        }
+        String key = chunkKey(hash);
+        try {
+            if (chunk.isEmpty() && artifactStorage.exists(key) && artifactStorage.resource(key).lastModified() >= modifiedBefore) {
+                return false;
+            }
+            artifactStorage.delete(key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.ifPresent(artifactChunkRepository::delete);
+        return true;
+    }
+
+    private void remove(ArtifactVersion version) {
+        Set<String> hashes = new HashSet<>();
+        byte[] manifest = version.getManifest();
+        for (int i = 0; i < manifest.length; i += HASH_BYTES) {
+            hashes.add(HEX.formatHex(manifest, i, i + HASH_BYTES));
+        }
+        release(hashes);
+        artifactVersionRepository.delete(version);
+    }
+
+    private void release(Collection<String> hashes) {
+        List<String> batch = new ArrayList<>(Math.min(hashes.size(), RELEASE_BATCH));
+        for (String hash : hashes) {
+            batch.add(hash);
+            if (batch.size() == RELEASE_BATCH) {
+                artifactChunkRepository.release(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            artifactChunkRepository.release(batch);
+        }
+    }
+
+    // 한 디렉터리에 파일이 몰리지 않도록 해시 앞 2자리로 나눈다
+    private static String chunkKey(String hash) {
+        return CHUNK_PREFIX + hash.substring(0, 2) + "/" + hash;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private class ManifestInputStream extends InputStream {
+
+        private final byte[] manifest;
+        private int next;
+        private InputStream current;
+
+        ManifestInputStream(byte[] manifest) {
+            this.manifest = manifest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                if (current == null) {
+                    if (next >= manifest.length) {
+                        return -1;
+                    }
+                    String hash = HEX.formatHex(manifest, next, next + HASH_BYTES);
+                    next += HASH_BYTES;
+                    current = new GZIPInputStream(artifactStorage.read(chunkKey(hash)));
+                }
+                int n = current.read(b, off, len);
+                if (n > 0) {
+                    return n;
+                }
+                current.close();
+                current = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+            next = manifest.length;
+        }
+    }
+}
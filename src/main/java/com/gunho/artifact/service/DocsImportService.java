@@ -0,0 +1,123 @@
+package com.gunho.artifact.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gunho.artifact.dto.ApiResponse;
+import com.gunho.artifact.dto.DocsDto;
+import com.gunho.artifact.entity.ApiDocsDocument;
+import com.gunho.artifact.entity.User;
+import com.gunho.artifact.enums.RedisKey;
+import com.gunho.artifact.exception.ArtifactException;
+import com.gunho.artifact.repository.ApiDocsDocumentRepository;
+import com.gunho.artifact.util.OpenApiStreamReader;
+import com.gunho.artifact.util.ProgressInputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 기존 OpenAPI 3 문서(JSON/YAML)를 API 문서 엔드포인트로 가져온다.
+ * 업로드 파일은 스트리밍으로 읽고, 진행 상황은 Redis 에 문서 단위로 기록해 클라이언트가 조회할 수 있게 한다.
+ * 저장은 편집기 저장과 같은 경로(DocsService.saveDocs)를 타므로 스펙 컴파일도 함께 이루어진다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocsImportService {
+
+    private static final Duration PROGRESS_TTL = Duration.ofMinutes(10);
+
+    private final ApiDocsDocumentRepository apiDocsDocumentRepository;
+    private final DocsService docsService;
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+
+    // 이 바이트 수를 읽을 때마다 진행 상황 갱신
+    @Value("${artifact.docs.import.progress-step:262144}")
+    private long progressStep;
+
+    // 가져올 문서 크기 한도. 기본은 업로드 한도와 같다
+    @Value("${artifact.docs.import.max-size:${spring.servlet.multipart.max-file-size:1MB}}")
+    private DataSize maxSize;
+
+    public ApiResponse<?> importSpec(Long docsIdx, MultipartFile file, User user) {
+        ApiDocsDocument docs = apiDocsDocumentRepository.findByIdxAndUserIdx(docsIdx, user.getIdx())
+                .orElseThrow(() -> new ArtifactException("문서를 찾을 수 없습니다."));
+        if (file == null || file.isEmpty()) {
+            return ApiResponse.failure("가져올 파일을 선택해주세요.");
+        }
+
+        String key = RedisKey.DOCS_IMPORT.getFormatKey(String.valueOf(docsIdx));
+        // 진행 상황 키는 끝난 뒤에도 남으므로 실행 여부는 별도 키로 원자적으로 잡는다
+        String lockKey = key + ":lock";
+        if (!redisService.setIfAbsent(lockKey, Boolean.TRUE, PROGRESS_TTL)) {
+            return ApiResponse.failure("이미 가져오는 중인 문서입니다.");
+        }
+        try {
+            return importSpec(docs, file, user, key);
+        } finally {
+            redisService.delete(lockKey);
+        }
+    }
+
+    private ApiResponse<?> importSpec(ApiDocsDocument docs, MultipartFile file, User user, String key) {
+        Long docsIdx = docs.getIdx();
+        long totalBytes = file.getSize();
+        report(key, "PARSING", 0, totalBytes, 0, null);
+        try (InputStream in = new ProgressInputStream(file.getInputStream(), progressStep,
+                bytesRead -> report(key, "PARSING", bytesRead, totalBytes, 0, null))) {
+
+            OpenApiStreamReader.Result result = OpenApiStreamReader.read(in, file.getOriginalFilename(), maxSize.toBytes());
+            int endpointCount = result.endpoints().size();
+            report(key, "SAVING", totalBytes, totalBytes, endpointCount, null);
+
+            DocsDto.Request request = new DocsDto.Request(
+                    docs.getIdx(),
+                    docs.getProject().getIdx(),
+                    StringUtils.hasText(result.title()) ? result.title() : docs.getTitle(),
+                    StringUtils.hasText(result.version()) ? result.version() : defaultVersion(docs),
+                    result.endpoints());
+            ApiResponse<?> saved = docsService.saveDocs(request, user);
+            if (!saved.isSuccess()) {
+                report(key, "FAILED", totalBytes, totalBytes, endpointCount, saved.getMessage());
+                return saved;
+            }
+
+            report(key, "DONE", totalBytes, totalBytes, endpointCount, null);
+            log.info("OpenAPI 가져오기 완료 docsIdx : {}, bytes : {}, endpoints : {}", docsIdx, totalBytes, endpointCount);
+            return ApiResponse.success(Map.of("endpoints", endpointCount), "%d개 엔드포인트를 가져왔습니다.".formatted(endpointCount));
+        } catch (ArtifactException e) {
+            report(key, "FAILED", 0, totalBytes, 0, e.getMessage());
+            return ApiResponse.failure(e.getMessage());
+        } catch (Exception e) {
+            log.error("OpenAPI import error docsIdx : {}", docsIdx, e);
+            report(key, "FAILED", 0, totalBytes, 0, "문서를 읽을 수 없습니다.");
+            return ApiResponse.failure("문서를 읽을 수 없습니다. OpenAPI 3 JSON/YAML 형식인지 확인해주세요.");
+        }
+    }
+
+    public ApiResponse<?> getProgress(Long docsIdx, User user) {
+        apiDocsDocumentRepository.findByIdxAndUserIdx(docsIdx, user.getIdx())
+                .orElseThrow(() -> new ArtifactException("문서를 찾을 수 없습니다."));
+
+        return redisService.get(RedisKey.DOCS_IMPORT.getFormatKey(String.valueOf(docsIdx)), DocsDto.ImportProgress.class)
+                .<ApiResponse<?>>map(ApiResponse::success)
+                .orElseGet(() -> ApiResponse.failure("진행 중인 가져오기가 없습니다."));
+    }
+
+    private void report(String key, String status, long bytesRead, long totalBytes, int endpoints, String message) {
+        DocsDto.ImportProgress progress = new DocsDto.ImportProgress(status, bytesRead, totalBytes, endpoints, message);
+        redisService.set(key, objectMapper.convertValue(progress, Map.class), PROGRESS_TTL);
+    }
+
+    private static String defaultVersion(ApiDocsDocument docs) {
+        return StringUtils.hasText(docs.getVersion()) ? docs.getVersion() : "1.0.0";
+    }
+}
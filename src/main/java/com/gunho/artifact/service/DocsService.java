@@ -2,10 +2,12 @@ package com.gunho.artifact.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gunho.artifact.dto.ApiDocsRequest;
 import com.gunho.artifact.dto.ApiResponse;
 import com.gunho.artifact.dto.DocsDto;
 import com.gunho.artifact.entity.ApiDocsDocument;
 import com.gunho.artifact.entity.ApiDocsFlow;
+import com.gunho.artifact.entity.ApiDocsSpec;
 import com.gunho.artifact.entity.User;
 import com.gunho.artifact.exception.ArtifactException;
 import com.gunho.artifact.repository.ApiDocsDocumentRepository;
@@ -31,6 +33,9 @@ public class DocsService {
     private final ApiDocsDocumentRepository apiDocsDocumentRepository;
     private final ObjectMapper objectMapper;
     private final QuotaService quotaService;
+    private final ArtifactVersionStore artifactVersionStore;
+    private final OpenApiSpecCompiler specCompiler;
+    private final ApiMockService apiMockService;
 
     @Transactional
     public ApiResponse<?> saveDocs(DocsDto.Request request, User user) {
@@ -44,6 +49,8 @@ public class DocsService {
             String endPoints = objectMapper.writeValueAsString(request.endpoints());
 
             docs.updateEndPoints(request, endPoints, user.getId());
+            materializeSpec(docs, request);
+            apiMockService.invalidate(docs.getIdx());
             return ApiResponse.success("문서가 성공적으로 수정되었습니다.");
         } catch (Exception e) {
             log.error("Docs save error", e);
@@ -51,26 +58,54 @@ public class DocsService {
         }
     }
 
+    /**
+     * 저장 시점에 OpenAPI/편집기 스펙을 컴파일해서 문서와 함께 보관 (write-through).
+     * 문서의 updatedAt 은 flush 시점에 정해지므로 flush 후 그 값을 스펙 버전으로 기록한다.
+     */
+    private void materializeSpec(ApiDocsDocument docs, DocsDto.Request request) {
+        List<ApiDocsRequest.Endpoint> endpoints = specCompiler.toEndpoints(request.endpoints());
+
+        ApiDocsSpec spec = docs.getSpec();
+        if (spec == null) {
+            spec = new ApiDocsSpec();
+            docs.updateSpec(spec);
+        }
+        spec.update(
+                specCompiler.compileToJson(request.title(), request.version(), endpoints),
+                buildSpecJson(request.title(), request.version(), request.endpoints()),
+                specCompiler.sourceHash(request.title(), request.version(), endpoints));
+
+        apiDocsDocumentRepository.flush();
+        spec.markSourceVersion(docs.getUpdatedAt());
+    }
+
     public void getDetailView(Model model, Long idx, User user) {
 
         ApiDocsDocument docs = apiDocsDocumentRepository.findByIdxAndUserIdx(idx, user.getIdx())
                 .orElseThrow(() -> new ArtifactException("프로젝트를 찾을 수 없습니다."));
 
-        String endpointsJson = StringUtils.hasText(docs.getEndpoints()) ? docs.getEndpoints() : "[]";
+        // 현재 버전에서 컴파일된 스펙이 있으면 그대로 사용
+        ApiDocsSpec spec = docs.getSpec();
+        String apiDocsSpec;
+        if (spec != null && spec.isCompiledFrom(docs)) {
+            apiDocsSpec = spec.getEditorSpec();
+        } else {
+            String endpointsJson = StringUtils.hasText(docs.getEndpoints()) ? docs.getEndpoints() : "[]";
+            apiDocsSpec = buildSpecJson(docs.getTitle(), docs.getVersion(), readEndpoints(endpointsJson));
+        }
 
         model.addAttribute("idx", idx);
         model.addAttribute("projectIdx", docs.getProject().getIdx());
         model.addAttribute("docs", docs);
-        model.addAttribute("apiDocsSpec", buildSpecJson(docs.getTitle(), docs.getVersion(), endpointsJson));
+        model.addAttribute("apiDocsSpec", apiDocsSpec);
     }
 
     public String buildEmptySpecJson() {
-        return buildSpecJson("", "", "[]");
+        return buildSpecJson("", "", Collections.emptyList());
     }
 
-    private String buildSpecJson(String title, String version, String endpointsJson) {
+    private String buildSpecJson(String title, String version, List<Map<String, Object>> endpoints) {
         try {
-            List<Map<String, Object>> endpoints = readEndpoints(endpointsJson);
             Map<String, Object> spec = Map.of(
                     "title", StringUtils.hasText(title) ? title : "",
                     "version", StringUtils.hasText(version) ? version : "",
@@ -104,7 +139,9 @@ public class DocsService {
                     return new ArtifactException("해당 문서 삭제 권한이 없습니다.");
                 });
 
+        artifactVersionStore.deleteAll(docs.getFile());
         apiDocsDocumentRepository.delete(docs);
+        apiMockService.invalidate(idx);
         quotaService.deleteByArtifact(user.getIdx());
         return ApiResponse.success("해당 문서 삭제에 성공했습니다.");
     }
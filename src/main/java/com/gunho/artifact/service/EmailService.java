@@ -1,11 +1,10 @@
 package com.gunho.artifact.service;
 
 import com.gunho.artifact.dto.EmailDto;
-import com.gunho.artifact.entity.Template;
 import com.gunho.artifact.entity.User;
 import com.gunho.artifact.enums.CodeEnums;
 import com.gunho.artifact.exception.ArtifactException;
-import com.gunho.artifact.repository.TemplateRepository;
+import com.gunho.artifact.util.CompiledTemplate;
 import com.gunho.artifact.util.Utils;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -32,22 +31,23 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final TemplateRepository templateRepository;
+    private final TemplateRegistry templateRegistry;
     private final JavaMailSender mailSender;
     private final MailProperties mailProperties;
 
     public void sendPlan(EmailDto.RequestPlan request, User user) {
         try {
-            Template template = templateRepository.findByName(CodeEnums.EmailType.PLAN_UPDATE_REQUEST.name());
-            String subject = template.getSubject().formatted(user.getId(), request.plan());
-            String content = template.getContent();
-            content = content.replace("{{requestor}}", user.getId())
-                    .replace("{{requestorName}}", user.getNickname())
-                    .replace("{{plan}}", request.plan())
-                    .replace("{{price}}", request.price())
-                    .replace("{{from}}", request.from())
-                    .replace("{{createdAt}}", LocalDateTime.now().toString())
-                    .replace("{{content}}", request.content());
+            TemplateRegistry.MailTemplate template = templateRegistry.mail(CodeEnums.EmailType.PLAN_UPDATE_REQUEST.name());
+            String subject = template.subject().formatted(user.getId(), request.plan());
+            String content = template.content().render(Map.of(
+                    "requestor", CompiledTemplate.Slot.text(user.getId()),
+                    "requestorName", CompiledTemplate.Slot.text(user.getNickname()),
+                    "plan", CompiledTemplate.Slot.text(request.plan()),
+                    "price", CompiledTemplate.Slot.text(request.price()),
+                    "from", CompiledTemplate.Slot.text(request.from()),
+                    "createdAt", CompiledTemplate.Slot.text(LocalDateTime.now().toString()),
+                    "content", CompiledTemplate.Slot.text(request.content())
+            ));
             sendHtml(resolveFromAddress(), subject, content);
         } catch (Exception e) {
             log.error("Email send error", e);
@@ -57,10 +57,9 @@ public class EmailService {
 
     public void sendVerifyCode(EmailDto.RequestVerify request, String randomCode) {
         try {
-            Template template = templateRepository.findByName(CodeEnums.EmailType.SIGN_VERIFY.name());
-            String subject = template.getSubject();
-            String content = template.getContent();
-            content = Utils.MsgUtil.getMessage(content, List.of(request.nickName(), randomCode));
+            TemplateRegistry.MailTemplate template = templateRegistry.mail(CodeEnums.EmailType.SIGN_VERIFY.name());
+            String subject = template.subject();
+            String content = Utils.MsgUtil.getMessage(template.source(), List.of(request.nickName(), randomCode));
             sendHtml(request.email(), subject, content);
         } catch (Exception e) {
             log.error("Email send error", e);
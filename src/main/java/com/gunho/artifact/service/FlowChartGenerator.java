@@ -1,26 +1,41 @@
 package com.gunho.artifact.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gunho.artifact.dto.ApiResponse;
 import com.gunho.artifact.dto.FlowChartRequest;
 import com.gunho.artifact.entity.ApiDocsFlow;
 import com.gunho.artifact.entity.ArtifactFile;
 import com.gunho.artifact.entity.User;
 import com.gunho.artifact.exception.ArtifactException;
+import com.gunho.artifact.model.FlowGraph;
 import com.gunho.artifact.model.UrlArtifact;
 import com.gunho.artifact.repository.ArtifactFileRepository;
 import com.gunho.artifact.repository.ApiDocsFlowRepository;
+import com.gunho.artifact.util.CompiledTemplate;
+import com.gunho.artifact.util.FlowClusters;
+import com.gunho.artifact.util.FlowElementsWriter;
+import com.gunho.artifact.util.LatencySimulation;
+import com.gunho.artifact.util.LayeredLayout;
+import com.gunho.artifact.util.OpenApiJsonWriter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ClassPathResource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StreamUtils;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.util.*;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FlowChartGenerator {
@@ -28,150 +43,325 @@ public class FlowChartGenerator {
     private final QuotaService quotaService;
     private final ArtifactFileRepository artifactFileRepository;
     private final ApiDocsFlowRepository apiDocsFlowRepository;
-    private String htmlTemplate;
+    private final ArtifactRenderCache renderCache;
+    private final ThemeStyleCache themeStyleCache;
+    private final ObjectMapper objectMapper;
+    private final ResourceUrlProvider resourceUrlProvider;
+    private final TemplateRegistry templateRegistry;
+    private final ArtifactStorage artifactStorage;
+    private final ArtifactVersionStore artifactVersionStore;
+
+    private static final String BASE_CSS_PATH = "/assets/flowchart/flowchart.css";
+    private static final String BASE_JS_PATH = "/assets/flowchart/flowchart.js";
+
+    // 같은 입력이면 같은 결과가 나오도록 시뮬레이션 난수 seed 는 고정
+    private static final long SIMULATION_SEED = 0x5EEDL;
+    private static final int DEFAULT_SIMULATION_ITERATIONS = 10_000;
+
+    @Value("${artifact.flowchart.chunk.max-cluster-size:200}")
+    private int maxClusterSize;
+
+    @Value("${artifact.flowchart.simulation.max-iterations:200000}")
+    private int maxSimulationIterations;
 
     @Transactional
     public ApiResponse<UrlArtifact> generateAsFiles(FlowChartRequest req, User user) throws Exception {
         ApiDocsFlow flow = apiDocsFlowRepository.findByIdxAndUserIdx(req.getFlowIdx(), user.getIdx())
                 .orElseThrow(() -> new ArtifactException("플로우를 찾을 수 없습니다."));
+        if (req.isChunked() && req.isServerLayout()) {
+            // 청크 모드는 클러스터 요약만 내려보내므로 노드 좌표를 계산할 대상이 없다
+            throw new ArtifactException("청크 모드에서는 서버 레이아웃을 사용할 수 없습니다.");
+        }
+        FlowGraph graph = FlowGraph.of(req.getNodes(), req.getEdges());
         quotaService.consumeByDownload(user.getIdx());
 
-        String html = generateHtmlFromTemplate(req);
-
-        byte[] htmlBytes = html.getBytes(StandardCharsets.UTF_8);
-
-        Path dir = Path.of("src", "main", "resources", "static", "artifact", user.getId(), "flowcharts", req.getFlowIdx().toString());
-        Files.createDirectories(dir);
+        // 입력이 같으면 기존 파일을 그대로 사용
+        // 템플릿 지문, 공통 에셋 URL(내용 해시 포함)도 넣어서 둘 중 하나가 바뀌면 다시 생성되게 한다
+        String contentHash = renderCache.digest(req, user.getId(), templateRegistry.fingerprint(TemplateRegistry.FLOWCHART),
+                assetUrl(BASE_CSS_PATH), assetUrl(BASE_JS_PATH));
+        ArtifactFile artifactFile = flow.getFile();
+        String dir = ArtifactStorage.key(user.getId(), "flowcharts", req.getFlowIdx().toString());
+        String htmlKey = ArtifactStorage.key(dir, req.getTitle() + ".html");
+        if (renderCache.isFresh("flowchart", artifactFile, contentHash) && artifactStorage.exists(htmlKey)) {
+            return ApiResponse.success(toUrlArtifact(req, user, artifactFile.getSize()));
+        }
 
-        Path htmlPath = dir.resolve(req.getTitle() + ".html");
-        Files.write(htmlPath, htmlBytes);
-        long fileSize = Files.size(htmlPath);
+        LatencySimulation.Result simulation = req.isLatencySimulation() ? simulate(req, graph) : null;
+
+        CompiledTemplate.Slot elements;
+        LayeredLayout.Positions positions = null;
+        String chunkBaseUrl = "";
+        if (req.isChunked()) {
+            List<Map<String, Object>> overview = writeChunks(req, graph, dir, simulation);
+            elements = writer -> objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(writer, overview);
+            chunkBaseUrl = UriUtils.encodePathSegment(req.getTitle() + ".chunks", StandardCharsets.UTF_8).replace("'", "%27") + "/";
+            // 이전에 일반 모드로 생성하며 남긴 좌표 캐시 정리
+            artifactStorage.delete(ArtifactStorage.key(dir, req.getTitle() + ".layout.json"));
+        } else {
+            // 이전에 청크 모드로 생성하며 남긴 청크 정리
+            artifactStorage.retain(ArtifactStorage.key(dir, req.getTitle() + ".chunks"), Set.of());
+            positions = req.isServerLayout() ? resolveLayout(req, graph, dir) : null;
+            LayeredLayout.Positions nodePositions = positions;
+            List<Map<String, Object>> edges = graph.keptEdges(req.getEdges());
+            double[] nodeHeat = simulation != null ? simulation.nodeCriticality() : null;
+            double[] edgeHeat = simulation != null ? simulation.edgeCriticality() : null;
+            elements = writer -> FlowElementsWriter.write(req.getNodes(), edges, nodePositions, nodeHeat, edgeHeat, writer);
+        }
 
-        UrlArtifact urlArtifact = new UrlArtifact(
-                "%s.html".formatted(req.getTitle()),
-                "text/html",
-                fileSize,
-                "/static/artifact/" + user.getId() +  "/flowcharts/" +  req.getFlowIdx().toString()  + "/%s.html".formatted(req.getTitle())
-        );
+        // .html.gz 를 함께 기록해서 정적 핸들러가 Accept-Encoding 에 맞춰 그대로 내려준다
+        boolean preset = positions != null;
+        String baseUrl = chunkBaseUrl;
+        String simulationJson = simulationSummary(simulation);
+        // 쓰는 동안 청크로 잘라 이력에 남긴다 (이전 버전과 같은 청크는 다시 저장하지 않음)
+        ArtifactVersionStore.Draft draft = artifactVersionStore.draft();
+        ArtifactStorage.DigestingContent html = new ArtifactStorage.DigestingContent(draft.capture(stream -> {
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+                generateHtmlFromTemplate(req, elements, preset, baseUrl, simulationJson, out);
+            }
+        }));
+        long fileSize = artifactStorage.writeWithGzip(htmlKey, html);
 
-        ArtifactFile artifactFile = flow.getFile();
         if (artifactFile == null) {
-            artifactFile = ArtifactFile.toEntity(user, req.getTitle(), req.getTitle(), dir.toString(), "html", fileSize);
+            artifactFile = ArtifactFile.toEntity(user, req.getTitle(), req.getTitle(), dir, "html", fileSize);
             flow.updateFile(artifactFile);
         } else {
-            artifactFile.updateMetadata(req.getTitle(), req.getTitle(), dir.toString(), "html", fileSize);
+            artifactFile.updateMetadata(req.getTitle(), req.getTitle(), dir, "html", fileSize);
         }
+        artifactFile.updateContentHash(contentHash);
+        artifactFile.updateOutputHash(html.hex());
 
         artifactFileRepository.save(artifactFile);
-        return ApiResponse.success(urlArtifact);
+        artifactVersionStore.commit(artifactFile, draft);
+        return ApiResponse.success(toUrlArtifact(req, user, fileSize));
+    }
+
+    private UrlArtifact toUrlArtifact(FlowChartRequest req, User user, long fileSize) {
+        return new UrlArtifact(
+                "%s.html".formatted(req.getTitle()),
+                "text/html",
+                fileSize,
+                "/static/artifact/" + user.getId() +  "/flowcharts/" +  req.getFlowIdx().toString()  + "/%s.html".formatted(req.getTitle())
+        );
     }
 
     /**
-     * HTML 템플릿을 사용하여 FlowChart HTML 생성
+     * HTML 템플릿을 사용하여 FlowChart HTML 생성 (출력 스트림에 바로 기록)
      */
-    private String generateHtmlFromTemplate(FlowChartRequest req) throws Exception {
-        String template = getHtmlTemplate();
+    private void generateHtmlFromTemplate(FlowChartRequest req, CompiledTemplate.Slot elements, boolean preset,
+                                          String chunkBaseUrl, String simulationJson, Writer out) throws IOException {
+        CompiledTemplate template = templateRegistry.get(TemplateRegistry.FLOWCHART);
 
         // 데이터 준비
         String title = req.getTitle();
         String theme = req.getTheme() != null ? req.getTheme() : "default";
         String layout = getRankDir(req.getLayout());
-        String elementsJson = generateElementsJson(req);
-        String cytoscapeStyles = generateCytoscapeStyles(theme, req.getThemeVariables(), req.getClasses());
-        String themeStyles = generateThemeCSS(theme, req.getThemeVariables(), req.getClasses());
+        ThemeStyleCache.CompiledStyles styles = themeStyleCache.get(theme, req.getThemeVariables(),
+                () -> new ThemeStyleCache.CompiledStyles(
+                        generateThemeCSS(theme, req.getThemeVariables(), req.getClasses()),
+                        generateCytoscapeStyles(theme, req.getThemeVariables(), req.getClasses())));
         String fontFamily = getFontFamily(req.getThemeVariables()).replace(" ", "+");
 
         // 템플릿 변수 치환
-        return template
-                .replace("{{TITLE}}", escapeHtml(title))
-                .replace("{{THEME}}", escapeHtml(theme))
-                .replace("{{FONT_FAMILY}}", fontFamily)
-                .replace("{{THEME_STYLES}}", themeStyles)
-                .replace("{{ELEMENTS_JSON}}", elementsJson)
-                .replace("{{CYTOSCAPE_STYLES}}", cytoscapeStyles)
-                .replace("{{LAYOUT}}", layout);
+        template.render(out, Map.ofEntries(
+                Map.entry("TITLE", CompiledTemplate.Slot.text(escapeHtml(title))),
+                Map.entry("THEME", CompiledTemplate.Slot.text(escapeHtml(theme))),
+                Map.entry("FONT_FAMILY", CompiledTemplate.Slot.text(fontFamily)),
+                Map.entry("THEME_STYLES", CompiledTemplate.Slot.text(styles.themeCss())),
+                Map.entry("ELEMENTS_JSON", elements),
+                Map.entry("CYTOSCAPE_STYLES", CompiledTemplate.Slot.text(styles.cytoscapeStyles())),
+                Map.entry("LAYOUT", CompiledTemplate.Slot.text(layout)),
+                Map.entry("INITIAL_LAYOUT", CompiledTemplate.Slot.text(preset ? "preset" : "dagre")),
+                Map.entry("CHUNK_BASE_URL", CompiledTemplate.Slot.text(chunkBaseUrl)),
+                Map.entry("SIMULATION_JSON", CompiledTemplate.Slot.text(simulationJson)),
+                Map.entry("BASE_CSS_URL", CompiledTemplate.Slot.text(assetUrl(BASE_CSS_PATH))),
+                Map.entry("BASE_JS_URL", CompiledTemplate.Slot.text(assetUrl(BASE_JS_PATH)))
+        ));
+    }
+
+    /**
+     * 공통 에셋의 버전(내용 해시) URL. 리졸브 실패 시 원래 경로
+     */
+    private String assetUrl(String path) {
+        String url = resourceUrlProvider.getForLookupPath(path);
+        return url != null ? url : path;
     }
 
     /**
-     * HTML 템플릿 로드 (캐시 사용)
+     * 서버 측 계층형 레이아웃 계산.
+     * 그래프 구조(노드 순서, 엣지, 방향)가 같으면 산출물 옆에 저장해 둔 좌표를 재사용한다.
      */
-    private String getHtmlTemplate() throws Exception {
-        if (htmlTemplate == null) {
-            ClassPathResource resource = new ClassPathResource("templates/common/flowchart-template.html");
-            htmlTemplate = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+    private LayeredLayout.Positions resolveLayout(FlowChartRequest req, FlowGraph graph, String dir) throws Exception {
+        String rankDir = getRankDir(req.getLayout());
+
+        String layoutKey = renderCache.digest(graph.nodeIds(), graph.edgeFrom(), graph.edgeTo(), rankDir);
+        String snapshotKey = ArtifactStorage.key(dir, req.getTitle() + ".layout.json");
+        if (artifactStorage.exists(snapshotKey)) {
+            try (InputStream in = artifactStorage.read(snapshotKey)) {
+                LayoutSnapshot snapshot = objectMapper.readValue(in, LayoutSnapshot.class);
+                if (layoutKey.equals(snapshot.key()) && snapshot.x().length == graph.nodeCount()) {
+                    return new LayeredLayout.Positions(snapshot.x(), snapshot.y());
+                }
+            } catch (Exception e) {
+                log.warn("레이아웃 캐시 읽기 실패, 재계산합니다: {}", snapshotKey, e);
+            }
         }
-        return htmlTemplate;
+
+        LayeredLayout.Positions positions = LayeredLayout.compute(graph, rankDir);
+        LayoutSnapshot snapshot = new LayoutSnapshot(layoutKey, positions.x(), positions.y());
+        artifactStorage.write(snapshotKey, out -> objectMapper.writeValue(out, snapshot));
+        return positions;
+    }
+
+    private record LayoutSnapshot(String key, double[] x, double[] y) {
+    }
+
+    /**
+     * 노드/엣지의 "latency" 분포로 종단 간 지연 몬테카를로 시뮬레이션
+     */
+    private LatencySimulation.Result simulate(FlowChartRequest req, FlowGraph graph) {
+        LatencySimulation.Distribution[] nodeLatency = new LatencySimulation.Distribution[graph.nodeCount()];
+        for (int v = 0; v < nodeLatency.length; v++) {
+            nodeLatency[v] = LatencySimulation.Distribution.parse(req.getNodes().get(v).get("latency"));
+        }
+        List<Map<String, Object>> edges = graph.keptEdges(req.getEdges());
+        LatencySimulation.Distribution[] edgeLatency = new LatencySimulation.Distribution[graph.edgeCount()];
+        for (int e = 0; e < edgeLatency.length; e++) {
+            edgeLatency[e] = LatencySimulation.Distribution.parse(edges.get(e).get("latency"));
+        }
+
+        int iterations = req.getSimulationIterations() != null ? req.getSimulationIterations() : DEFAULT_SIMULATION_ITERATIONS;
+        iterations = Math.max(1, Math.min(iterations, maxSimulationIterations));
+        return LatencySimulation.run(graph, nodeLatency, edgeLatency, iterations, SIMULATION_SEED);
+    }
+
+    /**
+     * 산출물 HTML 의 window.FLOWCHART.simulation (없으면 null)
+     */
+    private String simulationSummary(LatencySimulation.Result simulation) {
+        if (simulation == null) {
+            return "null";
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("iterations", simulation.iterations());
+        summary.put("p50", round(simulation.p50()));
+        summary.put("p90", round(simulation.p90()));
+        summary.put("p99", round(simulation.p99()));
+        summary.put("mean", round(simulation.mean()));
+        summary.put("criticalPath", simulation.criticalPath());
+        summary.put("criticalPathShare", round(simulation.criticalPathShare()));
+        summary.put("excludedNodes", simulation.excludedNodes());
+        return OpenApiJsonWriter.toJson(summary);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
     }
 
     /**
-     * Cytoscape.js 형식의 elements JSON 생성
+     * 청크 모드: 클러스터별 노드/엣지를 <title>.chunks/{n}.json 으로 나눠 쓰고,
+     * 본문에는 클러스터 요약 노드와 클러스터 간 집계 엣지만 남긴다.
      */
-    private String generateElementsJson(FlowChartRequest req) {
-        StringBuilder json = new StringBuilder("[\n");
-
-        // 노드 추가
-        for (int i = 0; i < req.getNodes().size(); i++) {
-            Map<String, Object> node = req.getNodes().get(i);
-            String id = (String) node.get("id");
-            String label = String.valueOf(node.getOrDefault("label", id));
-            String shape = String.valueOf(node.getOrDefault("shape", "process"));
-            String nodeClass = String.valueOf(node.getOrDefault("class", ""));
-
-            json.append(String.format("""
-                    {
-                      "data": {
-                        "id": "%s",
-                        "label": "%s",
-                        "type": "%s",
-                        "nodeClass": "%s"
-                      }
-                    }""",
-                    escapeJson(id),
-                    escapeJson(label),
-                    escapeJson(shape),
-                    escapeJson(nodeClass)));
-
-            if (i < req.getNodes().size() - 1 || !req.getEdges().isEmpty()) {
-                json.append(",");
+    private List<Map<String, Object>> writeChunks(FlowChartRequest req, FlowGraph graph, String dir,
+                                                  LatencySimulation.Result simulation) throws Exception {
+        int nodeCount = graph.nodeCount();
+        int[] cluster = FlowClusters.partition(nodeCount, graph.edgeFrom(), graph.edgeTo(), maxClusterSize);
+        int clusterCount = FlowClusters.clusterCount(cluster);
+
+        List<List<Map<String, Object>>> chunkNodes = new ArrayList<>(clusterCount);
+        List<List<Map<String, Object>>> chunkEdges = new ArrayList<>(clusterCount);
+        List<List<Map<String, Object>>> chunkBoundary = new ArrayList<>(clusterCount);
+        for (int c = 0; c < clusterCount; c++) {
+            chunkNodes.add(new ArrayList<>());
+            chunkEdges.add(new ArrayList<>());
+            chunkBoundary.add(new ArrayList<>());
+        }
+
+        for (int v = 0; v < nodeCount; v++) {
+            Map<String, Object> node = req.getNodes().get(v);
+            String id = graph.nodeId(v);
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("id", id);
+            data.put("label", String.valueOf(node.getOrDefault("label", id)));
+            data.put("type", String.valueOf(node.getOrDefault("shape", "process")));
+            data.put("nodeClass", String.valueOf(node.getOrDefault("class", "")));
+            data.put("parent", "cluster-" + cluster[v]);
+            if (simulation != null) {
+                data.put("heat", round(simulation.nodeCriticality()[v]));
             }
-            json.append("\n");
+            chunkNodes.get(cluster[v]).add(Map.of("data", data));
         }
 
-        // 엣지 추가
-        for (int i = 0; i < req.getEdges().size(); i++) {
-            Map<String, Object> edge = req.getEdges().get(i);
-            String from = (String) edge.get("from");
-            String to = (String) edge.get("to");
-            String label = String.valueOf(edge.getOrDefault("label", ""));
-
-            Map<String, Object> style = (Map<String, Object>) edge.get("style");
-            String styleType = "";
-            if (style != null && style.get("type") != null) {
-                styleType = String.valueOf(style.get("type"));
+        Map<Long, Integer> crossCounts = new LinkedHashMap<>();
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            Map<String, Object> edge = req.getEdges().get(graph.edgeIndex()[e]);
+            String from = graph.nodeId(graph.edgeFrom()[e]);
+            String to = graph.nodeId(graph.edgeTo()[e]);
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("id", from + "-" + to);
+            data.put("source", from);
+            data.put("target", to);
+            data.put("label", String.valueOf(edge.getOrDefault("label", "")));
+            Object style = edge.get("style");
+            data.put("styleType", style instanceof Map<?, ?> styleMap && styleMap.get("type") != null ? String.valueOf(styleMap.get("type")) : "");
+            if (simulation != null) {
+                data.put("heat", round(simulation.edgeCriticality()[e]));
             }
 
-            json.append(String.format("""
-                    {
-                      "data": {
-                        "id": "%s-%s",
-                        "source": "%s",
-                        "target": "%s",
-                        "label": "%s",
-                        "styleType": "%s"
-                      }
-                    }""",
-                    escapeJson(from), escapeJson(to),
-                    escapeJson(from), escapeJson(to),
-                    escapeJson(label), escapeJson(styleType)));
-
-            if (i < req.getEdges().size() - 1) {
-                json.append(",");
+            int a = cluster[graph.edgeFrom()[e]];
+            int b = cluster[graph.edgeTo()[e]];
+            if (a == b) {
+                chunkEdges.get(a).add(Map.of("data", data));
+            } else {
+                chunkBoundary.get(a).add(Map.of("data", data));
+                chunkBoundary.get(b).add(Map.of("data", data));
+                crossCounts.merge((long) a * clusterCount + b, 1, Integer::sum);
             }
-            json.append("\n");
         }
 
-        json.append("]");
-        return json.toString();
+        String chunkDir = ArtifactStorage.key(dir, req.getTitle() + ".chunks");
+        Set<String> written = new HashSet<>();
+
+        List<Map<String, Object>> overview = new ArrayList<>(clusterCount + crossCounts.size());
+        for (int c = 0; c < clusterCount; c++) {
+            Map<String, Object> chunk = new LinkedHashMap<>();
+            chunk.put("nodes", chunkNodes.get(c));
+            chunk.put("edges", chunkEdges.get(c));
+            chunk.put("boundary", chunkBoundary.get(c));
+            String chunkKey = ArtifactStorage.key(chunkDir, c + ".json");
+            artifactStorage.writeWithGzip(chunkKey, out -> objectMapper.writeValue(out, chunk));
+            written.add(chunkKey);
+
+            List<Map<String, Object>> members = chunkNodes.get(c);
+            String firstLabel = String.valueOf(((Map<?, ?>) members.get(0).get("data")).get("label"));
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("id", "cluster-" + c);
+            data.put("label", members.size() > 1 ? "%s 외 %d개".formatted(firstLabel, members.size() - 1) : firstLabel);
+            data.put("type", "cluster");
+            data.put("chunk", c);
+            data.put("size", members.size());
+            if (simulation != null) {
+                // 클러스터는 구성 노드 중 가장 임계한 값으로 표시
+                data.put("heat", members.stream()
+                        .mapToDouble(member -> ((Number) ((Map<?, ?>) member.get("data")).get("heat")).doubleValue())
+                        .max().orElse(0));
+            }
+            overview.add(Map.of("data", data));
+        }
+        crossCounts.forEach((key, count) -> {
+            String source = "cluster-" + (key / clusterCount);
+            String target = "cluster-" + (key % clusterCount);
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("id", source + "-" + target);
+            data.put("source", source);
+            data.put("target", target);
+            data.put("label", String.valueOf(count));
+            data.put("styleType", "");
+            overview.add(Map.of("data", data));
+        });
+
+        // 새 청크를 다 쓴 뒤에 남은 이전 청크를 지운다
+        artifactStorage.retain(chunkDir, written);
+        return overview;
     }
 
     /**
@@ -369,7 +559,26 @@ public class FlowChartGenerator {
                     "line-color": "%s",
                     "target-arrow-color": "%s"
                   }
-                }""", "#9E9E9E", "#9E9E9E"));
+                },""", "#9E9E9E", "#9E9E9E"));
+
+        // 지연 시간 히트맵 (heat = 임계 경로에 포함된 비율)
+        styles.append("""
+                {
+                  "selector": "node[heat]",
+                  "style": {
+                    "background-color": "mapData(heat, 0, 1, #FFF8E1, #E53935)",
+                    "border-color": "mapData(heat, 0, 1, #FFB300, #B71C1C)",
+                    "border-width": "mapData(heat, 0, 1, 2, 5)"
+                  }
+                },
+                {
+                  "selector": "edge[heat]",
+                  "style": {
+                    "line-color": "mapData(heat, 0, 1, #BDBDBD, #E53935)",
+                    "target-arrow-color": "mapData(heat, 0, 1, #BDBDBD, #E53935)",
+                    "width": "mapData(heat, 0, 1, 2, 6)"
+                  }
+                }""");
 
         styles.append("\n]");
         return styles.toString();
@@ -407,17 +616,5 @@ public class FlowChartGenerator {
                 .replace("'", "&#x27;");
     }
 
-    /**
-     * JSON escape 처리
-     */
-    private String escapeJson(String str) {
-        if (str == null) return "";
-        return str.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
-    }
-
 
-}
+}
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.gunho.artifact.dto.FlowChartDto;
 import com.gunho.artifact.entity.ApiDocsFlow;
 import com.gunho.artifact.entity.User;
 import com.gunho.artifact.exception.ArtifactException;
+import com.gunho.artifact.model.FlowGraph;
 import com.gunho.artifact.repository.ApiDocsFlowRepository;
 import com.gunho.artifact.repository.ProjectRepository;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,7 @@ public class FlowService {
     private final ApiDocsFlowRepository apiDocsFlowRepository;
     private final ObjectMapper objectMapper;
     private final QuotaService quotaService;
+    private final ArtifactVersionStore artifactVersionStore;
 
     @Transactional
     public ApiResponse<?> saveFlow(FlowChartDto.Request request, User user) {
@@ -32,13 +34,22 @@ public class FlowService {
             projectRepository.findById(request.projectIdx())
                     .orElseThrow(() -> new ArtifactException("프로젝트를 찾을 수 없습니다."));
 
-            String flowDataJson = objectMapper.writeValueAsString(request);
+            // 끊어진 엣지/중복 노드 검증 후 중복 엣지는 제거해서 저장
+            FlowGraph graph = FlowGraph.of(request.nodes(), request.edges());
+            FlowChartDto.Request normalized = new FlowChartDto.Request(
+                    request.flowIdx(), request.title(), request.layout(), request.theme(),
+                    request.nodes(), graph.keptEdges(request.edges()),
+                    request.themeVariables(), request.classes(), request.projectIdx());
+            String flowDataJson = objectMapper.writeValueAsString(normalized);
 
             ApiDocsFlow flow = apiDocsFlowRepository.findById(request.flowIdx())
                     .orElseThrow(() -> new ArtifactException("플로우를 찾을 수 없습니다."));
 
-            flow.updateFlowData(request, flowDataJson, user.getId());
+            flow.updateFlowData(normalized, flowDataJson, user.getId());
             return ApiResponse.success("플로우가 성공적으로 수정되었습니다.");
+        } catch (ArtifactException e) {
+            log.warn("플로우 저장 실패 : {} ", e.getMessage());
+            return ApiResponse.failure(e.getMessage());
         } catch (Exception e) {
             log.error("플로우 저장 중 오류 발생 : {} ", e.getMessage());
             return ApiResponse.failure("플로우 저장 중 오류가 발생했습니다: ");
@@ -69,6 +80,7 @@ public class FlowService {
                 });
 
 
+        artifactVersionStore.deleteAll(flow.getFile());
         apiDocsFlowRepository.delete(flow);
         quotaService.deleteByArtifact(user.getIdx());
         return ApiResponse.success("해당 플로우 삭제에 성공했습니다.");
@@ -0,0 +1,238 @@
+package com.gunho.artifact.service;
+
+import com.gunho.artifact.dto.LoadTestDto;
+import com.gunho.artifact.exception.ArtifactException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 시나리오를 고정 크기 스레드 풀로 실행하고 지연 시간 백분위수를 집계한다.
+ * Java 17 이라 가상 스레드 대신 동시 사용자 수만큼의 플랫폼 스레드가 동기 HttpClient 호출을 반복한다.
+ * 지연 시간은 스레드별 배열에 모았다가 끝난 뒤 한 번만 합치므로 측정 중에는 스레드 간 경합이 없다.
+ */
+@Slf4j
+@Component
+public class LoadTestDriver {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    public LoadTestDto.Report run(URI baseUrl, List<LoadTestDto.Step> steps, int concurrency, Duration duration, int maxRequests)
+            throws InterruptedException {
+        List<LoadTestDto.Step> active = steps.stream().filter(step -> step.weight() > 0).toList();
+        if (active.isEmpty()) {
+            return report(baseUrl, concurrency, List.of(), List.of(), 0);
+        }
+
+        // 가중치 누적 배열로 스텝을 고른다 (이진 탐색)
+        int[] cumulative = new int[active.size()];
+        int total = 0;
+        for (int i = 0; i < active.size(); i++) {
+            total += active.get(i).weight();
+            cumulative[i] = total;
+        }
+        HttpRequest[] requests = active.stream().map(step -> toRequest(baseUrl, step)).toArray(HttpRequest[]::new);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        AtomicInteger issued = new AtomicInteger();
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        int totalWeight = total;
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Recorder>> futures = new ArrayList<>(concurrency);
+        try {
+            for (int w = 0; w < concurrency; w++) {
+                futures.add(workers.submit(() -> {
+                    Recorder recorder = new Recorder(requests.length);
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline && issued.incrementAndGet() <= maxRequests) {
+                        int index = Arrays.binarySearch(cumulative, random.nextInt(totalWeight) + 1);
+                        int step = index >= 0 ? index : -index - 1;
+                        long begin = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(requests[step], HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        recorder.record(step, System.nanoTime() - begin, status);
+                    }
+                    return recorder;
+                }));
+            }
+
+            List<Recorder> recorders = new ArrayList<>(concurrency);
+            for (Future<Recorder> future : futures) {
+                try {
+                    recorders.add(future.get());
+                } catch (ExecutionException e) {
+                    log.warn("부하 테스트 작업 실패", e.getCause());
+                }
+            }
+            return report(baseUrl, concurrency, active, recorders, System.nanoTime() - started);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static HttpRequest toRequest(URI baseUrl, LoadTestDto.Step step) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(toUri(baseUrl, step.path()))
+                .timeout(REQUEST_TIMEOUT);
+        if (step.headers() != null) {
+            step.headers().forEach((name, value) -> {
+                try {
+                    builder.header(name, value);
+                } catch (IllegalArgumentException e) {
+                    // Host, Content-Length 같은 제한 헤더는 HttpClient 가 직접 정한다
+                    log.debug("헤더 제외 {} : {}", name, e.getMessage());
+                }
+            });
+        }
+        HttpRequest.BodyPublisher body = step.body() != null
+                ? HttpRequest.BodyPublishers.ofString(step.body())
+                : HttpRequest.BodyPublishers.noBody();
+        return builder.method(step.method(), body).build();
+    }
+
+    /**
+     * 스텝 경로는 이미 인코딩돼 있어야 한다. 인코딩되지 않은 문자가 남아 있으면 해당 경로와 함께 실패시킨다
+     */
+    static URI toUri(URI baseUrl, String path) {
+        int query = path.indexOf('?');
+        try {
+            return UriComponentsBuilder.fromUri(baseUrl)
+                    .path(query >= 0 ? path.substring(0, query) : path)
+                    .query(query >= 0 ? path.substring(query + 1) : null)
+                    .build(true)
+                    .toUri();
+        } catch (IllegalArgumentException e) {
+            throw new ArtifactException("요청 경로를 만들 수 없습니다: " + path);
+        }
+    }
+
+    private static LoadTestDto.Report report(URI baseUrl, int concurrency, List<LoadTestDto.Step> steps,
+                                             List<Recorder> recorders, long elapsedNanos) {
+        List<LoadTestDto.StepReport> stepReports = new ArrayList<>(steps.size());
+        List<long[]> stepLatencies = new ArrayList<>(steps.size());
+        long requests = 0;
+        long errors = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            int size = 0;
+            long stepErrors = 0;
+            Map<Integer, Long> statuses = new TreeMap<>();
+            for (Recorder recorder : recorders) {
+                size += recorder.sizes[i];
+                stepErrors += recorder.errors[i];
+                recorder.statuses.get(i).forEach((status, count) -> statuses.merge(status, count, Long::sum));
+            }
+            long[] latencies = new long[size];
+            int offset = 0;
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.latencies[i], 0, latencies, offset, recorder.sizes[i]);
+                offset += recorder.sizes[i];
+            }
+            Arrays.sort(latencies);
+            stepReports.add(new LoadTestDto.StepReport(steps.get(i).name(), size, stepErrors, statuses, latency(latencies)));
+
+            stepLatencies.add(latencies);
+            requests += size;
+            errors += stepErrors;
+        }
+
+        long[] all = new long[(int) requests];
+        int offset = 0;
+        for (long[] latencies : stepLatencies) {
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        Arrays.sort(all);
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        double throughput = elapsedSeconds > 0 ? requests / elapsedSeconds : 0;
+        return new LoadTestDto.Report(baseUrl.toString(), concurrency, requests, errors,
+                round(elapsedSeconds), round(throughput), latency(all), stepReports);
+    }
+
+    // 정렬된 나노초 배열 → ms 백분위수 (nearest-rank)
+    static LoadTestDto.Latency latency(long[] sorted) {
+        if (sorted.length == 0) {
+            return new LoadTestDto.Latency(0, 0, 0, 0, 0);
+        }
+        double sum = 0;
+        for (long value : sorted) {
+            sum += value;
+        }
+        return new LoadTestDto.Latency(
+                millis(percentile(sorted, 0.50)),
+                millis(percentile(sorted, 0.90)),
+                millis(percentile(sorted, 0.99)),
+                millis(sorted[sorted.length - 1]),
+                millis(sum / sorted.length));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static double millis(double nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * 스레드 하나가 스텝별로 기록하는 지연 시간(ns), 오류 수, 상태 코드 분포.
+     * 5xx 와 연결 실패(-1)를 오류로 센다
+     */
+    private static final class Recorder {
+        private final long[][] latencies;
+        private final int[] sizes;
+        private final long[] errors;
+        private final List<Map<Integer, Long>> statuses;
+
+        Recorder(int steps) {
+            latencies = new long[steps][64];
+            sizes = new int[steps];
+            errors = new long[steps];
+            statuses = new ArrayList<>(steps);
+            for (int i = 0; i < steps; i++) {
+                statuses.add(new HashMap<>());
+            }
+        }
+
+        void record(int step, long nanos, int status) {
+            if (sizes[step] == latencies[step].length) {
+                latencies[step] = Arrays.copyOf(latencies[step], sizes[step] * 2);
+            }
+            latencies[step][sizes[step]++] = nanos;
+            statuses.get(step).merge(status, 1L, Long::sum);
+            if (status < 0 || status >= 500) {
+                errors[step]++;
+            }
+        }
+    }
+}
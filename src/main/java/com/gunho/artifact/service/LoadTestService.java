@@ -0,0 +1,238 @@
+package com.gunho.artifact.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gunho.artifact.dto.ApiDocsRequest;
+import com.gunho.artifact.dto.ApiResponse;
+import com.gunho.artifact.dto.LoadTestDto;
+import com.gunho.artifact.entity.ApiDocsDocument;
+import com.gunho.artifact.entity.User;
+import com.gunho.artifact.exception.ArtifactException;
+import com.gunho.artifact.repository.ApiDocsDocumentRepository;
+import com.gunho.artifact.util.OpenApiSampleValues;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriUtils;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * API 문서의 엔드포인트로 부하 테스트 시나리오를 만들고 LoadTestDriver 로 실행한다.
+ * 대상은 설정한 로컬 base URL 로 고정하고(외부 호스트로 트래픽을 보내지 않도록), 한 번에 하나의 실행만 허용한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoadTestService {
+
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{([^}/]+)}");
+    private static final Map<String, Integer> DEFAULT_WEIGHTS = Map.of("GET", 5, "POST", 2);
+
+    private final ApiDocsDocumentRepository apiDocsDocumentRepository;
+    private final OpenApiSpecCompiler specCompiler;
+    private final LoadTestDriver loadTestDriver;
+    private final ObjectMapper objectMapper;
+    private final Semaphore running = new Semaphore(1);
+
+    @Value("${artifact.loadtest.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    @Value("${artifact.loadtest.max-concurrency:32}")
+    private int maxConcurrency;
+
+    @Value("${artifact.loadtest.max-duration-seconds:60}")
+    private int maxDurationSeconds;
+
+    private URI target;
+
+    @PostConstruct
+    void init() {
+        target = URI.create(baseUrl);
+    }
+
+    public ApiResponse<LoadTestDto.Scenario> getScenario(Long docsIdx, User user) {
+        return ApiResponse.success(buildScenario(findDocs(docsIdx, user)));
+    }
+
+    public ApiResponse<?> run(Long docsIdx, LoadTestDto.RunRequest request, User user) {
+        LoadTestDto.Scenario scenario = buildScenario(findDocs(docsIdx, user));
+        if (!isLocal(target)) {
+            return ApiResponse.failure("부하 테스트 대상은 로컬 주소만 허용됩니다: " + target);
+        }
+
+        List<LoadTestDto.Step> steps = applyWeights(scenario.steps(), request.weights());
+        if (steps.stream().noneMatch(step -> step.weight() > 0)) {
+            return ApiResponse.failure("실행할 엔드포인트가 없습니다.");
+        }
+        int concurrency = Math.min(Optional.ofNullable(request.concurrency()).orElse(4), maxConcurrency);
+        int seconds = Math.min(Optional.ofNullable(request.durationSeconds()).orElse(10), maxDurationSeconds);
+        int maxRequests = Optional.ofNullable(request.maxRequests()).orElse(Integer.MAX_VALUE);
+
+        if (!running.tryAcquire()) {
+            return ApiResponse.failure("다른 부하 테스트가 실행 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+        try {
+            log.info("부하 테스트 시작 docsIdx : {}, target : {}, concurrency : {}, seconds : {}", docsIdx, target, concurrency, seconds);
+            LoadTestDto.Report report = loadTestDriver.run(target, steps, concurrency, Duration.ofSeconds(seconds), maxRequests);
+            return ApiResponse.success(report);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ApiResponse.failure("부하 테스트가 중단되었습니다.");
+        } finally {
+            running.release();
+        }
+    }
+
+    private ApiDocsDocument findDocs(Long docsIdx, User user) {
+        return apiDocsDocumentRepository.findByIdxAndUserIdx(docsIdx, user.getIdx())
+                .orElseThrow(() -> new ArtifactException("문서를 찾을 수 없습니다."));
+    }
+
+    private LoadTestDto.Scenario buildScenario(ApiDocsDocument docs) {
+        List<LoadTestDto.Step> steps = new ArrayList<>();
+        for (ApiDocsRequest.Endpoint endpoint : specCompiler.toEndpoints(readEndpoints(docs.getEndpoints()))) {
+            if (endpoint == null || !StringUtils.hasText(endpoint.getMethod()) || !StringUtils.hasText(endpoint.getPath())) {
+                continue;
+            }
+            steps.add(toStep(endpoint));
+        }
+        return new LoadTestDto.Scenario(docs.getIdx(), docs.getTitle(), target.toString(), steps);
+    }
+
+    private LoadTestDto.Step toStep(ApiDocsRequest.Endpoint endpoint) {
+        String method = endpoint.getMethod().toUpperCase(Locale.ROOT);
+        Map<String, Object> pathValues = new HashMap<>();
+        Map<String, String> query = new LinkedHashMap<>();
+        Map<String, String> headers = new LinkedHashMap<>();
+        Map<String, Object> legacyBody = null;
+
+        for (Map<String, Object> param : Optional.ofNullable(endpoint.getParams()).orElse(List.of())) {
+            if (param == null || param.get("name") == null) continue;
+            String name = String.valueOf(param.get("name"));
+            String in = String.valueOf(param.get("in")).toLowerCase(Locale.ROOT);
+            boolean include = Boolean.TRUE.equals(param.get("required")) || param.get("example") != null;
+            switch (in) {
+                case "path" -> pathValues.put(name, paramValue(param));
+                case "query" -> { if (include) query.put(name, String.valueOf(paramValue(param))); }
+                case "header" -> { if (include) headers.put(name, String.valueOf(paramValue(param))); }
+                case "body", "requestbody" -> legacyBody = param;
+                default -> { }
+            }
+        }
+
+        String body = null;
+        Map<String, Object> requestBody = endpoint.getRequestBody();
+        if (requestBody != null && requestBody.get("content") instanceof Map<?, ?> content && !content.isEmpty()) {
+            String contentType = content.containsKey(MediaType.APPLICATION_JSON_VALUE)
+                    ? MediaType.APPLICATION_JSON_VALUE : String.valueOf(content.keySet().iterator().next());
+            Map<?, ?> media = content.get(contentType) instanceof Map<?, ?> map ? map : Map.of();
+            body = serialize(contentType, OpenApiSampleValues.sampleOfMedia(media));
+            headers.put("Content-Type", contentType);
+        } else if (legacyBody != null) {
+            body = serialize(MediaType.APPLICATION_JSON_VALUE, paramValue(legacyBody));
+            headers.put("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+        }
+
+        return new LoadTestDto.Step(
+                method + " " + endpoint.getPath(),
+                method,
+                resolvePath(endpoint.getPath(), pathValues) + queryString(query),
+                headers,
+                body,
+                DEFAULT_WEIGHTS.getOrDefault(method, 1));
+    }
+
+    private static Object paramValue(Map<String, Object> param) {
+        if (param.get("example") != null) {
+            return param.get("example");
+        }
+        Object sample = OpenApiSampleValues.sampleOf(param.get("schema"));
+        return sample != null ? sample : "1";
+    }
+
+    // 경로 변수는 세그먼트 규칙으로, 나머지 고정 부분은 경로 규칙으로 인코딩한다 ("/search items/{q}")
+    private static String resolvePath(String template, Map<String, Object> values) {
+        String path = template.startsWith("/") ? template : "/" + template;
+        Matcher matcher = PATH_VARIABLE.matcher(path);
+        StringBuilder resolved = new StringBuilder();
+        int literalStart = 0;
+        while (matcher.find()) {
+            resolved.append(UriUtils.encodePath(path.substring(literalStart, matcher.start()), StandardCharsets.UTF_8));
+            Object value = values.getOrDefault(matcher.group(1), "1");
+            resolved.append(UriUtils.encodePathSegment(String.valueOf(value), StandardCharsets.UTF_8));
+            literalStart = matcher.end();
+        }
+        resolved.append(UriUtils.encodePath(path.substring(literalStart), StandardCharsets.UTF_8));
+        return resolved.toString();
+    }
+
+    private static String queryString(Map<String, String> query) {
+        if (query.isEmpty()) {
+            return "";
+        }
+        return query.entrySet().stream()
+                .map(entry -> UriUtils.encodeQueryParam(entry.getKey(), StandardCharsets.UTF_8) + "="
+                        + UriUtils.encodeQueryParam(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&", "?", ""));
+    }
+
+    private String serialize(String contentType, Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String text && !contentType.contains("json")) {
+            return text;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            return String.valueOf(value);
+        }
+    }
+
+    private static List<LoadTestDto.Step> applyWeights(List<LoadTestDto.Step> steps, Map<String, Integer> weights) {
+        if (weights == null || weights.isEmpty()) {
+            return steps;
+        }
+        return steps.stream()
+                .map(step -> weights.containsKey(step.name())
+                        ? new LoadTestDto.Step(step.name(), step.method(), step.path(), step.headers(), step.body(),
+                                Math.max(0, Optional.ofNullable(weights.get(step.name())).orElse(0)))
+                        : step)
+                .toList();
+    }
+
+    private static boolean isLocal(URI uri) {
+        try {
+            return uri.getHost() != null && InetAddress.getByName(uri.getHost()).isLoopbackAddress();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private List<Map<String, Object>> readEndpoints(String json) {
+        if (!StringUtils.hasText(json)) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<>() {
+            });
+        } catch (Exception e) {
+            log.warn("엔드포인트 파싱 실패", e);
+            return List.of();
+        }
+    }
+}
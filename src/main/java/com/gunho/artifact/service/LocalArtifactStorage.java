@@ -0,0 +1,341 @@
+package com.gunho.artifact.service;
+
+import com.gunho.artifact.exception.ArtifactException;
+import com.gunho.artifact.util.CloseShieldOutputStream;
+import com.gunho.artifact.util.PrecompressedOutputStream;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 파일시스템 저장소 (기본값).
+ * 대상과 같은 디렉터리의 임시 파일에 끝까지 쓴 뒤 원자적 이동으로 교체하므로
+ * 도중에 실패하거나 프로세스가 죽어도 읽는 쪽은 이전 파일이나 새 파일만 본다.
+ * 같은 키를 동시에 쓰는 요청은 키 해시로 고른 스트라이프 락으로 순서를 맞춘다.
+ * fsync 를 켜면 이동 전 파일과 이동 후 디렉터리 엔트리까지 디스크에 내린다.
+ * 예전 위치(src/main/resources/static/artifact)에 남은 산출물은 처음 시작할 때 한 번 루트로 복사한다.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "artifact.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalArtifactStorage implements ArtifactStorage {
+
+    private static final int STRIPES = 64;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    @Value("${artifact.storage.local.root:data/artifact}")
+    private String rootLocation;
+
+    @Value("${artifact.storage.local.fsync:false}")
+    private boolean fsync;
+
+    // 비우면 이전 위치 복사를 하지 않는다
+    @Value("${artifact.storage.local.legacy-root:src/main/resources/static/artifact}")
+    private String legacyLocation;
+
+    private Path root;
+
+    public LocalArtifactStorage() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Path.of(rootLocation).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        log.info("산출물 저장소 root : {}, fsync : {}", root, fsync);
+        migrateLegacy();
+    }
+
+    /**
+     * 예전 위치의 파일 중 루트에 없는 것만 복사한다. 끝나면 루트 옆에 표시 파일을 남겨 다음 시작부터는 건너뛴다
+     * (루트 안에 두면 고아 파일 정리 대상이 된다)
+     */
+    private void migrateLegacy() throws IOException {
+        if (legacyLocation == null || legacyLocation.isBlank()) {
+            return;
+        }
+        Path legacy = Path.of(legacyLocation).toAbsolutePath().normalize();
+        Path marker = root.resolveSibling(root.getFileName() + ".legacy-migrated");
+        if (!Files.isDirectory(legacy) || legacy.equals(root) || Files.exists(marker)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(legacy)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+        int copied = 0;
+        for (Path file : files) {
+            Path target = root.resolve(legacy.relativize(file).toString()).normalize();
+            if (!target.startsWith(root) || Files.exists(target)) {
+                continue;
+            }
+            Files.createDirectories(target.getParent());
+            Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
+            copied++;
+        }
+        Files.writeString(marker, legacy.toString());
+        log.info("이전 위치 산출물 복사 완료 {} -> {} : {}개", legacy, root, copied);
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /**
+     * 키를 루트 아래 경로로 바꾼다. 제목에 들어간 '..' 등으로 루트 밖을 가리키면 거부
+     */
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (key.isBlank() || !path.startsWith(root) || path.equals(root)) {
+            throw new ArtifactException("잘못된 파일 경로입니다: " + key);
+        }
+        return path;
+    }
+
+    @Override
+    public long write(String key, Content content) throws IOException {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            return writeFile(resolve(key), content);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 임시 파일 + 원자적 이동이라 같은 내용을 동시에 써도 어느 쪽이든 온전한 파일이 남는다
+     */
+    @Override
+    public long writeImmutable(String key, Content content) throws IOException {
+        return writeFile(resolve(key), content);
+    }
+
+    private long writeFile(Path target, Content content) throws IOException {
+        Path temp = tempFile(target);
+        try {
+            long size;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+                content.writeTo(new CloseShieldOutputStream(out));
+                out.flush();
+                size = force(channel);
+            }
+            commit(temp, target);
+            return size;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public long writeWithGzip(String key, Content content) throws IOException {
+        Path target = resolve(key);
+        Path gzipTarget = PrecompressedOutputStream.gzipPath(target);
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            Path temp = tempFile(target);
+            Path gzipTemp = tempFile(gzipTarget);
+            try {
+                long size;
+                try (FileChannel raw = FileChannel.open(temp, StandardOpenOption.WRITE);
+                     FileChannel gzip = FileChannel.open(gzipTemp, StandardOpenOption.WRITE)) {
+                    // 채널은 fsync 뒤에 닫아야 하므로 PrecompressedOutputStream 이 닫지 못하게 감싼다
+                    try (OutputStream out = new PrecompressedOutputStream(
+                            new CloseShieldOutputStream(Channels.newOutputStream(raw)),
+                            new CloseShieldOutputStream(Channels.newOutputStream(gzip)))) {
+                        content.writeTo(new CloseShieldOutputStream(out));
+                    }
+                    size = force(raw);
+                    force(gzip);
+                }
+                // .gz 를 먼저 바꿔서 원본이 보이는 시점에는 짝이 맞는 압축본이 있게 한다
+                commit(gzipTemp, gzipTarget);
+                commit(temp, target);
+                return size;
+            } finally {
+                Files.deleteIfExists(temp);
+                Files.deleteIfExists(gzipTemp);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public InputStream read(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public Resource resource(String key) {
+        return new FileSystemResource(resolve(key));
+    }
+
+    @Override
+    public List<StoredObject> list(String startAfter, int limit) throws IOException {
+        List<StoredObject> objects = new ArrayList<>(limit);
+        collect(root, "", startAfter, limit, objects);
+        return objects;
+    }
+
+    /**
+     * 디렉터리는 "이름/" 으로 정렬해야 전체 키의 사전순과 같아진다 ("a.txt" < "a/b").
+     * startAfter 보다 앞선 하위 트리는 내려가지 않는다
+     */
+    private void collect(Path dir, String dirKey, String startAfter, int limit, List<StoredObject> objects) throws IOException {
+        List<Path> children;
+        try (Stream<Path> list = Files.list(dir)) {
+            children = list.sorted(Comparator.comparing(LocalArtifactStorage::sortName)).toList();
+        }
+        for (Path child : children) {
+            if (objects.size() >= limit) {
+                return;
+            }
+            String key = dirKey.isEmpty() ? child.getFileName().toString() : dirKey + "/" + child.getFileName();
+            if (Files.isDirectory(child)) {
+                String subtree = key + "/";
+                if (startAfter == null || subtree.compareTo(startAfter) >= 0 || startAfter.startsWith(subtree)) {
+                    collect(child, key, startAfter, limit, objects);
+                }
+            } else if (startAfter == null || key.compareTo(startAfter) > 0) {
+                try {
+                    objects.add(new StoredObject(key, Files.size(child), Files.getLastModifiedTime(child).toMillis()));
+                } catch (NoSuchFileException e) {
+                    // 목록을 읽는 사이에 교체/삭제된 파일
+                }
+            }
+        }
+    }
+
+    private static String sortName(Path path) {
+        String name = path.getFileName().toString();
+        return Files.isDirectory(path) ? name + "/" : name;
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Path path = resolve(key);
+        Files.deleteIfExists(path);
+        // 비게 된 상위 디렉터리도 정리
+        for (Path dir = path.getParent(); dir != null && !dir.equals(root); dir = dir.getParent()) {
+            try {
+                Files.deleteIfExists(dir);
+            } catch (DirectoryNotEmptyException e) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void retain(String prefix, Set<String> keep) throws IOException {
+        Path dir = resolve(prefix);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.startsWith(".") && name.endsWith(TEMP_SUFFIX)) {
+                continue; // 다른 요청이 쓰는 중인 임시 파일
+            }
+            String key = root.relativize(file).toString().replace('\\', '/');
+            String original = key.endsWith(PrecompressedOutputStream.GZIP_EXTENSION)
+                    ? key.substring(0, key.length() - PrecompressedOutputStream.GZIP_EXTENSION.length())
+                    : key;
+            if (!keep.contains(key) && !keep.contains(original)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    ReentrantLock lockFor(String key) {
+        int h = key.hashCode();
+        return locks[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * 같은 디렉터리(같은 파일시스템)에 만들어야 원자적 이동이 된다.
+     * 다른 키의 delete 가 비어 있는 상위 디렉터리를 지우는 사이에 끼면 디렉터리를 다시 만들고 재시도한다.
+     * 임시 파일이 생긴 뒤에는 디렉터리가 비어 있지 않으므로 지워지지 않는다
+     */
+    private static Path tempFile(Path target) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Files.createDirectories(target.getParent());
+                return Files.createTempFile(target.getParent(), "." + target.getFileName() + ".", TEMP_SUFFIX);
+            } catch (NoSuchFileException | FileAlreadyExistsException e) {
+                // createDirectories 는 만드는 사이 지워진 디렉터리를 FileAlreadyExistsException 으로 알린다
+                if (attempt == 3) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private long force(FileChannel channel) throws IOException {
+        if (fsync) {
+            channel.force(true);
+        }
+        return channel.size();
+    }
+
+    private void commit(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (fsync) {
+            forceDirectory(target.getParent());
+        }
+    }
+
+    // 이름 변경을 디스크에 남기려면 디렉터리도 fsync 해야 한다 (지원하지 않는 OS 는 건너뜀)
+    private static void forceDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("디렉터리 fsync 미지원 {} : {}", dir, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.gunho.artifact.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gunho.artifact.dto.ApiDocsRequest;
+import com.gunho.artifact.util.OpenApiJsonWriter;
+import com.gunho.artifact.util.OpenApiSchemaDeduplicator;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * API 문서 편집 데이터(엔드포인트 목록)를 OpenAPI 문서로 변환한다.
+ * 문서 저장 시 한 번 컴파일해 ApiDocsSpec 에 보관하고, 다운로드는 원본 해시가 같으면 보관본을 그대로 사용한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class OpenApiSpecCompiler {
+
+    private final ObjectMapper objectMapper;
+    private final ArtifactRenderCache renderCache;
+    private final ForkJoinPool compilePool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // 이 개수 이상이면 엔드포인트 변환을 병렬로 수행
+    @Value("${artifact.docs.parallel-threshold:500}")
+    private int parallelThreshold;
+
+    /**
+     * 편집기에서 저장한 엔드포인트(Map)를 다운로드 요청과 같은 형태로 변환
+     */
+    public List<ApiDocsRequest.Endpoint> toEndpoints(List<Map<String, Object>> endpoints) {
+        if (endpoints == null) {
+            return List.of();
+        }
+        return endpoints.stream()
+                .map(endpoint -> objectMapper.convertValue(endpoint, ApiDocsRequest.Endpoint.class))
+                .toList();
+    }
+
+    /**
+     * 컴파일 입력의 해시. 저장본과 다운로드 요청이 같은 입력인지 판단하는 키
+     */
+    public String sourceHash(String title, String version, List<ApiDocsRequest.Endpoint> endpoints) {
+        return renderCache.digest(title, version, endpoints);
+    }
+
+    /**
+     * HTML &lt;script&gt; 안에 그대로 넣을 수 있는 OpenAPI JSON
+     */
+    public String compileToJson(String title, String version, List<ApiDocsRequest.Endpoint> endpoints) {
+        return OpenApiJsonWriter.toJson(compile(title, version, endpoints));
+    }
+
+    /**
+     * 제목/버전/엔드포인트로 OpenAPI 3.0 문서 트리 생성
+     */
+    public Map<String, Object> compile(String title, String version, List<ApiDocsRequest.Endpoint> endpoints) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("openapi", "3.0.3");
+        Map<String, Object> info = Map.of(
+                "title", title != null ? title : "",
+                "version", version != null ? version : ""
+        );
+        root.put("info", info);
+
+        // 엔드포인트별 변환은 서로 독립이므로 많으면 병렬로 만들고, 병합은 입력 순서대로 해서 순차 결과와 같게 한다
+        List<Map<String, Object>> operations = endpoints.size() >= parallelThreshold
+                ? compilePool.submit(() -> endpoints.parallelStream().map(this::compileOperation).toList()).join()
+                : endpoints.stream().map(this::compileOperation).toList();
+
+        Map<String, Object> paths = new LinkedHashMap<>();
+        for (int i = 0; i < endpoints.size(); i++) {
+            Map<String, Object> methodObj = operations.get(i);
+            if (methodObj == null) {
+                continue;
+            }
+            ApiDocsRequest.Endpoint ep = endpoints.get(i);
+            String path = ep.getPath();
+            String method = ep.getMethod().toLowerCase(Locale.ROOT);
+
+            Map<String, Object> pathItem = (Map<String, Object>) paths.getOrDefault(path, new LinkedHashMap<>());
+            pathItem.put(method, methodObj);
+            paths.put(path, pathItem);
+        }
+        root.put("paths", paths);
+
+        // 여러 엔드포인트가 같은 DTO 를 쓰면 components/schemas 로 올리고 $ref 로 참조
+        OpenApiSchemaDeduplicator.apply(root);
+        return root;
+    }
+
+    /**
+     * 엔드포인트 하나를 operation 객체로 변환. 초안처럼 method/path 가 비어 있으면 null
+     */
+    private Map<String, Object> compileOperation(ApiDocsRequest.Endpoint ep) {
+        if (ep == null || ep.getMethod() == null || ep.getPath() == null) {
+            return null;
+        }
+        Map<String, Object> methodObj = new LinkedHashMap<>();
+
+        if (ep.getSummary() != null) methodObj.put("summary", ep.getSummary());
+        if (ep.getTags() != null) methodObj.put("tags", ep.getTags());
+        Map<String, Object> requestBody = ep.getRequestBody();
+        if (ep.getParams() != null && !ep.getParams().isEmpty()) {
+            List<Map<String, Object>> filtered = new ArrayList<>();
+            for (Map<String, Object> param : ep.getParams()) {
+                if (param == null) {
+                    continue;
+                }
+                Object locationObj = param.get("in");
+                String location = locationObj != null ? locationObj.toString().toLowerCase(Locale.ROOT) : "";
+                if ("requestbody".equals(location) || "body".equals(location)) {
+                    if (requestBody == null) {
+                        requestBody = legacyParamToRequestBody(param);
+                    }
+                } else {
+                    filtered.add(param);
+                }
+            }
+            if (!filtered.isEmpty()) {
+                methodObj.put("parameters", filtered);
+            }
+        }
+        if (requestBody != null && !requestBody.isEmpty()) {
+            Map<String, Object> sanitized = sanitizeRequestBody(requestBody);
+            if (!sanitized.isEmpty()) {
+                methodObj.put("requestBody", sanitized);
+            }
+        }
+
+        Map<String, Object> responses = new LinkedHashMap<>();
+        if (ep.getResponses() != null && !ep.getResponses().isEmpty()) {
+            responses.putAll(ep.getResponses());
+        } else {
+            responses.put("200", Map.of("description", "OK"));
+        }
+        methodObj.put("responses", responses);
+        return methodObj;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Map<String, Object> sanitizeRequestBody(Map<String, Object> requestBody) {
+        if (requestBody == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> copy = new LinkedHashMap<>(requestBody);
+        copy.remove("enabled");
+        copy.remove("contentType");
+
+        Object required = copy.get("required");
+        if (required instanceof String str) {
+            copy.put("required", Boolean.parseBoolean(str));
+        }
+
+        Object contentObj = copy.get("content");
+        if (contentObj instanceof Map<?, ?> contentMap) {
+            Map<String, Object> sanitizedContent = new LinkedHashMap<>();
+            contentMap.forEach((key, value) -> sanitizedContent.put(String.valueOf(key), value));
+            copy.put("content", sanitizedContent);
+        } else if (contentObj == null) {
+            copy.remove("content");
+        }
+
+        Object sanitizedContentObj = copy.get("content");
+        if (sanitizedContentObj instanceof Map<?, ?> sanitizedContent && sanitizedContent.isEmpty()) {
+            copy.remove("content");
+        }
+
+        return copy.isEmpty() ? Collections.emptyMap() : copy;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Map<String, Object> legacyParamToRequestBody(Map<String, Object> param) {
+        if (param == null) {
+            return null;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        Object description = param.get("description");
+        if (description != null) {
+            body.put("description", description);
+        }
+        Object required = param.get("required");
+        if (required instanceof Boolean bool && bool) {
+            body.put("required", true);
+        } else if (required instanceof String str && Boolean.parseBoolean(str)) {
+            body.put("required", true);
+        }
+
+        Object contentTypeObj = param.get("contentType");
+        String contentType = (contentTypeObj != null && !contentTypeObj.toString().isBlank()) ? contentTypeObj.toString() : "application/json";
+        Map<String, Object> mediaType = new LinkedHashMap<>();
+        Object schemaObj = param.get("schema");
+        if (schemaObj instanceof Map<?, ?> schemaMap) {
+            mediaType.put("schema", schemaMap);
+        } else {
+            mediaType.put("schema", Map.of("type", "object"));
+        }
+        Object example = param.get("example");
+        if (example != null) {
+            mediaType.put("example", example);
+        }
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put(contentType, mediaType);
+        body.put("content", content);
+        return body;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        compilePool.shutdown();
+    }
+}
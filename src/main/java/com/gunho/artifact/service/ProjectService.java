@@ -2,6 +2,8 @@ package com.gunho.artifact.service;
 
 import com.gunho.artifact.dto.ApiResponse;
 import com.gunho.artifact.dto.ProjectDto;
+import com.gunho.artifact.entity.ApiDocsDocument;
+import com.gunho.artifact.entity.ApiDocsFlow;
 import com.gunho.artifact.entity.Project;
 import com.gunho.artifact.entity.User;
 import com.gunho.artifact.repository.ProjectRepository;
@@ -9,6 +11,8 @@ import com.gunho.artifact.util.Utils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.util.Optional;
 
@@ -19,6 +23,7 @@ public class ProjectService {
 
     private final QuotaService quotaService;
     private final ProjectRepository projectRepository;
+    private final ArtifactVersionStore artifactVersionStore;
 
     /**
      * 프로젝트 생성
@@ -38,23 +43,32 @@ public class ProjectService {
     }
 
     /**
-     * 프로젝트 삭제
+     * 프로젝트 삭제. 플로우/문서는 cascade 로 지워지므로 산출물 이력(버전, 청크 참조)은 여기서 먼저 정리한다
      * @param idx
      * @param user
      * @return
      */
+    @Transactional
     public ApiResponse<?> delete(long idx, User user) {
         try {
-
-            if (!projectRepository.existsByIdxAndUser_Idx(idx, user.getIdx())) {
+            Project project = projectRepository.findByUser_IdxAndIdx(user.getIdx(), idx);
+            if (project == null) {
                 log.warn("USER: {} | 권한 없는 프로젝트 삭제 시도: {}", user.getId(), idx);
                 return ApiResponse.failure("삭제 권한이 없거나 존재하지 않는 프로젝트입니다.");
             }
 
             log.info("USER : {} | 프로젝트 삭제 : {} ", user.getId(), idx);
-            projectRepository.deleteById(idx);
+            for (ApiDocsFlow flow : project.getFlows()) {
+                artifactVersionStore.deleteAll(flow.getFile());
+            }
+            for (ApiDocsDocument document : project.getDocuments()) {
+                artifactVersionStore.deleteAll(document.getFile());
+            }
+            projectRepository.delete(project);
             quotaService.deleteByProject(user.getIdx());
         } catch (Exception e) {
+            // 이력만 지워지고 프로젝트는 남는 일이 없도록 되돌린다
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             log.error("프로젝트 삭제에 실패했습니다." + e.getMessage());
             return ApiResponse.failure("프로젝트 삭제에 실패했습니다");
         }
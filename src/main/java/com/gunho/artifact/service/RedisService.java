@@ -4,15 +4,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class RedisService {
 
+    private static final RedisScript<Long> DELETE_IF_EQUALS = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
 
@@ -36,6 +42,11 @@ public class RedisService {
         return get(key, type).orElse(defaultValue);
     }
 
+    public boolean setIfAbsent(String key, Object value, Duration ttl) {
+        Boolean result = redisTemplate.opsForValue().setIfAbsent(key, value, ttl);
+        return Boolean.TRUE.equals(result);
+    }
+
     public boolean hasKey(String key) {
         Boolean hasKey = redisTemplate.hasKey(key);
         return Boolean.TRUE.equals(hasKey);
@@ -45,6 +56,14 @@ public class RedisService {
         redisTemplate.delete(key);
     }
 
+    /**
+     * 값이 expected 와 같을 때만 지운다. 비교와 삭제를 한 번에 해서 TTL 로 넘어간 남의 잠금을 지우지 않는다
+     */
+    public boolean deleteIfEquals(String key, Object expected) {
+        Long result = redisTemplate.execute(DELETE_IF_EQUALS, List.of(key), expected);
+        return result != null && result > 0;
+    }
+
     public boolean expire(String key, Duration ttl) {
         Boolean result = redisTemplate.expire(key, ttl);
         return Boolean.TRUE.equals(result);
@@ -0,0 +1,380 @@
+package com.gunho.artifact.service;
+
+import com.gunho.artifact.exception.ArtifactException;
+import com.gunho.artifact.util.CloseShieldOutputStream;
+import com.gunho.artifact.util.PrecompressedOutputStream;
+import com.gunho.artifact.util.S3MultipartOutputStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * S3 호환 오브젝트 스토리지 (artifact.storage.type=s3).
+ * 여러 노드가 같은 버킷을 보므로 한 노드에서 만든 산출물을 다른 노드에서도 내려줄 수 있다.
+ * 생성기 출력은 S3MultipartOutputStream 으로 파트 단위로 바로 올리고(전체를 메모리에 올리지 않음),
+ * 업로드 완료 시점에 객체가 한 번에 바뀌므로 로컬 저장소의 임시 파일+이동과 같은 원자성을 갖는다.
+ * endpoint/path-style 을 지정하면 MinIO 같은 호환 서버에 붙는다.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "artifact.storage.type", havingValue = "s3")
+public class S3ArtifactStorage implements ArtifactStorage {
+
+    private static final int DELETE_BATCH = 1000;
+
+    // 비우면 AWS 기본 엔드포인트
+    @Value("${artifact.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${artifact.storage.s3.region:ap-northeast-2}")
+    private String region;
+
+    @Value("${artifact.storage.s3.bucket:artifact}")
+    private String bucket;
+
+    // 비우면 기본 자격 증명 체인(환경 변수, 인스턴스 프로필 등)
+    @Value("${artifact.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${artifact.storage.s3.secret-key:}")
+    private String secretKey;
+
+    // MinIO 등은 path-style 주소를 쓴다
+    @Value("${artifact.storage.s3.path-style:false}")
+    private boolean pathStyle;
+
+    @Value("${artifact.storage.s3.prefix:}")
+    private String prefix;
+
+    @Value("${artifact.storage.s3.part-size-mb:8}")
+    private int partSizeMb;
+
+    @Value("${artifact.storage.s3.create-bucket:false}")
+    private boolean createBucket;
+
+    // presigned: 서명된 URL 로 리다이렉트, proxy: 애플리케이션이 스트리밍
+    @Value("${artifact.storage.s3.download:presigned}")
+    private String downloadMode;
+
+    @Value("${artifact.storage.s3.presign-ttl-seconds:300}")
+    private long presignTtlSeconds;
+
+    private S3Client client;
+    private S3Presigner presigner;
+
+    @PostConstruct
+    void init() {
+        AwsCredentialsProvider credentials = StringUtils.hasText(accessKey)
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                : DefaultCredentialsProvider.create();
+        S3Configuration configuration = S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build();
+
+        S3ClientBuilder clientBuilder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(configuration);
+        S3Presigner.Builder presignerBuilder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(configuration);
+        if (StringUtils.hasText(endpoint)) {
+            clientBuilder.endpointOverride(URI.create(endpoint));
+            presignerBuilder.endpointOverride(URI.create(endpoint));
+        }
+        client = clientBuilder.build();
+        presigner = presignerBuilder.build();
+
+        try {
+            client.headBucket(builder -> builder.bucket(bucket));
+        } catch (S3Exception e) {
+            if (e.statusCode() != 404) {
+                throw e;
+            }
+            if (!createBucket) {
+                throw new IllegalStateException("산출물 버킷이 없습니다: " + bucket, e);
+            }
+            client.createBucket(builder -> builder.bucket(bucket));
+        }
+        log.info("산출물 저장소 s3 endpoint : {}, bucket : {}, prefix : {}, download : {}",
+                StringUtils.hasText(endpoint) ? endpoint : "aws", bucket, prefix, downloadMode);
+    }
+
+    @PreDestroy
+    void close() {
+        presigner.close();
+        client.close();
+    }
+
+    @Override
+    public long write(String key, Content content) throws IOException {
+        S3MultipartOutputStream out = open(key, contentType(key), null);
+        try {
+            content.writeTo(new CloseShieldOutputStream(out));
+            out.close();
+            return out.size();
+        } catch (IOException | RuntimeException e) {
+            out.abort();
+            throw e;
+        }
+    }
+
+    @Override
+    public long writeWithGzip(String key, Content content) throws IOException {
+        S3MultipartOutputStream raw = open(key, contentType(key), null);
+        S3MultipartOutputStream gzip = open(key + PrecompressedOutputStream.GZIP_EXTENSION, contentType(key), "gzip");
+        try {
+            try (OutputStream out = new PrecompressedOutputStream(new CloseShieldOutputStream(raw), new CloseShieldOutputStream(gzip))) {
+                content.writeTo(new CloseShieldOutputStream(out));
+            }
+            // .gz 를 먼저 완료해서 원본이 보이는 시점에는 짝이 맞는 압축본이 있게 한다
+            gzip.close();
+            raw.close();
+            return raw.size();
+        } catch (IOException | RuntimeException e) {
+            raw.abort();
+            gzip.abort();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return head(key) != null;
+    }
+
+    @Override
+    public InputStream read(String key) throws IOException {
+        try {
+            return client.getObject(GetObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        }
+    }
+
+    @Override
+    public void copyRange(String key, long start, long count, OutputStream out) throws IOException {
+        if (count <= 0) {
+            return;
+        }
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey(key))
+                .range("bytes=%d-%d".formatted(start, start + count - 1))
+                .build();
+        try (InputStream in = client.getObject(request)) {
+            in.transferTo(out);
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        }
+    }
+
+    @Override
+    public Resource resource(String key) {
+        return new ObjectResource(key);
+    }
+
+    @Override
+    public Optional<URI> downloadUrl(String key, String filename, boolean attachment) {
+        if (!"presigned".equalsIgnoreCase(downloadMode)) {
+            return Optional.empty();
+        }
+        String disposition = (attachment ? ContentDisposition.attachment() : ContentDisposition.inline())
+                .filename(filename, StandardCharsets.UTF_8).build().toString();
+        GetObjectPresignRequest request = GetObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofSeconds(presignTtlSeconds))
+                .getObjectRequest(builder -> builder
+                        .bucket(bucket)
+                        .key(objectKey(key))
+                        .responseContentDisposition(disposition))
+                .build();
+        try {
+            return Optional.of(presigner.presignGetObject(request).url().toURI());
+        } catch (URISyntaxException e) {
+            log.warn("서명 URL 생성 실패 key : {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<StoredObject> list(String startAfter, int limit) {
+        ListObjectsV2Request.Builder request = ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .maxKeys(limit);
+        if (StringUtils.hasText(prefix)) {
+            request.prefix(prefix + "/");
+        }
+        if (startAfter != null) {
+            request.startAfter(StringUtils.hasText(prefix) ? prefix + "/" + startAfter : startAfter);
+        }
+        return client.listObjectsV2(request.build()).contents().stream()
+                .map(object -> new StoredObject(storageKey(object.key()), object.size(), object.lastModified().toEpochMilli()))
+                .toList();
+    }
+
+    @Override
+    public void delete(String key) {
+        client.deleteObject(builder -> builder.bucket(bucket).key(objectKey(key)));
+    }
+
+    @Override
+    public void retain(String prefix, Set<String> keep) {
+        String listPrefix = objectKey(prefix) + "/";
+        List<ObjectIdentifier> stale = new ArrayList<>();
+        ListObjectsV2Request request = ListObjectsV2Request.builder().bucket(bucket).prefix(listPrefix).build();
+        for (S3Object object : client.listObjectsV2Paginator(request).contents()) {
+            String key = storageKey(object.key());
+            String original = key.endsWith(PrecompressedOutputStream.GZIP_EXTENSION)
+                    ? key.substring(0, key.length() - PrecompressedOutputStream.GZIP_EXTENSION.length())
+                    : key;
+            if (!keep.contains(key) && !keep.contains(original)) {
+                stale.add(ObjectIdentifier.builder().key(object.key()).build());
+            }
+        }
+        for (int from = 0; from < stale.size(); from += DELETE_BATCH) {
+            List<ObjectIdentifier> batch = stale.subList(from, Math.min(stale.size(), from + DELETE_BATCH));
+            client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucket)
+                    .delete(Delete.builder().objects(batch).quiet(true).build())
+                    .build());
+        }
+    }
+
+    private S3MultipartOutputStream open(String key, String contentType, String contentEncoding) {
+        return new S3MultipartOutputStream(client, bucket, objectKey(key), contentType, contentEncoding, partSizeMb * 1024 * 1024);
+    }
+
+    private HeadObjectResponse head(String key) {
+        try {
+            return client.headObject(builder -> builder.bucket(bucket).key(objectKey(key)));
+        } catch (NoSuchKeyException e) {
+            return null;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 로컬 저장소와 같은 규칙으로 키를 검사하고 버킷 접두사를 붙인다
+     */
+    private String objectKey(String key) {
+        if (!StringUtils.hasText(key) || key.startsWith("/") || key.contains("\\")) {
+            throw new ArtifactException("잘못된 파일 경로입니다: " + key);
+        }
+        for (String segment : key.split("/")) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                throw new ArtifactException("잘못된 파일 경로입니다: " + key);
+            }
+        }
+        return StringUtils.hasText(prefix) ? prefix + "/" + key : key;
+    }
+
+    private String storageKey(String objectKey) {
+        return StringUtils.hasText(prefix) ? objectKey.substring(prefix.length() + 1) : objectKey;
+    }
+
+    private static String contentType(String key) {
+        return MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+    }
+
+    /**
+     * 다운로드용 객체 리소스. 길이/수정 시각은 HEAD 한 번으로 읽어 둔다
+     */
+    private class ObjectResource extends AbstractResource {
+
+        private final String key;
+        private HeadObjectResponse head;
+
+        ObjectResource(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean exists() {
+            return head() != null;
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            HeadObjectResponse response = head();
+            if (response == null) {
+                throw new NoSuchFileException(key);
+            }
+            return response.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            HeadObjectResponse response = head();
+            if (response == null || response.lastModified() == null) {
+                throw new NoSuchFileException(key);
+            }
+            return response.lastModified().toEpochMilli();
+        }
+
+        @Override
+        public String getFilename() {
+            return key.substring(key.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return read(key);
+        }
+
+        @Override
+        public String getDescription() {
+            return "s3://" + bucket + "/" + objectKey(key);
+        }
+
+        private HeadObjectResponse head() {
+            if (head == null) {
+                head = S3ArtifactStorage.this.head(key);
+            }
+            return head;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.gunho.artifact.service;
+
+import com.gunho.artifact.entity.Template;
+import com.gunho.artifact.exception.ArtifactException;
+import com.gunho.artifact.repository.TemplateRepository;
+import com.gunho.artifact.util.CompiledTemplate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * 산출물/메일 템플릿을 미리 컴파일해 두고 제공하는 레지스트리.
+ * 컴파일된 묶음은 불변 스냅샷으로 만들어 AtomicReference 로 한 번에 교체하므로
+ * 읽는 쪽은 락 없이 항상 완전한 버전을 본다. local/dev 프로필에서는 템플릿 파일을 감시해 다시 컴파일한다.
+ * 메일 템플릿은 DB 에서 직접 수정되므로 주기적으로 다시 읽어 바뀐 것만 다시 컴파일한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TemplateRegistry {
+
+    public static final String FLOWCHART = "flowchart";
+    public static final String API_DOCS = "api-docs";
+    public static final String API_DOCS_SPLIT = "api-docs-split";
+
+    private static final Map<String, String> FILE_TEMPLATES = Map.of(
+            FLOWCHART, "templates/common/flowchart-template.html",
+            API_DOCS, "templates/common/api-docs-template.html",
+            API_DOCS_SPLIT, "templates/common/api-docs-split-template.html"
+    );
+    // 개발 중 수정하는 원본 위치 (클래스패스 복사본보다 우선)
+    private static final Path SOURCE_ROOT = Path.of("src", "main", "resources");
+
+    private final TemplateRepository templateRepository;
+    private final Environment environment;
+
+    private final AtomicReference<Map<String, Compiled>> files = new AtomicReference<>(Map.of());
+    private final AtomicReference<Map<String, MailTemplate>> mails = new AtomicReference<>(Map.of());
+    private WatchService watchService;
+
+    public record Compiled(CompiledTemplate template, String fingerprint) {
+    }
+
+    public record MailTemplate(String subject, String source, CompiledTemplate content) {
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        files.set(compileFiles());
+        if (environment.acceptsProfiles(Profiles.of("local", "dev"))) {
+            startWatcher();
+        }
+    }
+
+    // 메일 템플릿은 DB 에 있으므로 Seeder 등 초기화가 끝난 뒤 적재
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadMailTemplates() {
+        mails.set(compileMails(Map.of()));
+        log.info("메일 템플릿 {}개 컴파일 완료", mails.get().size());
+    }
+
+    /**
+     * DB 의 메일 템플릿을 다시 읽어 스냅샷을 교체. 제목/본문이 그대로인 템플릿은 기존 컴파일 결과를 재사용하고,
+     * 삭제된 템플릿은 스냅샷에서 빠진다. 실패하면 기존 스냅샷을 유지한다.
+     */
+    @Scheduled(initialDelayString = "${artifact.mail-template.refresh-ms:300000}", fixedDelayString = "${artifact.mail-template.refresh-ms:300000}")
+    public void refreshMailTemplates() {
+        try {
+            Map<String, MailTemplate> current = mails.get();
+            Map<String, MailTemplate> next = compileMails(current);
+            if (!next.equals(current)) {
+                mails.set(next);
+                log.info("메일 템플릿 다시 적재: {}개", next.size());
+            }
+        } catch (Exception e) {
+            log.warn("메일 템플릿 다시 적재 실패, 이전 버전을 유지합니다.", e);
+        }
+    }
+
+    public CompiledTemplate get(String name) {
+        return lookup(name).template();
+    }
+
+    /**
+     * 템플릿 원문 해시. 렌더 캐시 키에 넣어 템플릿이 바뀌면 산출물을 다시 만들게 한다.
+     */
+    public String fingerprint(String name) {
+        return lookup(name).fingerprint();
+    }
+
+    /**
+     * 이름으로 메일 템플릿 조회. 시작 이후 추가된 템플릿은 조회 시점에 컴파일해서 스냅샷에 합친다.
+     */
+    public MailTemplate mail(String name) {
+        MailTemplate mail = mails.get().get(name);
+        if (mail != null) {
+            return mail;
+        }
+        Template template = templateRepository.findByName(name);
+        if (template == null) {
+            throw new ArtifactException("메일 템플릿을 찾을 수 없습니다: " + name);
+        }
+        MailTemplate compiled = compileMail(template);
+        mails.updateAndGet(current -> {
+            Map<String, MailTemplate> next = new HashMap<>(current);
+            next.put(name, compiled);
+            return Map.copyOf(next);
+        });
+        return compiled;
+    }
+
+    /**
+     * 파일 템플릿 전체를 다시 컴파일해서 교체. 하나라도 실패하면 기존 스냅샷을 유지한다.
+     */
+    public void reload() {
+        try {
+            files.set(compileFiles());
+            log.info("템플릿 다시 컴파일: {}", FILE_TEMPLATES.keySet());
+        } catch (Exception e) {
+            log.warn("템플릿 컴파일 실패, 이전 버전을 유지합니다.", e);
+        }
+    }
+
+    private Compiled lookup(String name) {
+        Compiled compiled = files.get().get(name);
+        if (compiled == null) {
+            throw new ArtifactException("등록되지 않은 템플릿입니다: " + name);
+        }
+        return compiled;
+    }
+
+    private Map<String, Compiled> compileFiles() throws IOException {
+        Map<String, Compiled> compiled = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : FILE_TEMPLATES.entrySet()) {
+            String source = readSource(entry.getValue());
+            compiled.put(entry.getKey(), new Compiled(CompiledTemplate.compile(source),
+                    DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8))));
+        }
+        return Map.copyOf(compiled);
+    }
+
+    private String readSource(String location) throws IOException {
+        Path sourceFile = SOURCE_ROOT.resolve(location);
+        if (watchService != null && Files.isRegularFile(sourceFile)) {
+            return Files.readString(sourceFile, StandardCharsets.UTF_8);
+        }
+        try (InputStream in = new ClassPathResource(location).getInputStream()) {
+            return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    private Map<String, MailTemplate> compileMails(Map<String, MailTemplate> previous) {
+        Map<String, MailTemplate> compiled = new HashMap<>();
+        for (Template template : templateRepository.findAll()) {
+            MailTemplate cached = previous.get(template.getName());
+            boolean unchanged = cached != null
+                    && Objects.equals(cached.subject(), template.getSubject())
+                    && cached.source().equals(Objects.requireNonNullElse(template.getContent(), ""));
+            compiled.put(template.getName(), unchanged ? cached : compileMail(template));
+        }
+        return Map.copyOf(compiled);
+    }
+
+    private MailTemplate compileMail(Template template) {
+        String source = template.getContent() != null ? template.getContent() : "";
+        return new MailTemplate(template.getSubject(), source, CompiledTemplate.compile(source));
+    }
+
+    private void startWatcher() throws IOException {
+        List<Path> dirs = FILE_TEMPLATES.values().stream()
+                .map(location -> SOURCE_ROOT.resolve(location).getParent())
+                .filter(Files::isDirectory)
+                .distinct()
+                .toList();
+        if (dirs.isEmpty()) {
+            return;
+        }
+
+        watchService = dirs.get(0).getFileSystem().newWatchService();
+        for (Path dir : dirs) {
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        // 감시 시작 후에는 원본 파일 기준으로 다시 읽는다
+        files.set(compileFiles());
+
+        Set<String> watchedNames = FILE_TEMPLATES.values().stream()
+                .map(location -> Path.of(location).getFileName().toString())
+                .collect(Collectors.toSet());
+        Thread watcher = new Thread(() -> watch(watchedNames), "template-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("템플릿 파일 감시 시작: {}", dirs);
+    }
+
+    private void watch(Set<String> watchedNames) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = key.pollEvents().stream()
+                        .anyMatch(event -> watchedNames.contains(String.valueOf(event.context())));
+                key.reset();
+                if (changed) {
+                    // 에디터 저장이 여러 이벤트로 나뉘는 경우를 묶어서 한 번만 컴파일
+                    WatchKey burst;
+                    while ((burst = watchService.poll(200, TimeUnit.MILLISECONDS)) != null) {
+                        burst.pollEvents();
+                        burst.reset();
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.gunho.artifact.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 테마 CSS / Cytoscape 스타일 컴파일 결과 LRU 캐시.
+ * 키는 테마명 + 정규화된 themeVariables 해시이며 모든 생성 스레드가 공유한다.
+ */
+@Component
+public class ThemeStyleCache {
+
+    private final ArtifactRenderCache renderCache;
+    private final int maxSize;
+    private final Map<String, CompiledStyles> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ThemeStyleCache(ArtifactRenderCache renderCache,
+                           MeterRegistry meterRegistry,
+                           @Value("${artifact.flowchart.style-cache.max-size:256}") int maxSize) {
+        this.renderCache = renderCache;
+        this.maxSize = Math.max(1, maxSize);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledStyles> eldest) {
+                if (size() > ThemeStyleCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("artifact.style.cache", hits, AtomicLong::get).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("artifact.style.cache", misses, AtomicLong::get).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("artifact.style.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("artifact.style.cache.size", this, ThemeStyleCache::size).register(meterRegistry);
+    }
+
+    public CompiledStyles get(String theme, Map<String, Object> themeVariables, Supplier<CompiledStyles> compiler) {
+        String key = theme + ":" + variablesHash(themeVariables);
+        synchronized (entries) {
+            CompiledStyles cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        // 컴파일은 락 밖에서 수행 (동시 미스 시 중복 컴파일은 허용)
+        misses.incrementAndGet();
+        CompiledStyles compiled = compiler.get();
+        synchronized (entries) {
+            entries.putIfAbsent(key, compiled);
+        }
+        return compiled;
+    }
+
+    public Stats stats() {
+        return new Stats(size(), maxSize, hits.get(), misses.get(), evictions.get());
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private String variablesHash(Map<String, Object> themeVariables) {
+        if (themeVariables == null || themeVariables.isEmpty()) {
+            return "-";
+        }
+        // 값 표현을 문자열로 통일해서 1 과 "1" 을 같은 키로 본다
+        Map<String, String> normalized = new TreeMap<>();
+        themeVariables.forEach((key, value) -> normalized.put(key, String.valueOf(value)));
+        return renderCache.digest(normalized);
+    }
+
+    public record CompiledStyles(String themeCss, String cytoscapeStyles) {
+    }
+
+    public record Stats(int size, int maxSize, long hits, long misses, long evictions) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.gunho.artifact.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+
+/**
+ * 쓰는 내용을 아래 스트림에 그대로 넘기면서 내용 기반(FastCDC, gear 해시) 경계로 잘라 sink 에 넘긴다.
+ * 경계가 앞쪽 바이트 위치가 아니라 최근 64바이트 내용으로 정해지므로, 중간에 몇 바이트가 끼어들어도
+ * 그 주변 청크만 바뀌고 나머지 청크는 이전 버전과 같은 해시가 된다.
+ * 평균 크기 전에는 조건을 어렵게, 이후에는 쉽게 걸어서 청크 크기가 평균 근처에 모이게 한다 (normalized chunking).
+ */
+public class ChunkingOutputStream extends FilterOutputStream {
+
+    public static final int MIN_SIZE = 2 * 1024;
+    public static final int AVG_SIZE = 8 * 1024;
+    public static final int MAX_SIZE = 64 * 1024;
+
+    // 평균 2^13 기준으로 앞쪽은 2bit 어렵게, 뒤쪽은 2bit 쉽게. 상위 비트는 최근 64바이트에 모두 영향을 받는다
+    private static final long MASK_SMALL = -1L << (64 - 15);
+    private static final long MASK_LARGE = -1L << (64 - 11);
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // 저장된 청크와 경계가 맞아야 하므로 seed 는 바꾸면 안 된다
+        SplittableRandom random = new SplittableRandom(0x6A09E667F3BCC908L);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ChunkSink {
+        void accept(byte[] buffer, int length) throws IOException;
+    }
+
+    private final ChunkSink sink;
+    private final byte[] buffer = new byte[MAX_SIZE];
+    private int position;
+    private long fingerprint;
+    private boolean finished;
+
+    public ChunkingOutputStream(OutputStream out, ChunkSink sink) {
+        super(out);
+        this.sink = sink;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        append((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            append(b[i]);
+        }
+    }
+
+    /**
+     * 남은 바이트를 마지막 청크로 넘긴다. 여러 번 불러도 한 번만 처리한다
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (position > 0) {
+            emit();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        super.close();
+    }
+
+    private void append(byte b) throws IOException {
+        buffer[position++] = b;
+        fingerprint = (fingerprint << 1) + GEAR[b & 0xff];
+        if (position < MIN_SIZE) {
+            return;
+        }
+        long mask = position < AVG_SIZE ? MASK_SMALL : MASK_LARGE;
+        if ((fingerprint & mask) == 0 || position == MAX_SIZE) {
+            emit();
+        }
+    }
+
+    private void emit() throws IOException {
+        sink.accept(buffer, position);
+        position = 0;
+        fingerprint = 0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.gunho.artifact.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * close() 를 flush() 로 바꿔 감싼 스트림을 닫지 않게 한다.
+ * 쓰는 쪽(Writer, Jackson)이 스트림을 닫아도 저장소가 fsync/커밋을 마친 뒤 직접 닫을 수 있다.
+ */
+public class CloseShieldOutputStream extends FilterOutputStream {
+
+    public CloseShieldOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,114 @@
+package com.gunho.artifact.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {{NAME}} 형태의 치환자를 가진 템플릿을 한 번만 파싱해 두고
+ * 리터럴 구간과 슬롯을 순서대로 출력 스트림에 바로 기록한다.
+ * String.replace 체인처럼 문서 전체를 치환 횟수만큼 복사하지 않는다.
+ */
+public final class CompiledTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{([A-Za-z0-9_]+)}}");
+
+    private final List<Segment> segments;
+    private final int literalLength;
+
+    private CompiledTemplate(List<Segment> segments, int literalLength) {
+        this.segments = segments;
+        this.literalLength = literalLength;
+    }
+
+    public static CompiledTemplate compile(String source) {
+        List<Segment> segments = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int literalLength = 0;
+        int last = 0;
+        while (matcher.find()) {
+            if (matcher.start() > last) {
+                segments.add(Segment.literal(source.substring(last, matcher.start())));
+                literalLength += matcher.start() - last;
+            }
+            segments.add(Segment.slot(matcher.group(1)));
+            last = matcher.end();
+        }
+        if (last < source.length()) {
+            segments.add(Segment.literal(source.substring(last)));
+            literalLength += source.length() - last;
+        }
+        return new CompiledTemplate(Collections.unmodifiableList(segments), literalLength);
+    }
+
+    /**
+     * 슬롯 값을 out 에 순서대로 기록한다. 등록되지 않은 치환자는 원문 그대로 남긴다.
+     */
+    public void render(Writer out, Map<String, Slot> slots) throws IOException {
+        for (Segment segment : segments) {
+            if (segment.name() == null) {
+                out.write(segment.literal());
+                continue;
+            }
+            Slot slot = slots.get(segment.name());
+            if (slot != null) {
+                slot.writeTo(out);
+            } else {
+                out.write(segment.literal());
+            }
+        }
+    }
+
+    public String render(Map<String, Slot> slots) {
+        StringWriter out = new StringWriter(literalLength + 256);
+        try {
+            render(out, slots);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * 템플릿에 등장하는 치환자 이름 목록 (등장 순서)
+     */
+    public List<String> placeholders() {
+        List<String> names = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.name() != null) {
+                names.add(segment.name());
+            }
+        }
+        return names;
+    }
+
+    @FunctionalInterface
+    public interface Slot {
+        void writeTo(Writer out) throws IOException;
+
+        static Slot text(String value) {
+            return out -> {
+                if (value != null) {
+                    out.write(value);
+                }
+            };
+        }
+    }
+
+    private record Segment(String literal, String name) {
+        static Segment literal(String text) {
+            return new Segment(text, null);
+        }
+
+        static Segment slot(String name) {
+            return new Segment("{{" + name + "}}", name);
+        }
+    }
+}
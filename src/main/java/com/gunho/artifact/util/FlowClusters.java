@@ -0,0 +1,72 @@
+package com.gunho.artifact.util;
+
+import java.util.Arrays;
+
+/**
+ * 대형 플로우를 청크 단위로 나누기 위한 클러스터 분할.
+ * 연결 요소를 BFS 로 순회하면서 maxClusterSize 개씩 잘라
+ * 인접한 노드끼리 같은 청크에 들어가도록 한다.
+ */
+public final class FlowClusters {
+
+    private FlowClusters() {}
+
+    /**
+     * @return 노드 인덱스별 클러스터 번호 (0 부터, 첫 등장 노드 순서)
+     */
+    public static int[] partition(int nodeCount, int[] edgeFrom, int[] edgeTo, int maxClusterSize) {
+        int limit = Math.max(1, maxClusterSize);
+        int edgeCount = edgeFrom.length;
+
+        // 무방향 인접 리스트 (CSR)
+        int[] offsets = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[edgeFrom[e] + 1]++;
+            offsets[edgeTo[e] + 1]++;
+        }
+        for (int v = 0; v < nodeCount; v++) offsets[v + 1] += offsets[v];
+        int[] neighbours = new int[edgeCount * 2];
+        int[] fill = Arrays.copyOf(offsets, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            neighbours[fill[edgeFrom[e]]++] = edgeTo[e];
+            neighbours[fill[edgeTo[e]]++] = edgeFrom[e];
+        }
+
+        int[] cluster = new int[nodeCount];
+        Arrays.fill(cluster, -1);
+        int[] queue = new int[nodeCount];
+        int clusterCount = 0;
+        for (int root = 0; root < nodeCount; root++) {
+            if (cluster[root] != -1) continue;
+
+            // 연결 요소 하나를 BFS 로 순회하며 limit 개씩 잘라 번호를 부여
+            int head = 0;
+            int tail = 0;
+            int current = clusterCount++;
+            int filled = 1;
+            queue[tail++] = root;
+            cluster[root] = current;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int w = neighbours[i];
+                    if (cluster[w] != -1) continue;
+                    if (filled == limit) {
+                        current = clusterCount++;
+                        filled = 0;
+                    }
+                    cluster[w] = current;
+                    filled++;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return cluster;
+    }
+
+    public static int clusterCount(int[] cluster) {
+        int max = -1;
+        for (int c : cluster) max = Math.max(max, c);
+        return max + 1;
+    }
+}
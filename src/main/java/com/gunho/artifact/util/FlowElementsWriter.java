@@ -0,0 +1,144 @@
+package com.gunho.artifact.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cytoscape.js elements JSON 을 출력 스트림에 바로 기록한다.
+ * 노드/엣지마다 문자열을 만들지 않고, 필드 값은 한 번의 순회로 escape 하며
+ * 기존 String.format 기반 출력과 바이트 단위로 동일한 레이아웃을 유지한다.
+ */
+public final class FlowElementsWriter {
+
+    private FlowElementsWriter() {}
+
+    public static void write(List<Map<String, Object>> nodes, List<Map<String, Object>> edges, Writer out) throws IOException {
+        write(nodes, edges, null, out);
+    }
+
+    /**
+     * positions 가 있으면 노드마다 preset 레이아웃용 "position" 을 함께 기록한다.
+     */
+    public static void write(List<Map<String, Object>> nodes, List<Map<String, Object>> edges,
+                             LayeredLayout.Positions positions, Writer out) throws IOException {
+        write(nodes, edges, positions, null, null, out);
+    }
+
+    /**
+     * nodeHeat/edgeHeat 가 있으면 data 에 "heat"(0..1) 를 넣어 지연 시간 히트맵 스타일이 적용되게 한다.
+     */
+    public static void write(List<Map<String, Object>> nodes, List<Map<String, Object>> edges,
+                             LayeredLayout.Positions positions, double[] nodeHeat, double[] edgeHeat,
+                             Writer out) throws IOException {
+        out.write("[\n");
+
+        // 노드 추가
+        for (int i = 0; i < nodes.size(); i++) {
+            Map<String, Object> node = nodes.get(i);
+            String id = (String) node.get("id");
+
+            out.write("{\n  \"data\": {\n    \"id\": \"");
+            writeEscaped(id, out);
+            out.write("\",\n    \"label\": \"");
+            writeEscaped(String.valueOf(node.getOrDefault("label", id)), out);
+            out.write("\",\n    \"type\": \"");
+            writeEscaped(String.valueOf(node.getOrDefault("shape", "process")), out);
+            out.write("\",\n    \"nodeClass\": \"");
+            writeEscaped(String.valueOf(node.getOrDefault("class", "")), out);
+            out.write('"');
+            writeHeat(nodeHeat, i, out);
+            out.write("\n  }");
+            if (positions != null) {
+                out.write(",\n  \"position\": {\n    \"x\": ");
+                out.write(Long.toString(Math.round(positions.x()[i])));
+                out.write(",\n    \"y\": ");
+                out.write(Long.toString(Math.round(positions.y()[i])));
+                out.write("\n  }");
+            }
+            out.write("\n}");
+
+            if (i < nodes.size() - 1 || !edges.isEmpty()) {
+                out.write(',');
+            }
+            out.write('\n');
+        }
+
+        // 엣지 추가
+        for (int i = 0; i < edges.size(); i++) {
+            Map<String, Object> edge = edges.get(i);
+            String from = (String) edge.get("from");
+            String to = (String) edge.get("to");
+
+            out.write("{\n  \"data\": {\n    \"id\": \"");
+            writeEscaped(from, out);
+            out.write('-');
+            writeEscaped(to, out);
+            out.write("\",\n    \"source\": \"");
+            writeEscaped(from, out);
+            out.write("\",\n    \"target\": \"");
+            writeEscaped(to, out);
+            out.write("\",\n    \"label\": \"");
+            writeEscaped(String.valueOf(edge.getOrDefault("label", "")), out);
+            out.write("\",\n    \"styleType\": \"");
+            writeEscaped(styleType(edge), out);
+            out.write('"');
+            writeHeat(edgeHeat, i, out);
+            out.write("\n  }\n}");
+
+            if (i < edges.size() - 1) {
+                out.write(',');
+            }
+            out.write('\n');
+        }
+
+        out.write(']');
+    }
+
+    private static void writeHeat(double[] heat, int index, Writer out) throws IOException {
+        if (heat != null) {
+            out.write(",\n    \"heat\": ");
+            out.write(Double.toString(Math.round(heat[index] * 1000) / 1000.0));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String styleType(Map<String, Object> edge) {
+        Map<String, Object> style = (Map<String, Object>) edge.get("style");
+        if (style != null && style.get("type") != null) {
+            return String.valueOf(style.get("type"));
+        }
+        return "";
+    }
+
+    /**
+     * 기존 escapeJson 과 같은 규칙(\\, ", \n, \r, \t)으로 escape 하되
+     * 치환이 필요 없는 구간은 그대로 흘려보낸다.
+     */
+    public static void writeEscaped(String str, Writer out) throws IOException {
+        if (str == null) return;
+        int start = 0;
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            String replacement = switch (str.charAt(i)) {
+                case '\\' -> "\\\\";
+                case '"' -> "\\\"";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> null;
+            };
+            if (replacement != null) {
+                if (i > start) {
+                    out.write(str, start, i - start);
+                }
+                out.write(replacement);
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            out.write(str, start, length - start);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.gunho.artifact.util;
+
+import com.gunho.artifact.model.FlowGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * 플로우 노드/엣지에 붙인 지연 시간 분포로 종단 간 지연을 몬테카를로 시뮬레이션한다.
+ * 한 노드는 들어오는 호출이 모두 끝난 뒤 시작한다고 보고(병렬 fan-out 의 max),
+ * 반복마다 위상 순서대로 완료 시각을 구해 가장 늦게 끝난 노드에서 임계 경로를 거꾸로 따라간다.
+ * 반복은 청크 단위로 병렬 실행하며, 청크마다 seed 에서 파생한 난수열을 써서 스레드 수와 무관하게 결과가 같다.
+ */
+public final class LatencySimulation {
+
+    private static final int CHUNK = 1024;
+    private static final double Z99 = 2.3263478740408408; // 표준정규 99% 분위수
+
+    private LatencySimulation() {}
+
+    public record Result(
+            int iterations,
+            double p50,
+            double p90,
+            double p99,
+            double mean,
+            double[] nodeCriticality, // 임계 경로에 든 비율 (0..1)
+            double[] edgeCriticality,
+            List<String> criticalPath, // 가장 자주 나온 임계 경로의 노드 id
+            double criticalPathShare,
+            List<String> excludedNodes // 사이클에 속해 계산에서 빠진 노드
+    ) {
+    }
+
+    /**
+     * 지연 시간 분포 (ms). 노드/엣지의 "latency" 값으로 만든다.
+     * <ul>
+     *     <li>숫자: 고정값</li>
+     *     <li>{p50, p99}: 로그정규 (p99 없으면 고정)</li>
+     *     <li>{min, max}: 균등</li>
+     *     <li>{mean, stddev}: 정규 (0 미만은 0)</li>
+     * </ul>
+     */
+    public record Distribution(Kind kind, double a, double b) {
+
+        public static final Distribution ZERO = new Distribution(Kind.FIXED, 0, 0);
+
+        public enum Kind { FIXED, LOGNORMAL, UNIFORM, NORMAL }
+
+        public static Distribution parse(Object latency) {
+            if (latency instanceof Number number) {
+                return fixed(number.doubleValue());
+            }
+            if (!(latency instanceof Map<?, ?> spec)) {
+                return ZERO;
+            }
+            Double p50 = number(spec.get("p50"));
+            Double p99 = number(spec.get("p99"));
+            if (p50 != null && p50 > 0) {
+                if (p99 == null || p99 <= p50) {
+                    return fixed(p50);
+                }
+                double mu = Math.log(p50);
+                return new Distribution(Kind.LOGNORMAL, mu, (Math.log(p99) - mu) / Z99);
+            }
+            Double min = number(spec.get("min"));
+            Double max = number(spec.get("max"));
+            if (min != null && max != null && max >= min) {
+                return new Distribution(Kind.UNIFORM, Math.max(0, min), Math.max(0, max));
+            }
+            Double mean = number(spec.get("mean"));
+            if (mean != null) {
+                Double stddev = number(spec.get("stddev"));
+                return stddev != null && stddev > 0 ? new Distribution(Kind.NORMAL, mean, stddev) : fixed(mean);
+            }
+            return ZERO;
+        }
+
+        private static Distribution fixed(double value) {
+            return new Distribution(Kind.FIXED, Math.max(0, value), 0);
+        }
+
+        private static Double number(Object value) {
+            if (value instanceof Number number) {
+                return number.doubleValue();
+            }
+            if (value instanceof String text && !text.isBlank()) {
+                try {
+                    return Double.parseDouble(text.trim());
+                } catch (NumberFormatException ignored) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        double sample(SplittableRandom random) {
+            return switch (kind) {
+                case FIXED -> a;
+                case LOGNORMAL -> Math.exp(a + b * gaussian(random));
+                case UNIFORM -> a == b ? a : random.nextDouble(a, b);
+                case NORMAL -> Math.max(0, a + b * gaussian(random));
+            };
+        }
+
+        // Box-Muller
+        private static double gaussian(SplittableRandom random) {
+            double u = 1.0 - random.nextDouble();
+            double v = random.nextDouble();
+            return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * v);
+        }
+    }
+
+    public static Result run(FlowGraph graph, Distribution[] nodeLatency, Distribution[] edgeLatency, int iterations, long seed) {
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        int[] order = graph.topologicalOrder();
+        int[] edgeFrom = graph.edgeFrom();
+        int[] edgeTo = graph.edgeTo();
+
+        // 사이클 밖 노드 사이의 엣지만 들어오는 방향 CSR 로 모은다
+        boolean[] acyclic = new boolean[n];
+        for (int v : order) acyclic[v] = true;
+        int[] inOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            if (acyclic[edgeFrom[e]] && acyclic[edgeTo[e]]) inOffsets[edgeTo[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) inOffsets[v + 1] += inOffsets[v];
+        int[] inEdges = new int[inOffsets[n]];
+        int[] fill = Arrays.copyOf(inOffsets, n);
+        for (int e = 0; e < m; e++) {
+            if (acyclic[edgeFrom[e]] && acyclic[edgeTo[e]]) inEdges[fill[edgeTo[e]]++] = e;
+        }
+
+        double[] totals = new double[iterations];
+        int chunks = (iterations + CHUNK - 1) / CHUNK;
+        Tally tally = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    Tally local = new Tally(n, m);
+                    SplittableRandom random = new SplittableRandom(seed + chunk * 0x9E3779B97F4A7C15L);
+                    double[] finish = new double[n];
+                    int[] pred = new int[n];
+                    PathKey path = new PathKey(new int[n], 0);
+                    int end = Math.min(iterations, (chunk + 1) * CHUNK);
+                    for (int i = chunk * CHUNK; i < end; i++) {
+                        totals[i] = simulateOnce(order, inOffsets, inEdges, edgeFrom, nodeLatency, edgeLatency, random, finish, pred, path, local);
+                    }
+                    return local;
+                })
+                .reduce(Tally::merge)
+                .orElseGet(() -> new Tally(n, m));
+
+        double[] sorted = totals.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(totals).average().orElse(0);
+
+        double[] nodeCriticality = new double[n];
+        double[] edgeCriticality = new double[m];
+        for (int v = 0; v < n; v++) nodeCriticality[v] = iterations > 0 ? (double) tally.nodeHits[v] / iterations : 0;
+        for (int e = 0; e < m; e++) edgeCriticality[e] = iterations > 0 ? (double) tally.edgeHits[e] / iterations : 0;
+
+        List<String> criticalPath = new ArrayList<>();
+        double share = 0;
+        // 횟수가 같으면 노드 번호 순으로 골라 스레드 수와 무관하게 같은 경로가 나오게 한다
+        Map.Entry<PathKey, int[]> top = tally.paths.entrySet().stream()
+                .max(Comparator.<Map.Entry<PathKey, int[]>>comparingInt(entry -> entry.getValue()[0])
+                        .thenComparing(Map.Entry::getKey, PathKey.ORDER.reversed()))
+                .orElse(null);
+        if (top != null) {
+            // 키는 끝 노드부터 거꾸로 담겨 있다
+            PathKey key = top.getKey();
+            for (int i = key.length - 1; i >= 0; i--) {
+                criticalPath.add(graph.nodeId(key.nodes[i]));
+            }
+            share = (double) top.getValue()[0] / iterations;
+        }
+
+        List<String> excluded = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            if (!acyclic[v]) excluded.add(graph.nodeId(v));
+        }
+        return new Result(iterations, percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                mean, nodeCriticality, edgeCriticality, criticalPath, share, excluded);
+    }
+
+    private static double simulateOnce(int[] order, int[] inOffsets, int[] inEdges, int[] edgeFrom,
+                                       Distribution[] nodeLatency, Distribution[] edgeLatency,
+                                       SplittableRandom random, double[] finish, int[] pred, PathKey path, Tally tally) {
+        int last = -1;
+        for (int v : order) {
+            double start = 0;
+            int via = -1;
+            for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+                int e = inEdges[i];
+                double arrive = finish[edgeFrom[e]] + edgeLatency[e].sample(random);
+                if (arrive > start || via < 0) {
+                    start = arrive;
+                    via = e;
+                }
+            }
+            finish[v] = start + nodeLatency[v].sample(random);
+            pred[v] = via;
+            if (last < 0 || finish[v] > finish[last]) {
+                last = v;
+            }
+        }
+        if (last < 0) {
+            return 0;
+        }
+
+        // 가장 늦게 끝난 노드에서 임계 경로 역추적. 재사용하는 버퍼에 거꾸로 담아 처음 보는 경로일 때만 복사한다
+        path.length = 0;
+        int v = last;
+        while (true) {
+            tally.nodeHits[v]++;
+            path.nodes[path.length++] = v;
+            int e = pred[v];
+            if (e < 0) break;
+            tally.edgeHits[e]++;
+            v = edgeFrom[e];
+        }
+        int[] count = tally.paths.get(path);
+        if (count == null) {
+            tally.paths.put(path.copy(), new int[]{1});
+        } else {
+            count[0]++;
+        }
+        return finish[last];
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * 임계 경로의 노드 번호 배열(끝 노드부터 역순)을 해시 키로 쓴다. 조회할 때는 버퍼를 그대로 쓰고 저장할 때만 복사한다
+     */
+    private static final class PathKey {
+        static final Comparator<PathKey> ORDER = (a, b) -> Arrays.compare(a.nodes, 0, a.length, b.nodes, 0, b.length);
+
+        private final int[] nodes;
+        private int length;
+
+        PathKey(int[] nodes, int length) {
+            this.nodes = nodes;
+            this.length = length;
+        }
+
+        PathKey copy() {
+            return new PathKey(Arrays.copyOf(nodes, length), length);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PathKey other && Arrays.equals(nodes, 0, length, other.nodes, 0, other.length);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + nodes[i];
+            }
+            return hash;
+        }
+    }
+
+    // 청크별 임계 경로 집계. 청크 결과를 합쳐서 전체를 만든다
+    private static final class Tally {
+        private final long[] nodeHits;
+        private final long[] edgeHits;
+        private final Map<PathKey, int[]> paths = new HashMap<>();
+
+        Tally(int nodes, int edges) {
+            nodeHits = new long[nodes];
+            edgeHits = new long[edges];
+        }
+
+        Tally merge(Tally other) {
+            for (int i = 0; i < nodeHits.length; i++) nodeHits[i] += other.nodeHits[i];
+            for (int i = 0; i < edgeHits.length; i++) edgeHits[i] += other.edgeHits[i];
+            other.paths.forEach((path, count) -> paths.computeIfAbsent(path, key -> new int[1])[0] += count[0]);
+            return this;
+        }
+    }
+}
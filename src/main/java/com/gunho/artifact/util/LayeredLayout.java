@@ -0,0 +1,232 @@
+package com.gunho.artifact.util;
+
+import com.gunho.artifact.model.FlowGraph;
+
+import java.util.Arrays;
+
+/**
+ * 계층형(Sugiyama) 그래프 배치.
+ * 사이클 제거 → 최장 경로 계층 할당 → 더미 노드 삽입 → 무게중심 정렬 → 좌표 할당 순으로
+ * 노드 좌표를 계산해서 브라우저가 preset 레이아웃으로 바로 그릴 수 있게 한다.
+ * 노드/엣지는 모두 int 인덱스로 다루며 간선 수에 선형인 배열만 사용한다.
+ */
+public final class LayeredLayout {
+
+    public static final double NODE_WIDTH = 120;
+    public static final double NODE_HEIGHT = 60;
+    public static final double NODE_SEP = 60;
+    public static final double RANK_SEP = 120;
+
+    private static final int SWEEPS = 8;
+    // 이보다 긴 간선은 더미 노드 없이 정렬 대상에서 제외 (더미 수가 n × 계층 수로 폭증하는 것 방지)
+    private static final int MAX_DUMMY_SPAN = 8;
+
+    private LayeredLayout() {}
+
+    public record Positions(double[] x, double[] y) {
+    }
+
+    public static Positions compute(FlowGraph graph, String rankDir) {
+        return compute(graph.nodeCount(), graph.edgeFrom(), graph.edgeTo(), rankDir);
+    }
+
+    /**
+     * @param nodeCount 노드 수 (인덱스 0..nodeCount-1)
+     * @param edgeFrom  엣지 시작 노드 인덱스
+     * @param edgeTo    엣지 끝 노드 인덱스
+     * @param rankDir   TB, BT, LR, RL
+     */
+    public static Positions compute(int nodeCount, int[] edgeFrom, int[] edgeTo, String rankDir) {
+        int edgeCount = edgeFrom.length;
+
+        // 1) 사이클 제거: DFS 역방향 간선을 뒤집어 DAG 로 만든다
+        boolean[] reversed = findBackEdges(nodeCount, edgeFrom, edgeTo);
+        int[] src = new int[edgeCount];
+        int[] dst = new int[edgeCount];
+        int dagEdges = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            int u = edgeFrom[e];
+            int v = edgeTo[e];
+            if (u == v) continue;
+            src[dagEdges] = reversed[e] ? v : u;
+            dst[dagEdges] = reversed[e] ? u : v;
+            dagEdges++;
+        }
+
+        // 2) 계층 할당: 위상 정렬 순서로 최장 경로
+        int[] layer = assignLayers(nodeCount, src, dst, dagEdges);
+
+        // 3) 한 계층 이상을 건너뛰는 간선에 더미 노드 삽입
+        int dummyCount = 0;
+        for (int e = 0; e < dagEdges; e++) {
+            int span = layer[dst[e]] - layer[src[e]];
+            if (span <= MAX_DUMMY_SPAN) dummyCount += span - 1;
+        }
+        int total = nodeCount + dummyCount;
+        int[] allLayer = Arrays.copyOf(layer, total);
+        int[] segFrom = new int[dagEdges + dummyCount];
+        int[] segTo = new int[dagEdges + dummyCount];
+        int segCount = 0;
+        int next = nodeCount;
+        for (int e = 0; e < dagEdges; e++) {
+            if (layer[dst[e]] - layer[src[e]] > MAX_DUMMY_SPAN) continue;
+            int prev = src[e];
+            for (int l = layer[src[e]] + 1; l < layer[dst[e]]; l++) {
+                allLayer[next] = l;
+                segFrom[segCount] = prev;
+                segTo[segCount++] = next;
+                prev = next++;
+            }
+            segFrom[segCount] = prev;
+            segTo[segCount++] = dst[e];
+        }
+
+        // 4) 계층별 순서: 무게중심 휴리스틱으로 교차 감소
+        int layerCount = 0;
+        for (int v = 0; v < total; v++) {
+            layerCount = Math.max(layerCount, allLayer[v] + 1);
+        }
+        int[][] order = buildLayers(total, allLayer, layerCount);
+        int[] position = new int[total];
+        for (int[] nodes : order) {
+            for (int i = 0; i < nodes.length; i++) position[nodes[i]] = i;
+        }
+        int[][] upper = adjacency(total, segTo, segFrom, segCount);
+        int[][] lower = adjacency(total, segFrom, segTo, segCount);
+        for (int sweep = 0; sweep < SWEEPS; sweep++) {
+            if (sweep % 2 == 0) {
+                for (int l = 1; l < layerCount; l++) reorder(order[l], upper, position);
+            } else {
+                for (int l = layerCount - 2; l >= 0; l--) reorder(order[l], lower, position);
+            }
+        }
+
+        // 5) 좌표 할당: 계층 내 순서를 중앙 정렬
+        boolean horizontal = "LR".equals(rankDir) || "RL".equals(rankDir);
+        boolean inverted = "BT".equals(rankDir) || "RL".equals(rankDir);
+        double crossStep = horizontal ? NODE_HEIGHT + NODE_SEP : NODE_WIDTH + NODE_SEP;
+        double rankStep = horizontal ? NODE_WIDTH + RANK_SEP : NODE_HEIGHT + RANK_SEP;
+
+        double[] x = new double[nodeCount];
+        double[] y = new double[nodeCount];
+        for (int l = 0; l < layerCount; l++) {
+            int[] nodes = order[l];
+            double rank = (inverted ? layerCount - 1 - l : l) * rankStep;
+            for (int i = 0; i < nodes.length; i++) {
+                int v = nodes[i];
+                if (v >= nodeCount) continue;
+                double cross = (i - (nodes.length - 1) / 2.0) * crossStep;
+                x[v] = horizontal ? rank : cross;
+                y[v] = horizontal ? cross : rank;
+            }
+        }
+        return new Positions(x, y);
+    }
+
+    private static boolean[] findBackEdges(int nodeCount, int[] edgeFrom, int[] edgeTo) {
+        int edgeCount = edgeFrom.length;
+        int[] offsets = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) offsets[edgeFrom[e] + 1]++;
+        for (int v = 0; v < nodeCount; v++) offsets[v + 1] += offsets[v];
+        int[] outEdges = new int[edgeCount];
+        int[] fill = Arrays.copyOf(offsets, nodeCount);
+        for (int e = 0; e < edgeCount; e++) outEdges[fill[edgeFrom[e]]++] = e;
+
+        boolean[] reversed = new boolean[edgeCount];
+        byte[] state = new byte[nodeCount]; // 0: 미방문, 1: 스택, 2: 완료
+        int[] stack = new int[nodeCount];
+        int[] cursor = new int[nodeCount];
+        for (int root = 0; root < nodeCount; root++) {
+            if (state[root] != 0) continue;
+            int depth = 0;
+            stack[depth++] = root;
+            state[root] = 1;
+            cursor[root] = offsets[root];
+            while (depth > 0) {
+                int v = stack[depth - 1];
+                if (cursor[v] < offsets[v + 1]) {
+                    int e = outEdges[cursor[v]++];
+                    int w = edgeTo[e];
+                    if (state[w] == 1) {
+                        reversed[e] = true;
+                    } else if (state[w] == 0) {
+                        state[w] = 1;
+                        cursor[w] = offsets[w];
+                        stack[depth++] = w;
+                    }
+                } else {
+                    state[v] = 2;
+                    depth--;
+                }
+            }
+        }
+        return reversed;
+    }
+
+    private static int[] assignLayers(int nodeCount, int[] src, int[] dst, int edgeCount) {
+        int[][] out = adjacency(nodeCount, src, dst, edgeCount);
+        int[] inDegree = new int[nodeCount];
+        for (int e = 0; e < edgeCount; e++) inDegree[dst[e]]++;
+
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < nodeCount; v++) {
+            if (inDegree[v] == 0) queue[tail++] = v;
+        }
+        int[] layer = new int[nodeCount];
+        while (head < tail) {
+            int v = queue[head++];
+            for (int w : out[v]) {
+                layer[w] = Math.max(layer[w], layer[v] + 1);
+                if (--inDegree[w] == 0) queue[tail++] = w;
+            }
+        }
+        return layer;
+    }
+
+    private static int[][] buildLayers(int total, int[] layer, int layerCount) {
+        int[] sizes = new int[layerCount];
+        for (int v = 0; v < total; v++) sizes[layer[v]]++;
+        int[][] order = new int[layerCount][];
+        for (int l = 0; l < layerCount; l++) order[l] = new int[sizes[l]];
+        int[] fill = new int[layerCount];
+        for (int v = 0; v < total; v++) order[layer[v]][fill[layer[v]]++] = v;
+        return order;
+    }
+
+    private static int[][] adjacency(int total, int[] from, int[] to, int edgeCount) {
+        int[] degree = new int[total];
+        for (int e = 0; e < edgeCount; e++) degree[from[e]]++;
+        int[][] adj = new int[total][];
+        for (int v = 0; v < total; v++) adj[v] = new int[degree[v]];
+        int[] fill = new int[total];
+        for (int e = 0; e < edgeCount; e++) adj[from[e]][fill[from[e]]++] = to[e];
+        return adj;
+    }
+
+    private static void reorder(int[] nodes, int[][] neighbours, int[] position) {
+        int size = nodes.length;
+        double[] barycenter = new double[size];
+        Integer[] indices = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            int v = nodes[i];
+            int[] adj = neighbours[v];
+            if (adj.length == 0) {
+                barycenter[i] = position[v];
+            } else {
+                double sum = 0;
+                for (int w : adj) sum += position[w];
+                barycenter[i] = sum / adj.length;
+            }
+            indices[i] = i;
+        }
+        Arrays.sort(indices, (a, b) -> Double.compare(barycenter[a], barycenter[b]));
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) sorted[i] = nodes[indices[i]];
+        for (int i = 0; i < size; i++) {
+            nodes[i] = sorted[i];
+            position[nodes[i]] = i;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.gunho.artifact.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * OpenAPI 문서(Map/List 트리)를 JsonGenerator 로 출력 스트림에 한 번에 기록한다.
+ * 단계마다 문자열을 만들어 부모가 다시 복사하지 않으며, 제어 문자는 JSON 규칙대로 escape 하고
+ * &lt; &gt; &amp; U+2028 U+2029 도 \\uXXXX 로 바꿔 HTML &lt;script&gt; 안에 그대로 넣을 수 있게 한다.
+ */
+public final class OpenApiJsonWriter {
+
+    private static final JsonFactory FACTORY = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .characterEscapes(new HtmlSafeEscapes())
+            .build();
+
+    private OpenApiJsonWriter() {}
+
+    public static void write(Object value, Writer out) throws IOException {
+        try (JsonGenerator gen = FACTORY.createGenerator(out)) {
+            writeValue(gen, value);
+        }
+    }
+
+    public static void write(Object value, OutputStream out) throws IOException {
+        try (JsonGenerator gen = FACTORY.createGenerator(out)) {
+            writeValue(gen, value);
+        }
+    }
+
+    public static String toJson(Object value) {
+        StringWriter out = new StringWriter();
+        try {
+            write(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Map → 객체, Iterable/배열 → 배열, 숫자/불리언은 그대로, 그 밖의 값은 문자열로 기록
+     */
+    public static void writeValue(JsonGenerator gen, Object value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else if (value instanceof String str) {
+            gen.writeString(str);
+        } else if (value instanceof Boolean bool) {
+            gen.writeBoolean(bool);
+        } else if (value instanceof Number number) {
+            gen.writeNumber(number.toString());
+        } else if (value instanceof Map<?, ?> map) {
+            gen.writeStartObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                gen.writeFieldName(String.valueOf(entry.getKey()));
+                writeValue(gen, entry.getValue());
+            }
+            gen.writeEndObject();
+        } else if (value instanceof Iterable<?> iterable) {
+            gen.writeStartArray();
+            for (Object item : iterable) {
+                writeValue(gen, item);
+            }
+            gen.writeEndArray();
+        } else if (value instanceof Object[] array) {
+            gen.writeStartArray();
+            for (Object item : array) {
+                writeValue(gen, item);
+            }
+            gen.writeEndArray();
+        } else {
+            gen.writeString(String.valueOf(value));
+        }
+    }
+
+    private static final class HtmlSafeEscapes extends CharacterEscapes {
+
+        private static final SerializableString LINE_SEPARATOR = new SerializedString("\\u2028");
+        private static final SerializableString PARAGRAPH_SEPARATOR = new SerializedString("\\u2029");
+
+        private final int[] asciiEscapes;
+
+        HtmlSafeEscapes() {
+            asciiEscapes = standardAsciiEscapesForJSON();
+            asciiEscapes['<'] = ESCAPE_STANDARD;
+            asciiEscapes['>'] = ESCAPE_STANDARD;
+            asciiEscapes['&'] = ESCAPE_STANDARD;
+        }
+
+        @Override
+        public int[] getEscapeCodesForAscii() {
+            return asciiEscapes;
+        }
+
+        @Override
+        public SerializableString getEscapeSequence(int ch) {
+            return switch (ch) {
+                case 0x2028 -> LINE_SEPARATOR;
+                case 0x2029 -> PARAGRAPH_SEPARATOR;
+                default -> null;
+            };
+        }
+    }
+}
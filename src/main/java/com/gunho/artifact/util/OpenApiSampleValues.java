@@ -0,0 +1,81 @@
+package com.gunho.artifact.util;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 예시가 없는 스키마로 그럴듯한 샘플 값을 만든다 (목 응답, 부하 테스트 페이로드 공용).
+ * example → default → enum 첫 값 → allOf/oneOf/anyOf 첫 후보 → type/format 순으로 정한다.
+ */
+public final class OpenApiSampleValues {
+
+    private static final int MAX_DEPTH = 8;
+
+    private OpenApiSampleValues() {}
+
+    public static Object sampleOf(Object schema) {
+        return sampleOf(schema, 0);
+    }
+
+    /**
+     * media type 객체(example / examples / schema) 에서 대표 값 하나
+     */
+    public static Object sampleOfMedia(Map<?, ?> media) {
+        if (media.containsKey("example")) {
+            return media.get("example");
+        }
+        if (media.get("examples") instanceof Map<?, ?> examples && !examples.isEmpty()) {
+            Object first = examples.values().iterator().next();
+            return first instanceof Map<?, ?> example ? example.get("value") : first;
+        }
+        return sampleOf(media.get("schema"));
+    }
+
+    private static Object sampleOf(Object schemaObj, int depth) {
+        if (!(schemaObj instanceof Map<?, ?> schema) || depth > MAX_DEPTH) {
+            return null;
+        }
+        if (schema.containsKey("example")) return schema.get("example");
+        if (schema.containsKey("default")) return schema.get("default");
+        if (schema.get("enum") instanceof List<?> values && !values.isEmpty()) return values.get(0);
+        for (String key : List.of("allOf", "oneOf", "anyOf")) {
+            if (schema.get(key) instanceof List<?> candidates && !candidates.isEmpty()) {
+                return sampleOf(candidates.get(0), depth + 1);
+            }
+        }
+
+        String type = schema.get("type") != null ? String.valueOf(schema.get("type")) : (schema.containsKey("properties") ? "object" : "string");
+        return switch (type) {
+            case "object" -> {
+                Map<String, Object> sample = new LinkedHashMap<>();
+                if (schema.get("properties") instanceof Map<?, ?> properties) {
+                    properties.forEach((name, property) -> sample.put(String.valueOf(name), sampleOf(property, depth + 1)));
+                }
+                yield sample;
+            }
+            case "array" -> {
+                Object item = sampleOf(schema.get("items"), depth + 1);
+                yield item != null ? List.of(item) : List.of();
+            }
+            case "integer" -> 1;
+            case "number" -> 1.0;
+            case "boolean" -> true;
+            default -> sampleString(schema.get("format"));
+        };
+    }
+
+    private static String sampleString(Object format) {
+        if (format == null) {
+            return "string";
+        }
+        return switch (String.valueOf(format)) {
+            case "date" -> "2024-01-01";
+            case "date-time" -> "2024-01-01T00:00:00Z";
+            case "email" -> "user@example.com";
+            case "uuid" -> "00000000-0000-0000-0000-000000000000";
+            case "uri", "url" -> "https://example.com";
+            default -> "string";
+        };
+    }
+}
@@ -0,0 +1,256 @@
+package com.gunho.artifact.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * OpenAPI 문서에서 여러 번 등장하는 같은 구조의 객체 스키마를 components/schemas 로 올리고 $ref 로 바꾼다.
+ * 스키마마다 구조 해시(키 순서 무관)를 아래에서부터 한 번씩만 계산하고,
+ * 두 번 이상 나온 객체 스키마(properties 보유)만 대상으로 한다. 입력 트리의 하위 Map 은 수정하지 않고 복사본을 만든다.
+ */
+public final class OpenApiSchemaDeduplicator {
+
+    private static final String REF_PREFIX = "#/components/schemas/";
+    private static final Set<String> NESTED_SCHEMA_KEYS = Set.of("items", "additionalProperties", "not");
+    private static final Set<String> SCHEMA_LIST_KEYS = Set.of("allOf", "oneOf", "anyOf");
+
+    private final Map<Object, String> hashes = new IdentityHashMap<>();
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final Map<String, String> names = new HashMap<>();
+    private final Set<String> usedNames = new HashSet<>();
+    private final Map<String, Object> components = new LinkedHashMap<>();
+    private final MessageDigest digest;
+
+    private OpenApiSchemaDeduplicator() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * root 의 paths 를 $ref 를 쓰는 형태로 바꾸고 components/schemas 를 채운다.
+     *
+     * @return 올려진 스키마 수
+     */
+    @SuppressWarnings("unchecked")
+    public static int apply(Map<String, Object> root) {
+        if (!(root.get("paths") instanceof Map<?, ?> paths)) {
+            return 0;
+        }
+        OpenApiSchemaDeduplicator dedup = new OpenApiSchemaDeduplicator();
+        // 문서에 이미 있는 스키마 이름은 덮어쓰지 않도록 미리 점유
+        if (root.get("components") instanceof Map<?, ?> existing && existing.get("schemas") instanceof Map<?, ?> existingSchemas) {
+            existingSchemas.keySet().forEach(name -> dedup.usedNames.add(String.valueOf(name)));
+        }
+
+        // 1) 요청/응답 본문 스키마의 구조 해시와 등장 횟수
+        List<Object> roots = new ArrayList<>();
+        forEachOperation(paths, operation -> {
+            collectMediaSchemas(operation.get("requestBody"), roots);
+            if (operation.get("responses") instanceof Map<?, ?> responses) {
+                responses.values().forEach(response -> collectMediaSchemas(response, roots));
+            }
+        });
+        roots.forEach(dedup::count);
+        if (dedup.counts.values().stream().noneMatch(count -> count > 1)) {
+            return 0;
+        }
+
+        // 2) 중복 스키마를 $ref 로 교체 (operation 단위로 복사본 생성)
+        forEachOperation(paths, operation -> {
+            Object requestBody = operation.get("requestBody");
+            if (requestBody instanceof Map<?, ?>) {
+                operation.put("requestBody", dedup.rewriteContainer((Map<String, Object>) requestBody));
+            }
+            if (operation.get("responses") instanceof Map<?, ?> responses) {
+                Map<String, Object> rewritten = new LinkedHashMap<>();
+                responses.forEach((status, response) -> rewritten.put(String.valueOf(status),
+                        response instanceof Map<?, ?> map ? dedup.rewriteContainer((Map<String, Object>) map) : response));
+                operation.put("responses", rewritten);
+            }
+        });
+
+        if (!dedup.components.isEmpty()) {
+            Map<String, Object> components = root.get("components") instanceof Map<?, ?> existing
+                    ? new LinkedHashMap<>((Map<String, Object>) existing) : new LinkedHashMap<>();
+            Map<String, Object> schemas = components.get("schemas") instanceof Map<?, ?> existingSchemas
+                    ? new LinkedHashMap<>((Map<String, Object>) existingSchemas) : new LinkedHashMap<>();
+            schemas.putAll(dedup.components);
+            components.put("schemas", schemas);
+            root.put("components", components);
+        }
+        return dedup.components.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void forEachOperation(Map<?, ?> paths, Consumer<Map<String, Object>> action) {
+        for (Object pathItem : paths.values()) {
+            if (!(pathItem instanceof Map<?, ?> methods)) continue;
+            for (Object operation : methods.values()) {
+                if (operation instanceof Map<?, ?>) {
+                    action.accept((Map<String, Object>) operation);
+                }
+            }
+        }
+    }
+
+    private static void collectMediaSchemas(Object container, List<Object> out) {
+        if (!(container instanceof Map<?, ?> map) || !(map.get("content") instanceof Map<?, ?> content)) {
+            return;
+        }
+        for (Object mediaType : content.values()) {
+            if (mediaType instanceof Map<?, ?> media && media.get("schema") instanceof Map<?, ?> schema) {
+                out.add(schema);
+            }
+        }
+    }
+
+    // 스키마 트리를 순회하며 객체 스키마의 등장 횟수 집계
+    private void count(Object schema) {
+        if (!(schema instanceof Map<?, ?> map)) return;
+        // 같은 스키마를 두 번째 만나면 하위는 이미 집계했으므로 내려가지 않는다
+        if (isHoistable(map) && counts.merge(hash(map), 1, Integer::sum) > 1) {
+            return;
+        }
+        forEachChildSchema(map, this::count);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> rewriteContainer(Map<String, Object> container) {
+        if (!(container.get("content") instanceof Map<?, ?> content)) {
+            return container;
+        }
+        Map<String, Object> rewrittenContent = new LinkedHashMap<>();
+        content.forEach((type, mediaType) -> {
+            if (mediaType instanceof Map<?, ?> media && media.get("schema") instanceof Map<?, ?> schema) {
+                Map<String, Object> copy = new LinkedHashMap<>((Map<String, Object>) media);
+                copy.put("schema", rewrite(schema));
+                rewrittenContent.put(String.valueOf(type), copy);
+            } else {
+                rewrittenContent.put(String.valueOf(type), mediaType);
+            }
+        });
+        Map<String, Object> copy = new LinkedHashMap<>(container);
+        copy.put("content", rewrittenContent);
+        return copy;
+    }
+
+    // 하위 스키마부터 교체한 뒤, 자신이 중복 대상이면 component 로 등록하고 $ref 반환
+    private Object rewrite(Object schema) {
+        if (!(schema instanceof Map<?, ?> map)) {
+            return schema;
+        }
+        Map<String, Object> copy = new LinkedHashMap<>();
+        map.forEach((key, value) -> {
+            String name = String.valueOf(key);
+            if ("properties".equals(name) && value instanceof Map<?, ?> properties) {
+                Map<String, Object> rewritten = new LinkedHashMap<>();
+                properties.forEach((property, child) -> rewritten.put(String.valueOf(property), rewrite(child)));
+                copy.put(name, rewritten);
+            } else if (NESTED_SCHEMA_KEYS.contains(name)) {
+                copy.put(name, rewrite(value));
+            } else if (SCHEMA_LIST_KEYS.contains(name) && value instanceof List<?> list) {
+                copy.put(name, list.stream().map(this::rewrite).toList());
+            } else {
+                copy.put(name, value);
+            }
+        });
+
+        if (!isHoistable(map)) {
+            return copy;
+        }
+        String hash = hash(map);
+        if (counts.getOrDefault(hash, 0) < 2) {
+            return copy;
+        }
+        String name = names.computeIfAbsent(hash, h -> {
+            String componentName = uniqueName(map.get("title"));
+            components.put(componentName, copy);
+            return componentName;
+        });
+        return Map.of("$ref", REF_PREFIX + name);
+    }
+
+    private String uniqueName(Object title) {
+        String base = title != null ? String.valueOf(title).replaceAll("[^A-Za-z0-9._-]", "") : "";
+        if (base.isEmpty()) {
+            base = "Schema";
+        }
+        String name = base.equals("Schema") ? base + (usedNames.size() + 1) : base;
+        int suffix = 2;
+        while (!usedNames.add(name)) {
+            name = base + suffix++;
+        }
+        return name;
+    }
+
+    private static boolean isHoistable(Map<?, ?> schema) {
+        return !schema.containsKey("$ref") && schema.get("properties") instanceof Map<?, ?> properties && !properties.isEmpty();
+    }
+
+    private static void forEachChildSchema(Map<?, ?> schema, Consumer<Object> action) {
+        if (schema.get("properties") instanceof Map<?, ?> properties) {
+            properties.values().forEach(action);
+        }
+        for (String key : NESTED_SCHEMA_KEYS) {
+            if (schema.get(key) instanceof Map<?, ?> child) {
+                action.accept(child);
+            }
+        }
+        for (String key : SCHEMA_LIST_KEYS) {
+            if (schema.get(key) instanceof List<?> list) {
+                list.forEach(action);
+            }
+        }
+    }
+
+    /**
+     * 키 순서와 무관한 구조 해시. 하위 Map/List 는 자신의 해시로 대신해 한 번씩만 계산한다.
+     */
+    private String hash(Object node) {
+        if (node instanceof Map<?, ?> || node instanceof List<?>) {
+            String cached = hashes.get(node);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        StringBuilder canonical = new StringBuilder();
+        if (node instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((key, value) -> sorted.put(String.valueOf(key), value));
+            canonical.append('{');
+            sorted.forEach((key, value) -> canonical.append(quote(key)).append(':').append(hash(value)).append(','));
+            canonical.append('}');
+        } else if (node instanceof List<?> list) {
+            canonical.append('[');
+            list.forEach(value -> canonical.append(hash(value)).append(','));
+            canonical.append(']');
+        } else if (node instanceof String str) {
+            return quote(str);
+        } else {
+            return String.valueOf(node);
+        }
+        byte[] bytes = digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+        String hash = '#' + HexFormat.of().formatHex(bytes);
+        hashes.put(node, hash);
+        return hash;
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
@@ -0,0 +1,298 @@
+package com.gunho.artifact.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.gunho.artifact.exception.ArtifactException;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OpenAPI 3 문서(JSON/YAML)를 토큰 단위로 읽어 편집기 엔드포인트 목록으로 바꾼다.
+ * 문서 전체를 트리로 만들지 않고 paths 의 경로 항목 하나씩만 트리로 읽어 변환하므로
+ * 수 MB 문서도 힙 사용량은 가장 큰 경로 항목 + 결과 엔드포인트 정도로 유지된다.
+ * components 는 $ref 를 풀기 위해 보관하고, 순환 참조는 설명이 붙은 object 스키마로 끊는다.
+ * 참조를 펼친 결과는 그대로 저장/컴파일되므로 펼친 노드 수가 한도를 넘는 문서는 거절한다.
+ */
+public final class OpenApiStreamReader {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static final Set<String> HTTP_METHODS = Set.of("get", "put", "post", "delete", "options", "head", "patch", "trace");
+    private static final String COMPONENTS_PREFIX = "#/components/";
+    private static final int SNIFF_LIMIT = 1024;
+    // 참조를 모두 펼친 엔드포인트 트리의 노드 수 한도 (서로를 여러 번 참조하는 스키마는 지수적으로 커진다)
+    static final long MAX_EXPANDED_NODES = 1_000_000;
+
+    private OpenApiStreamReader() {}
+
+    public record Result(String openapi, String title, String version, List<Map<String, Object>> endpoints) {
+    }
+
+    /**
+     * 확장자(.yaml/.yml/.json)로 형식을 정하고, 없으면 첫 글자가 '{' 인지로 판단
+     * @param maxBytes 업로드 한도. YAML 은 SnakeYAML 기본 한도(3MiB) 대신 이 크기까지 읽는다
+     */
+    public static Result read(InputStream in, String filename, long maxBytes) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        String lower = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        boolean yaml = lower.endsWith(".yaml") || lower.endsWith(".yml")
+                || (!lower.endsWith(".json") && !startsWithBrace(buffered));
+        return read(buffered, yaml ? yamlMapper(maxBytes) : JSON_MAPPER);
+    }
+
+    // 코드 포인트 수는 바이트 수를 넘지 않으므로 바이트 한도를 그대로 쓴다
+    private static ObjectMapper yamlMapper(long maxBytes) {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit((int) Math.min(Integer.MAX_VALUE, maxBytes));
+        return new ObjectMapper(YAMLFactory.builder().loaderOptions(options).build());
+    }
+
+    private static Result read(InputStream in, ObjectMapper mapper) throws IOException {
+        String openapi = null;
+        String title = "";
+        String version = "";
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        Map<String, Object> components = Map.of();
+
+        try (JsonParser parser = mapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ArtifactException("OpenAPI 문서 형식이 아닙니다.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "openapi" -> openapi = parser.getValueAsString();
+                    case "swagger" -> throw new ArtifactException("Swagger 2.0 문서는 지원하지 않습니다. OpenAPI 3 문서를 올려주세요.");
+                    case "info" -> {
+                        JsonNode info = parser.readValueAsTree();
+                        title = info.path("title").asText("");
+                        version = info.path("version").asText("");
+                    }
+                    case "paths" -> readPaths(parser, mapper, endpoints);
+                    case "components" -> components = mapper.convertValue(parser.<JsonNode>readValueAsTree(), MAP_TYPE);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        if (openapi == null || !openapi.startsWith("3.")) {
+            throw new ArtifactException("OpenAPI 3 문서만 가져올 수 있습니다.");
+        }
+        if (components != null && !components.isEmpty()) {
+            RefResolver resolver = new RefResolver(components);
+            // 엔드포인트마다 바꿔 끼워 원본 트리는 순서대로 버려지게 한다
+            for (int i = 0; i < endpoints.size(); i++) {
+                endpoints.set(i, resolver.resolveMap(endpoints.get(i)));
+            }
+        }
+        return new Result(openapi, title, version, endpoints);
+    }
+
+    private static void readPaths(JsonParser parser, ObjectMapper mapper, List<Map<String, Object>> endpoints) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String path = parser.currentName();
+            parser.nextToken();
+            JsonNode item = parser.readValueAsTree();
+            if (item != null && item.isObject()) {
+                toEndpoints(path, mapper.convertValue(item, MAP_TYPE), endpoints);
+            }
+        }
+    }
+
+    // 경로 항목 하나 → 메서드별 엔드포인트. 경로 공통 parameters 는 같은 (in, name) 이 없을 때만 붙인다
+    private static void toEndpoints(String path, Map<String, Object> item, List<Map<String, Object>> endpoints) {
+        List<Object> common = item.get("parameters") instanceof List<?> list ? new ArrayList<>(list) : List.of();
+
+        item.forEach((key, value) -> {
+            String method = key.toLowerCase(Locale.ROOT);
+            if (!HTTP_METHODS.contains(method) || !(value instanceof Map<?, ?> operation)) {
+                return;
+            }
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("method", method.toUpperCase(Locale.ROOT));
+            endpoint.put("path", path);
+            endpoint.put("summary", summaryOf(operation));
+            endpoint.put("tags", tagsOf(operation.get("tags")));
+            endpoint.put("params", mergeParameters(common, operation.get("parameters")));
+            if (operation.get("requestBody") instanceof Map<?, ?> requestBody) {
+                endpoint.put("requestBody", requestBody);
+            }
+            endpoint.put("responses", operation.get("responses") instanceof Map<?, ?> responses ? responses : Map.of());
+            endpoints.add(endpoint);
+        });
+    }
+
+    private static String summaryOf(Map<?, ?> operation) {
+        for (String key : List.of("summary", "operationId", "description")) {
+            if (operation.get(key) instanceof String text && !text.isBlank()) {
+                return text;
+            }
+        }
+        return "";
+    }
+
+    private static List<String> tagsOf(Object tags) {
+        List<String> result = new ArrayList<>();
+        if (tags instanceof List<?> list) {
+            for (Object tag : list) {
+                if (tag != null) {
+                    result.add(String.valueOf(tag));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Object> mergeParameters(List<Object> common, Object own) {
+        List<Object> params = own instanceof List<?> list ? new ArrayList<>(list) : new ArrayList<>();
+        if (common.isEmpty()) {
+            return params;
+        }
+        Set<String> keys = new HashSet<>();
+        params.forEach(param -> keys.add(parameterKey(param)));
+        for (Object param : common) {
+            if (keys.add(parameterKey(param))) {
+                params.add(param);
+            }
+        }
+        return params;
+    }
+
+    private static String parameterKey(Object param) {
+        if (param instanceof Map<?, ?> map) {
+            return map.containsKey("$ref") ? String.valueOf(map.get("$ref")) : map.get("in") + ":" + map.get("name");
+        }
+        return String.valueOf(param);
+    }
+
+    private static boolean startsWithBrace(BufferedInputStream in) throws IOException {
+        in.mark(SNIFF_LIMIT);
+        try {
+            for (int i = 0; i < SNIFF_LIMIT; i++) {
+                int b = in.read();
+                if (b < 0) return false;
+                // 공백과 UTF-8 BOM(EF BB BF) 은 건너뛴다
+                if (Character.isWhitespace(b) || b == 0xEF || b == 0xBB || b == 0xBF) continue;
+                return b == '{';
+            }
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * "#/components/..." $ref 를 실제 내용으로 바꾼다. 같은 참조는 한 번만 풀어 재사용한다.
+     * 재사용한 참조도 저장할 때는 다시 펼쳐지므로, 참조마다 펼친 노드 수를 기억해 전체 합으로 한도를 검사한다.
+     */
+    private static final class RefResolver {
+
+        private final Map<String, Object> components;
+        private final Map<String, Expanded> resolved = new HashMap<>();
+        private final Set<String> resolving = new HashSet<>();
+        private long expandedNodes;
+
+        private record Expanded(Object value, long nodes) {
+        }
+
+        RefResolver(Map<String, Object> components) {
+            this.components = components;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> resolveMap(Map<String, Object> node) {
+            Object value = resolve(node);
+            return value instanceof Map<?, ?> map ? (Map<String, Object>) map : node;
+        }
+
+        private Object resolve(Object node) {
+            if (node instanceof Map<?, ?> map && map.get("$ref") instanceof String ref && ref.startsWith(COMPONENTS_PREFIX)) {
+                return resolveRef(ref);
+            }
+            count(1);
+            if (node instanceof Map<?, ?> map) {
+                Map<String, Object> copy = new LinkedHashMap<>();
+                map.forEach((key, value) -> copy.put(String.valueOf(key), resolve(value)));
+                return copy;
+            }
+            if (node instanceof List<?> list) {
+                List<Object> copy = new ArrayList<>(list.size());
+                list.forEach(value -> copy.add(resolve(value)));
+                return copy;
+            }
+            return node;
+        }
+
+        private Object resolveRef(String ref) {
+            Expanded cached = resolved.get(ref);
+            if (cached != null) {
+                count(cached.nodes());
+                return cached.value();
+            }
+            String name = ref.substring(ref.lastIndexOf('/') + 1);
+            if (!resolving.add(ref)) {
+                return placeholder("순환 참조: " + name);
+            }
+            try {
+                Object target = lookup(ref);
+                if (target == null) {
+                    return placeholder("찾을 수 없는 참조: " + ref);
+                }
+                long before = expandedNodes;
+                Object value = resolve(target);
+                resolved.put(ref, new Expanded(value, expandedNodes - before));
+                return value;
+            } finally {
+                resolving.remove(ref);
+            }
+        }
+
+        private void count(long nodes) {
+            expandedNodes += nodes;
+            if (expandedNodes > MAX_EXPANDED_NODES) {
+                throw new ArtifactException("$ref 를 펼친 문서가 너무 큽니다 (노드 %,d개 초과). 같은 스키마를 반복 참조하는 구조를 줄여주세요."
+                        .formatted(MAX_EXPANDED_NODES));
+            }
+        }
+
+        // JSON Pointer (~1 → /, ~0 → ~)
+        private Object lookup(String ref) {
+            Object current = components;
+            for (String segment : ref.substring(COMPONENTS_PREFIX.length()).split("/")) {
+                if (!(current instanceof Map<?, ?> map)) {
+                    return null;
+                }
+                current = map.get(segment.replace("~1", "/").replace("~0", "~"));
+            }
+            return current;
+        }
+
+        private Map<String, Object> placeholder(String description) {
+            count(3);
+            Map<String, Object> schema = new LinkedHashMap<>();
+            schema.put("type", "object");
+            schema.put("description", description);
+            return schema;
+        }
+    }
+}
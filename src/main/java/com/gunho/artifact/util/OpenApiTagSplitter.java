@@ -0,0 +1,134 @@
+package com.gunho.artifact.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 큰 OpenAPI 문서를 태그별 조각으로 나눈다.
+ * 조각에는 해당 태그의 operation 과 그 operation 이 (간접적으로라도) 참조하는 components/schemas 만 들어가고,
+ * 인덱스에는 태그 이름, 조각 파일명, operation 수만 남겨 첫 화면에서 받는 양을 작게 유지한다.
+ */
+public final class OpenApiTagSplitter {
+
+    public static final String DEFAULT_TAG = "default";
+    private static final String REF_PREFIX = "#/components/schemas/";
+
+    private OpenApiTagSplitter() {}
+
+    public record Split(Map<String, Object> index, List<Map<String, Object>> fragments) {
+    }
+
+    /**
+     * 조각 파일명은 태그 등장 순서대로 0.json, 1.json ...
+     */
+    public static Split split(Map<String, Object> root) {
+        Map<String, Map<String, Object>> pathsByTag = new LinkedHashMap<>();
+        Map<String, Integer> operationCounts = new LinkedHashMap<>();
+
+        if (root.get("paths") instanceof Map<?, ?> paths) {
+            paths.forEach((path, item) -> {
+                if (!(item instanceof Map<?, ?> methods)) return;
+                methods.forEach((method, operation) -> {
+                    for (String tag : tagsOf(operation)) {
+                        Map<String, Object> tagPaths = pathsByTag.computeIfAbsent(tag, t -> new LinkedHashMap<>());
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> pathItem = (Map<String, Object>) tagPaths.computeIfAbsent(String.valueOf(path), p -> new LinkedHashMap<>());
+                        pathItem.put(String.valueOf(method), operation);
+                        operationCounts.merge(tag, 1, Integer::sum);
+                    }
+                });
+            });
+        }
+
+        Map<?, ?> schemas = root.get("components") instanceof Map<?, ?> components
+                && components.get("schemas") instanceof Map<?, ?> map ? map : Map.of();
+
+        List<Map<String, Object>> fragments = new ArrayList<>(pathsByTag.size());
+        List<Map<String, Object>> tags = new ArrayList<>(pathsByTag.size());
+        pathsByTag.forEach((tag, tagPaths) -> {
+            String file = fragments.size() + ".json";
+
+            Map<String, Object> fragment = new LinkedHashMap<>();
+            fragment.put("openapi", root.get("openapi"));
+            fragment.put("info", root.get("info"));
+            fragment.put("paths", tagPaths);
+            Map<String, Object> usedSchemas = referencedSchemas(tagPaths, schemas);
+            if (!usedSchemas.isEmpty()) {
+                fragment.put("components", Map.of("schemas", usedSchemas));
+            }
+            fragments.add(fragment);
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", tag);
+            entry.put("file", file);
+            entry.put("operations", operationCounts.get(tag));
+            tags.add(entry);
+        });
+
+        Map<String, Object> index = new LinkedHashMap<>();
+        index.put("openapi", root.get("openapi"));
+        index.put("info", root.get("info"));
+        index.put("tags", tags);
+        return new Split(index, fragments);
+    }
+
+    private static Set<String> tagsOf(Object operation) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (operation instanceof Map<?, ?> map && map.get("tags") instanceof List<?> list) {
+            for (Object tag : list) {
+                if (tag != null && !String.valueOf(tag).isBlank()) {
+                    tags.add(String.valueOf(tag));
+                }
+            }
+        }
+        if (tags.isEmpty()) {
+            tags.add(DEFAULT_TAG);
+        }
+        return tags;
+    }
+
+    // 조각이 참조하는 스키마를 $ref 를 따라가며 모은다 (원본 순서 유지)
+    private static Map<String, Object> referencedSchemas(Object node, Map<?, ?> schemas) {
+        if (schemas.isEmpty()) {
+            return Map.of();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            Object current = pending.pop();
+            if (current instanceof Map<?, ?> map) {
+                if (map.get("$ref") instanceof String ref && ref.startsWith(REF_PREFIX)) {
+                    String name = ref.substring(REF_PREFIX.length());
+                    Object schema = schemas.get(name);
+                    if (schema != null && names.add(name)) {
+                        pending.push(schema);
+                    }
+                }
+                map.values().forEach(child -> pushContainer(pending, child));
+            } else if (current instanceof List<?> list) {
+                list.forEach(child -> pushContainer(pending, child));
+            }
+        }
+
+        Map<String, Object> used = new LinkedHashMap<>();
+        schemas.forEach((name, schema) -> {
+            if (names.contains(String.valueOf(name))) {
+                used.put(String.valueOf(name), schema);
+            }
+        });
+        return used;
+    }
+
+    private static void pushContainer(Deque<Object> pending, Object value) {
+        if (value instanceof Map<?, ?> || value instanceof List<?>) {
+            pending.push(value);
+        }
+    }
+}
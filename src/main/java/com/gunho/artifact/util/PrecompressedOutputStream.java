@@ -0,0 +1,59 @@
+package com.gunho.artifact.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 원본 파일과 같은 이름의 .gz 파일을 한 번의 쓰기로 함께 만든다.
+ * 정적 리소스 핸들러(EncodedResourceResolver)가 Accept-Encoding 에 따라
+ * 미리 압축된 파일을 그대로 내려주므로 요청마다 압축 CPU 를 쓰지 않는다.
+ */
+public class PrecompressedOutputStream extends OutputStream {
+
+    public static final String GZIP_EXTENSION = ".gz";
+
+    private final OutputStream raw;
+    private final OutputStream gzip;
+
+    public PrecompressedOutputStream(OutputStream raw, OutputStream gzipTarget) throws IOException {
+        this.raw = new BufferedOutputStream(raw);
+        this.gzip = new GZIPOutputStream(gzipTarget, 8192) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        };
+    }
+
+    public static Path gzipPath(Path path) {
+        return path.resolveSibling(path.getFileName() + GZIP_EXTENSION);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        raw.write(b);
+        gzip.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        raw.write(b, off, len);
+        gzip.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        raw.flush();
+        gzip.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (raw; gzip) {
+            flush();
+        }
+    }
+}
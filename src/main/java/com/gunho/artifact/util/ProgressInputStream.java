@@ -0,0 +1,70 @@
+package com.gunho.artifact.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * 읽은 바이트 수를 세면서 step 바이트를 넘길 때마다 listener 에 누적값을 알린다.
+ * 큰 파일을 파싱할 때 진행률 보고용이며, 매 read 마다 알리지 않아 보고 비용이 파일 크기에 비례하지 않는다.
+ */
+public class ProgressInputStream extends FilterInputStream {
+
+    private final long step;
+    private final LongConsumer listener;
+    private long bytesRead;
+    private long nextReport;
+
+    public ProgressInputStream(InputStream in, long step, LongConsumer listener) {
+        super(in);
+        this.step = Math.max(1, step);
+        this.listener = listener;
+        this.nextReport = this.step;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            advance(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            advance(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            advance(skipped);
+        }
+        return skipped;
+    }
+
+    // mark/reset 을 지원하면 다시 읽은 바이트가 중복 집계되므로 막는다
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    private void advance(long n) {
+        bytesRead += n;
+        if (bytesRead >= nextReport) {
+            nextReport = bytesRead + step;
+            listener.accept(bytesRead);
+        }
+    }
+}
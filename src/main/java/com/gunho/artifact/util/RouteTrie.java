@@ -0,0 +1,101 @@
+package com.gunho.artifact.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 경로 템플릿(/orders/{id}/items) 을 세그먼트 단위 트라이로 컴파일해 둔다.
+ * 조회 비용은 요청 경로의 세그먼트 수에만 비례하고 등록된 라우트 수와는 무관하다.
+ * 같은 위치에서는 고정 세그먼트를 변수 세그먼트보다 먼저 시도한다 (/orders/latest 가 /orders/{id} 보다 우선).
+ */
+public final class RouteTrie<T> {
+
+    private final Node<T> root = new Node<>();
+
+    public record Match<T>(T value, String template, Map<String, String> variables) {
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> literals = new HashMap<>();
+        private Node<T> variable;
+        // 메서드별 (템플릿, 값). 같은 노드라도 변수 이름은 메서드마다 다를 수 있다
+        private final Map<String, Match<T>> methods = new HashMap<>();
+    }
+
+    /**
+     * @return 같은 메서드/템플릿이 이미 있으면 false (먼저 등록된 값 유지)
+     */
+    public boolean add(String method, String template, T value) {
+        Node<T> node = root;
+        for (String segment : segments(template)) {
+            if (isVariable(segment)) {
+                if (node.variable == null) {
+                    node.variable = new Node<>();
+                }
+                node = node.variable;
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node<>());
+            }
+        }
+        return node.methods.putIfAbsent(method.toUpperCase(Locale.ROOT), new Match<>(value, template, Map.of())) == null;
+    }
+
+    public Match<T> match(String method, String path) {
+        String[] parts = segments(path);
+        String key = method.toUpperCase(Locale.ROOT);
+        Node<T> node = find(root, parts, 0, key);
+        if (node == null) {
+            return null;
+        }
+        Match<T> route = node.methods.get(key);
+        Map<String, String> variables = new LinkedHashMap<>();
+        String[] templateParts = segments(route.template());
+        for (int i = 0; i < templateParts.length; i++) {
+            if (isVariable(templateParts[i])) {
+                variables.put(templateParts[i].substring(1, templateParts[i].length() - 1), parts[i]);
+            }
+        }
+        return new Match<>(route.value(), route.template(), variables);
+    }
+
+    /**
+     * 경로는 있지만 메서드가 없는 경우(405) 판단용
+     */
+    public boolean hasPath(String path) {
+        return find(root, segments(path), 0, null) != null;
+    }
+
+    // method 가 null 이면 아무 메서드나 등록된 노드를 찾는다
+    private static <T> Node<T> find(Node<T> node, String[] parts, int index, String method) {
+        if (index == parts.length) {
+            boolean matched = method == null ? !node.methods.isEmpty() : node.methods.containsKey(method);
+            return matched ? node : null;
+        }
+        Node<T> literal = node.literals.get(parts[index]);
+        if (literal != null) {
+            Node<T> found = find(literal, parts, index + 1, method);
+            if (found != null) {
+                return found;
+            }
+        }
+        return node.variable != null ? find(node.variable, parts, index + 1, method) : null;
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    private static String[] segments(String path) {
+        if (path == null) {
+            return new String[0];
+        }
+        String trimmed = path.strip();
+        int start = 0;
+        int end = trimmed.length();
+        while (start < end && trimmed.charAt(start) == '/') start++;
+        while (end > start && trimmed.charAt(end - 1) == '/') end--;
+        return start == end ? new String[0] : trimmed.substring(start, end).split("/+");
+    }
+}
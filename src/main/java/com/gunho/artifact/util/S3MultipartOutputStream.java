@@ -0,0 +1,177 @@
+package com.gunho.artifact.util;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 쓰는 내용을 파트 크기만큼만 버퍼에 모아 S3 멀티파트 업로드로 올린다.
+ * 버퍼는 작게 시작해 필요할 때 두 배씩 파트 크기까지 늘리므로, 대부분인 작은 객체(청크/태그 JSON)는
+ * 파트 하나만큼 메모리를 잡지 않는다. 전체가 한 파트보다 작으면 PutObject 한 번으로 끝낸다.
+ * 객체는 close() 에서 업로드를 완료해야 보이므로 중간에 실패하면 abort() 로 버리면 된다.
+ */
+public class S3MultipartOutputStream extends OutputStream {
+
+    // S3 는 마지막 파트를 제외하고 5MiB 이상이어야 한다
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+    static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final S3Client client;
+    private final String bucket;
+    private final String key;
+    private final String contentType;
+    private final String contentEncoding;
+    private final int partSize;
+    private final List<CompletedPart> parts = new ArrayList<>();
+
+    private byte[] buffer;
+    private int position;
+    private long size;
+    private String uploadId;
+    private boolean closed;
+
+    public S3MultipartOutputStream(S3Client client, String bucket, String key, String contentType,
+                                   String contentEncoding, int partSize) {
+        this.client = client;
+        this.bucket = bucket;
+        this.key = key;
+        this.contentType = contentType;
+        this.contentEncoding = contentEncoding;
+        this.partSize = Math.max(MIN_PART_SIZE, partSize);
+        this.buffer = new byte[INITIAL_BUFFER_SIZE];
+    }
+
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (position == buffer.length) {
+            makeRoom();
+        }
+        buffer[position++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (position == buffer.length) {
+                makeRoom();
+            }
+            int n = Math.min(len, buffer.length - position);
+            System.arraycopy(b, off, buffer, position, n);
+            position += n;
+            off += n;
+            len -= n;
+            size += n;
+        }
+    }
+
+    /**
+     * 남은 버퍼를 올리고 업로드를 완료한다. 이 시점에 객체가 한 번에 교체된다
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (uploadId == null) {
+            client.putObject(PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .contentType(contentType)
+                            .contentEncoding(contentEncoding)
+                            .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, position), position));
+            return;
+        }
+        if (position > 0) {
+            uploadPart();
+        }
+        client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build());
+    }
+
+    /**
+     * 완료하지 않은 업로드를 버린다. 올린 파트가 버킷에 과금되는 채로 남지 않게 한다
+     */
+    public void abort() {
+        closed = true;
+        if (uploadId == null) {
+            return;
+        }
+        try {
+            client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (SdkException ignored) {
+            // 버킷 수명 주기 규칙(AbortIncompleteMultipartUpload)이 나중에 정리한다
+        }
+    }
+
+    // 버퍼가 파트 크기보다 작으면 늘리고, 이미 파트 크기면 한 파트로 올린다
+    private void makeRoom() {
+        if (buffer.length < partSize) {
+            buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffer.length * 2, partSize));
+        } else {
+            uploadPart();
+        }
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    private void uploadPart() {
+        if (uploadId == null) {
+            uploadId = client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .contentType(contentType)
+                    .contentEncoding(contentEncoding)
+                    .build()).uploadId();
+        }
+        int partNumber = parts.size() + 1;
+        String eTag = client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) position)
+                        .build(),
+                RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, position), position)).eTag();
+        parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+        position = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("이미 닫힌 업로드입니다: " + key);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+if (typeof cytoscape !== 'undefined' && typeof dagre !== 'undefined') {
+    cytoscape.use(cytoscapeDagre);
+}
+
+// 산출물 HTML 이 window.FLOWCHART 에 데이터/스타일/레이아웃 값을 넣어둔다
+const flowchart = window.FLOWCHART || {};
+
+let cy = null;
+
+// 청크 모드일 때만 값이 채워짐 (클러스터 상세 파일 경로)
+const chunkBaseUrl = flowchart.chunkBaseUrl || '';
+const loadedChunks = new Set();
+
+document.addEventListener('DOMContentLoaded', function() {
+    setTimeout(initializeCytoscape, 200);
+});
+
+function initializeCytoscape() {
+    try {
+        const elements = flowchart.elements;
+        const cytoscapeStyles = flowchart.styles;
+
+        if (!elements || elements.length === 0) {
+            throw new Error('엘리먼트 데이터가 비어있습니다.');
+        }
+
+        cy = cytoscape({
+            container: document.getElementById('cy'),
+            elements: elements,
+            style: cytoscapeStyles,
+            layout: {
+                name: flowchart.initialLayout || 'dagre',
+                rankDir: flowchart.rankDir,
+                spacingFactor: 1.5,
+                nodeDimensionsIncludeLabels: true,
+                animate: true,
+                animationDuration: 500
+            },
+            minZoom: 0.3,
+            maxZoom: 3,
+            wheelSensitivity: 0.2
+        });
+
+        // 이벤트 리스너
+        cy.on('tap', 'node', function(evt) {
+            console.log('노드 클릭:', evt.target.data());
+        });
+
+        cy.on('tap', 'edge', function(evt) {
+            console.log('엣지 클릭:', evt.target.data());
+        });
+
+        if (chunkBaseUrl) {
+            enableChunkLoading();
+        }
+
+        if (flowchart.simulation) {
+            renderLatencyPanel(flowchart.simulation);
+        }
+
+        // 로딩 완료
+        document.getElementById('loading').style.display = 'none';
+        document.getElementById('cy').style.display = 'block';
+
+        setTimeout(() => {
+            if (cy) {
+                cy.fit();
+                cy.center();
+            }
+        }, 100);
+
+    } catch (error) {
+        console.error('Cytoscape 초기화 오류:', error);
+        document.getElementById('loading').textContent =
+            '플로우차트 렌더링 중 오류가 발생했습니다: ' + error.message;
+    }
+}
+
+// 지연 시간 시뮬레이션 요약 (노드/엣지 색은 heat 스타일로 표시됨)
+function renderLatencyPanel(simulation) {
+    const panel = document.getElementById('latency-panel');
+    if (!panel) return;
+
+    const rows = [
+        ['p50', simulation.p50 + ' ms'],
+        ['p90', simulation.p90 + ' ms'],
+        ['p99', simulation.p99 + ' ms'],
+        ['평균', simulation.mean + ' ms'],
+        ['반복', simulation.iterations.toLocaleString()]
+    ];
+    const title = document.createElement('h2');
+    title.textContent = '종단 간 지연 시뮬레이션';
+    const list = document.createElement('dl');
+    rows.forEach(([name, value]) => {
+        const dt = document.createElement('dt');
+        dt.textContent = name;
+        const dd = document.createElement('dd');
+        dd.textContent = value;
+        list.append(dt, dd);
+    });
+
+    const path = document.createElement('div');
+    path.className = 'critical-path';
+    path.textContent = '임계 경로 (' + Math.round(simulation.criticalPathShare * 100) + '%): '
+        + simulation.criticalPath.join(' → ');
+    panel.append(title, list, path);
+
+    if (simulation.excludedNodes && simulation.excludedNodes.length > 0) {
+        const excluded = document.createElement('div');
+        excluded.textContent = '순환 구간 제외: ' + simulation.excludedNodes.join(', ');
+        panel.append(excluded);
+    }
+
+    const legend = document.createElement('div');
+    legend.className = 'legend';
+    legend.title = '임계 경로에 포함된 비율 (0% → 100%)';
+    panel.append(legend);
+    panel.style.display = 'block';
+}
+
+// 클러스터 노드를 누르면 해당 청크를 받아와 펼친다
+function enableChunkLoading() {
+    cy.style()
+        .selector('node[type = "cluster"]')
+        .style({
+            'border-style': 'dashed',
+            'shape': 'roundrectangle'
+        })
+        .selector(':parent')
+        .style({
+            'text-valign': 'top',
+            'background-opacity': 0.08
+        })
+        .update();
+
+    cy.on('tap', 'node[type = "cluster"]', function(evt) {
+        loadChunk(evt.target.data('chunk'));
+    });
+}
+
+async function loadChunk(chunk) {
+    if (loadedChunks.has(chunk)) return;
+    loadedChunks.add(chunk);
+
+    try {
+        const response = await fetch(chunkBaseUrl + chunk + '.json');
+        if (!response.ok) {
+            throw new Error('HTTP ' + response.status);
+        }
+        const data = await response.json();
+
+        cy.add(data.nodes);
+        cy.add(data.edges);
+        // 다른 클러스터와 잇는 엣지는 양 끝 노드가 모두 로드된 경우에만 추가
+        data.boundary.forEach(edge => {
+            if (cy.getElementById(edge.data.id).empty()
+                && cy.getElementById(edge.data.source).nonempty()
+                && cy.getElementById(edge.data.target).nonempty()) {
+                cy.add(edge);
+            }
+        });
+
+        cy.layout({
+            name: 'dagre',
+            rankDir: flowchart.rankDir,
+            spacingFactor: 1.2,
+            nodeDimensionsIncludeLabels: true,
+            animate: false
+        }).run();
+    } catch (error) {
+        loadedChunks.delete(chunk);
+        console.error('청크 로드 오류:', error);
+    }
+}
+
+function changeLayout(layoutName) {
+    if (!cy) return;
+
+    document.querySelectorAll('.controls .btn').forEach(btn => btn.classList.remove('active'));
+    event.target.closest('.btn').classList.add('active');
+
+    const layoutOptions = {
+        dagre: {
+            name: 'dagre',
+            rankDir: flowchart.rankDir,
+            spacingFactor: 1.5,
+            nodeDimensionsIncludeLabels: true,
+            animate: true,
+            animationDuration: 500
+        },
+        hierarchy: {
+            name: 'dagre',
+            rankDir: 'TB',
+            spacingFactor: 2.0,
+            animate: true,
+            animationDuration: 500
+        },
+        breadthfirst: {
+            name: 'breadthfirst',
+            directed: true,
+            spacingFactor: 1.75,
+            animate: true,
+            animationDuration: 500
+        },
+        circle: {
+            name: 'circle',
+            spacingFactor: 1.5,
+            animate: true,
+            animationDuration: 500
+        }
+    };
+
+    const layout = layoutOptions[layoutName] || layoutOptions.dagre;
+    cy.layout(layout).run();
+
+    setTimeout(() => {
+        if (cy) {
+            cy.fit();
+            cy.center();
+        }
+    }, layout.animationDuration + 100);
+}
+
+function fitGraph() {
+    if (cy) {
+        cy.animate({
+            fit: {
+                eles: cy.elements(),
+                padding: 50
+            },
+            center: {
+                eles: cy.elements()
+            }
+        }, {
+            duration: 500
+        });
+    }
+}
@@ -117,7 +117,9 @@ class ApiFlowManager {
                     id: node.id || `NODE_${++this.nodeCounter}`,
                     label: node.label || 'Untitled Node',
                     shape: node.shape || 'service',
-                    class: node.class || ''
+                    class: node.class || '',
+                    // 지연 시간 분포 (숫자 ms 또는 {p50, p99} 등) - 시뮬레이션용
+                    ...(node.latency !== undefined ? { latency: node.latency } : {})
                 }));
                 this.nodeCounter = Math.max(this.nodeCounter, this.nodes.length);
             }
@@ -128,7 +130,8 @@ class ApiFlowManager {
                     from: edge.from,
                     to: edge.to,
                     label: edge.label || '',
-                    style: edge.style || { type: 'normal' }
+                    style: edge.style || { type: 'normal' },
+                    ...(edge.latency !== undefined ? { latency: edge.latency } : {})
                 }));
                 this.edgeCounter = Math.max(this.edgeCounter, this.edges.length);
             }
@@ -810,6 +813,12 @@ class ApiFlowManager {
             request.flowIdx = this.flowIdx;
         }
 
+        // 노드/엣지에 latency 가 하나라도 있으면 지연 시간 히트맵을 함께 생성
+        const hasLatency = (items) => Array.isArray(items) && items.some(item => item && item.latency !== undefined);
+        if (hasLatency(request.nodes) || hasLatency(request.edges)) {
+            request.latencySimulation = true;
+        }
+
         const {data} = await axios.post('/api/generate/flowchart-url', request);
         if (!data.success || !data.data?.url) {
             NotificationManager.showError(data.message || '다운로드 URL을 가져오지 못했습니다.');
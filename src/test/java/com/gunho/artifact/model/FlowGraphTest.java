@@ -0,0 +1,95 @@
+package com.gunho.artifact.model;
+
+import com.gunho.artifact.exception.ArtifactException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlowGraphTest {
+
+    @Test
+    void indexesNodesInRequestOrderAndBuildsAdjacency() {
+        FlowGraph graph = FlowGraph.of(nodes("a", "b", "c"), List.of(edge("a", "b"), edge("a", "c"), edge("b", "c")));
+
+        assertThat(graph.nodeCount()).isEqualTo(3);
+        assertThat(graph.indexOf("c")).isEqualTo(2);
+        assertThat(graph.indexOf("missing")).isEqualTo(-1);
+        assertThat(graph.edgeFrom()).containsExactly(0, 0, 1);
+        assertThat(graph.edgeTo()).containsExactly(1, 2, 2);
+        assertThat(graph.outOffsets()).containsExactly(0, 2, 3, 3);
+        assertThat(graph.outTargets()).containsExactly(1, 2, 2);
+        assertThat(graph.hasCycle()).isFalse();
+        assertThat(graph.topologicalOrder()).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void dropsDuplicateEdgesAndKeepsOriginalPositions() {
+        List<Map<String, Object>> edges = List.of(edge("a", "b"), edge("a", "b"), edge("b", "a"));
+        FlowGraph graph = FlowGraph.of(nodes("a", "b"), edges);
+
+        assertThat(graph.edgeCount()).isEqualTo(2);
+        assertThat(graph.duplicateEdgeCount()).isEqualTo(1);
+        assertThat(graph.edgeIndex()).containsExactly(0, 2);
+        assertThat(graph.keptEdges(edges)).containsExactly(edges.get(0), edges.get(2));
+    }
+
+    @Test
+    void keptEdgesReturnsSameListWithoutDuplicates() {
+        List<Map<String, Object>> edges = List.of(edge("a", "b"));
+
+        assertThat(FlowGraph.of(nodes("a", "b"), edges).keptEdges(edges)).isSameAs(edges);
+    }
+
+    @Test
+    void detectsCycleAndOrdersNodesOutsideIt() {
+        FlowGraph graph = FlowGraph.of(nodes("start", "x", "y"), List.of(edge("start", "x"), edge("x", "y"), edge("y", "x")));
+
+        assertThat(graph.hasCycle()).isTrue();
+        assertThat(graph.topologicalOrder()).containsExactly(0);
+    }
+
+    @Test
+    void reportsBlankDuplicateAndDanglingReferences() {
+        List<Map<String, Object>> nodes = new ArrayList<>(nodes("a", "a"));
+        nodes.add(Map.of("id", " "));
+
+        assertThatThrownBy(() -> FlowGraph.of(nodes, List.of(edge("a", "ghost"))))
+                .isInstanceOf(ArtifactException.class)
+                .hasMessageContaining("중복된 노드 id 입니다: a")
+                .hasMessageContaining("3번째 노드의 id 가 비어있습니다.")
+                .hasMessageContaining("a → ghost");
+    }
+
+    @Test
+    void limitsReportedErrors() {
+        List<Map<String, Object>> edges = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            edges.add(edge("a", "missing" + i));
+        }
+
+        assertThatThrownBy(() -> FlowGraph.of(nodes("a"), edges))
+                .isInstanceOf(ArtifactException.class)
+                .satisfies(e -> assertThat(e.getMessage().split("\n")).hasSize(5));
+    }
+
+    private static List<Map<String, Object>> nodes(String... ids) {
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        for (String id : ids) {
+            nodes.add(Map.of("id", id));
+        }
+        return nodes;
+    }
+
+    private static Map<String, Object> edge(String from, String to) {
+        Map<String, Object> edge = new HashMap<>();
+        edge.put("from", from);
+        edge.put("to", to);
+        return edge;
+    }
+}
@@ -0,0 +1,106 @@
+package com.gunho.artifact.service;
+
+import com.gunho.artifact.repository.ArtifactFileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 살아 있는 접두사 바로 뒤에 알려진 파일 이름이 올 때만 남기는지, 페이지의 후보만 DB 에서 찾는지 확인한다
+ */
+class ArtifactFileReconcilerTest {
+
+    private static final Set<String> LIVE = Set.of("u/flowcharts/1/a.b", "u/docs/2/api");
+
+    @Test
+    void keepsKnownSidecarsOfLiveArtifact() {
+        assertThat(ArtifactFileReconciler.isLive("u/flowcharts/1/a.b.html", LIVE)).isTrue();
+        assertThat(ArtifactFileReconciler.isLive("u/flowcharts/1/a.b.html.gz", LIVE)).isTrue();
+        assertThat(ArtifactFileReconciler.isLive("u/flowcharts/1/a.b.layout.json", LIVE)).isTrue();
+        assertThat(ArtifactFileReconciler.isLive("u/flowcharts/1/a.b.chunks/3.json.gz", LIVE)).isTrue();
+        assertThat(ArtifactFileReconciler.isLive("u/docs/2/api.tags/index.json", LIVE)).isTrue();
+    }
+
+    @Test
+    void dropsFilesOfRenamedArtifactSharingThePrefix() {
+        // 제목이 "a.b.old" 였던 이전 파일과 알 수 없는 이름은 살아 있는 "a.b" 에 묶이지 않는다
+        assertThat(ArtifactFileReconciler.isLive("u/flowcharts/1/a.b.old.html", LIVE)).isFalse();
+        assertThat(ArtifactFileReconciler.isLive("u/flowcharts/1/a.b.old.chunks/0.json", LIVE)).isFalse();
+        assertThat(ArtifactFileReconciler.isLive("u/flowcharts/1/a.b.bak", LIVE)).isFalse();
+        assertThat(ArtifactFileReconciler.isLive("u/flowcharts/1/a.html", LIVE)).isFalse();
+        assertThat(ArtifactFileReconciler.isLive("u/docs/2/api2.html", LIVE)).isFalse();
+    }
+
+    @Test
+    void reconcileLooksUpOnlyThePageCandidates() throws Exception {
+        long old = System.currentTimeMillis() - 24 * 60 * 60 * 1000L;
+        ArtifactStorage storage = mock(ArtifactStorage.class);
+        when(storage.list(any(), anyInt())).thenReturn(List.of(
+                new ArtifactStorage.StoredObject("u/flowcharts/1/a.b.chunks/0.json", 10, old),
+                new ArtifactStorage.StoredObject("u/flowcharts/1/a.b.html", 10, old),
+                new ArtifactStorage.StoredObject("u/flowcharts/1/a.b.old.html", 10, old),
+                new ArtifactStorage.StoredObject("u/flowcharts/2/gone.html", 10, System.currentTimeMillis()),
+                new ArtifactStorage.StoredObject("u/flowcharts/3/gone.html", 10, old)));
+        ArtifactFileRepository files = mock(ArtifactFileRepository.class);
+        // 예전 행은 소스 트리 기준 경로로 남아 있다
+        when(files.findByRelativePathInAndStoredNameIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(storedPath("src/main/resources/static/artifact/u/flowcharts/1", "a.b")));
+        ArtifactVersionStore versions = mock(ArtifactVersionStore.class);
+        when(versions.referencedChunkKeys(anyCollection())).thenReturn(Set.of());
+        RedisService redis = mock(RedisService.class);
+        when(redis.setIfAbsent(anyString(), any(), any())).thenReturn(true);
+        when(redis.get(anyString(), eq(String.class))).thenReturn(Optional.empty());
+        when(redis.deleteIfEquals(anyString(), any())).thenReturn(true);
+
+        ArtifactFileReconciler reconciler = new ArtifactFileReconciler(storage, files, versions, redis, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(reconciler, "enabled", true);
+        ReflectionTestUtils.setField(reconciler, "pageSize", 500);
+        ReflectionTestUtils.setField(reconciler, "pagesPerRun", 1);
+        ReflectionTestUtils.setField(reconciler, "deletesPerSecond", 1000);
+        ReflectionTestUtils.setField(reconciler, "graceMinutes", 60L);
+        reconciler.init();
+        reconciler.reconcile();
+
+        verify(storage).delete("u/flowcharts/1/a.b.old.html");
+        verify(storage).delete("u/flowcharts/3/gone.html");
+        verify(storage, never()).delete("u/flowcharts/1/a.b.html");
+        verify(storage, never()).delete("u/flowcharts/1/a.b.chunks/0.json");
+        verify(storage, never()).delete("u/flowcharts/2/gone.html");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> names = ArgumentCaptor.forClass(Collection.class);
+        verify(files).findByRelativePathInAndStoredNameIn(anyCollection(), names.capture());
+        assertThat(names.getValue()).containsExactlyInAnyOrder("a.b", "a.b.old", "gone");
+    }
+
+    private static ArtifactFileRepository.StoredPath storedPath(String relativePath, String storedName) {
+        return new ArtifactFileRepository.StoredPath() {
+            @Override
+            public String getRelativePath() {
+                return relativePath;
+            }
+
+            @Override
+            public String getStoredName() {
+                return storedName;
+            }
+        };
+    }
+}
@@ -0,0 +1,262 @@
+package com.gunho.artifact.service;
+
+import com.gunho.artifact.entity.ArtifactFile;
+import com.gunho.artifact.entity.ArtifactVersion;
+import com.gunho.artifact.repository.ArtifactChunkRepository;
+import com.gunho.artifact.repository.ArtifactFileRepository;
+import com.gunho.artifact.repository.ArtifactVersionRepository;
+import com.gunho.artifact.util.ChunkingOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 저장소는 임시 디렉터리, artifact_chunk/artifact_version 은 메모리로 두고
+ * 버전 복원, 같은 내용 재생성, 오래된 버전 정리, 롤백 시 참조 해제, 동시 생성 시 잠금 순서를 확인한다
+ */
+class ArtifactVersionStoreTest {
+
+    @TempDir
+    Path temp;
+
+    private final Map<String, Integer> refs = new ConcurrentHashMap<>();
+    private final List<ArtifactVersion> versions = new ArrayList<>();
+    private final ArtifactFile file = ArtifactFile.builder().idx(1L).build();
+    private LocalArtifactStorage storage;
+    private ArtifactVersionStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalArtifactStorage();
+        ReflectionTestUtils.setField(storage, "rootLocation", temp.resolve("artifact").toString());
+        ReflectionTestUtils.setField(storage, "legacyLocation", "");
+        storage.init();
+
+        ArtifactChunkRepository chunks = mock(ArtifactChunkRepository.class);
+        when(chunks.pin(anyString(), anyInt())).thenAnswer(invocation ->
+                refs.merge(invocation.getArgument(0), 1, Integer::sum) == 1 ? 1 : 2);
+        when(chunks.release(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> hashes = invocation.getArgument(0);
+            hashes.forEach(hash -> refs.merge(hash, -1, Integer::sum));
+            return hashes.size();
+        });
+
+        ArtifactVersionRepository versionRepository = mock(ArtifactVersionRepository.class);
+        when(versionRepository.save(any(ArtifactVersion.class))).thenAnswer(invocation -> {
+            versions.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        doAnswer(invocation -> versions.remove((ArtifactVersion) invocation.getArgument(0)))
+                .when(versionRepository).delete(any(ArtifactVersion.class));
+        when(versionRepository.findLatestForUpdate(anyLong())).thenAnswer(invocation -> versions.stream()
+                .max(Comparator.comparing(ArtifactVersion::getVersion))
+                .map(ArtifactVersionStoreTest::latest));
+        when(versionRepository.findByFileIdxAndVersionLessThanEqual(anyLong(), anyInt())).thenAnswer(invocation -> {
+            int upTo = invocation.getArgument(1);
+            return versions.stream().filter(version -> version.getVersion() <= upTo).toList();
+        });
+
+        ArtifactFileRepository fileRepository = mock(ArtifactFileRepository.class);
+        when(fileRepository.findForUpdate(anyLong())).thenReturn(Optional.of(file));
+
+        store = new ArtifactVersionStore(storage, chunks, versionRepository, fileRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "maxVersions", 2);
+        store.init();
+    }
+
+    @Test
+    void openRestoresCommittedBytes() throws IOException {
+        byte[] data = random(200_000, 1);
+
+        generate(data);
+
+        assertThat(versions).hasSize(1);
+        assertThat(read(versions.get(0))).isEqualTo(data);
+        assertThat(versions.get(0).getSize()).isEqualTo(data.length);
+        assertThat(versions.get(0).getStoredBytes()).isEqualTo(data.length);
+    }
+
+    @Test
+    void unchangedRegenerationKeepsOneVersionAndReleasesPins() throws IOException {
+        byte[] data = random(200_000, 2);
+
+        generate(data);
+        generate(data);
+
+        assertThat(versions).hasSize(1);
+        assertThat(refs.values()).isNotEmpty().allMatch(count -> count == 1);
+    }
+
+    @Test
+    void trimmingOldVersionsReleasesTheirChunks() throws IOException {
+        generate(random(100_000, 3));
+        Map<String, Integer> firstRefs = new HashMap<>(refs);
+        generate(random(100_000, 4));
+        generate(random(100_000, 5));
+
+        assertThat(versions).extracting(ArtifactVersion::getVersion).containsExactly(2, 3);
+        firstRefs.keySet().forEach(hash -> assertThat(refs.get(hash)).isZero());
+        assertThat(read(versions.get(1))).isEqualTo(random(100_000, 5));
+    }
+
+    @Test
+    void rollbackReleasesPinnedChunks() throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ArtifactVersionStore.Draft draft = store.draft();
+            draft.capture(out -> out.write(random(100_000, 6))).writeTo(new ByteArrayOutputStream());
+            assertThat(refs.values()).isNotEmpty().allMatch(count -> count == 1);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(refs.values()).allMatch(count -> count == 0);
+        assertThat(versions).isEmpty();
+    }
+
+    @Test
+    void concurrentGenerationsDoNotDeadlockOnCrossedChunkStripes() throws Exception {
+        byte[] first = random(100_000, 7);
+        byte[] second = random(100_000, 8);
+        // 각 산출물 키가 상대 쪽 첫 청크 키와 같은 잠금 줄무늬에 걸리게 고른다
+        String firstKey = keyOnStripeOf(chunkKeys(second).get(0), "u/docs/1/a");
+        String secondKey = keyOnStripeOf(chunkKeys(first).get(0), "u/docs/2/b");
+        CyclicBarrier bothLocked = new CyclicBarrier(2);
+
+        // 교착되면 스레드가 끝나지 않으므로 데몬으로 띄운다
+        ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<Long> a = executor.submit(() -> write(firstKey, first, bothLocked));
+            Future<Long> b = executor.submit(() -> write(secondKey, second, bothLocked));
+
+            assertThat(a.get(10, TimeUnit.SECONDS)).isEqualTo(first.length);
+            assertThat(b.get(10, TimeUnit.SECONDS)).isEqualTo(second.length);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(read(storage, firstKey)).isEqualTo(first);
+        assertThat(read(storage, secondKey)).isEqualTo(second);
+    }
+
+    // 생성기처럼 산출물 키 잠금을 잡은 채 기록지로 청크를 쓴다. 두 쓰기가 모두 잠금을 잡은 뒤에 내용을 쓴다
+    private long write(String key, byte[] data, CyclicBarrier bothLocked) throws IOException {
+        ArtifactVersionStore.Draft draft = store.draft();
+        return storage.writeWithGzip(key, draft.capture(out -> {
+            try {
+                bothLocked.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+            out.write(data);
+        }));
+    }
+
+    private String keyOnStripeOf(String chunkKey, String prefix) {
+        ReentrantLock target = storage.lockFor(chunkKey);
+        for (int i = 0; ; i++) {
+            String key = prefix + i + ".html";
+            if (storage.lockFor(key) == target) {
+                return key;
+            }
+        }
+    }
+
+    private static List<String> chunkKeys(byte[] data) throws Exception {
+        List<String> keys = new ArrayList<>();
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        try (ChunkingOutputStream out = new ChunkingOutputStream(OutputStream.nullOutputStream(), (buffer, length) -> {
+            sha256.update(buffer, 0, length);
+            String hex = HexFormat.of().formatHex(sha256.digest());
+            keys.add("_cas/chunks/" + hex.substring(0, 2) + "/" + hex);
+        })) {
+            out.write(data);
+        }
+        return keys;
+    }
+
+    private static byte[] read(LocalArtifactStorage storage, String key) throws IOException {
+        try (InputStream in = storage.read(key)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private void generate(byte[] data) throws IOException {
+        ArtifactVersionStore.Draft draft = store.draft();
+        draft.capture(out -> out.write(data)).writeTo(new ByteArrayOutputStream());
+        store.commit(file, draft);
+    }
+
+    private byte[] read(ArtifactVersion version) throws IOException {
+        try (InputStream in = store.open(version)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static ArtifactVersionRepository.Latest latest(ArtifactVersion version) {
+        return new ArtifactVersionRepository.Latest() {
+            @Override
+            public Integer getVersion() {
+                return version.getVersion();
+            }
+
+            @Override
+            public String getDigest() {
+                return version.getDigest();
+            }
+        };
+    }
+
+    private static byte[] random(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,150 @@
+package com.gunho.artifact.service;
+
+import com.gunho.artifact.dto.LoadTestDto;
+import com.gunho.artifact.exception.ArtifactException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 로컬 스텁 서버(com.sun.net.httpserver)로 가중치 배분, 오류 집계, 백분위수를 확인한다
+ */
+class LoadTestDriverTest {
+
+    private static final byte[] RESPONSE = "{}".getBytes();
+
+    private final LoadTestDriver driver = new LoadTestDriver();
+    private final Map<String, AtomicLong> hits = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private URI baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(exchange.getRequestMethod() + " " + path, key -> new AtomicLong()).incrementAndGet();
+            int status = switch (path) {
+                case "/fail" -> 500;
+                case "/missing" -> 404;
+                default -> 200;
+            };
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(status, RESPONSE.length);
+            exchange.getResponseBody().write(RESPONSE);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        ((java.util.concurrent.ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    @Test
+    void splitsRequestsByWeight() throws Exception {
+        List<LoadTestDto.Step> steps = List.of(
+                step("heavy", "GET", "/heavy", 3),
+                step("light", "GET", "/light", 1),
+                step("off", "GET", "/off", 0));
+
+        LoadTestDto.Report report = driver.run(baseUrl, steps, 4, Duration.ofSeconds(30), 800);
+
+        assertThat(report.requests()).isEqualTo(800);
+        assertThat(report.steps()).extracting(LoadTestDto.StepReport::name).containsExactly("heavy", "light");
+        long heavy = report.steps().get(0).requests();
+        assertThat(heavy + report.steps().get(1).requests()).isEqualTo(800);
+        // 기대값 600, 표준편차 약 12
+        assertThat(heavy).isBetween(540L, 660L);
+        assertThat(hits.get("GET /heavy").get()).isEqualTo(heavy);
+        assertThat(hits).doesNotContainKey("GET /off");
+    }
+
+    @Test
+    void countsServerErrorsAndConnectionFailuresOnly() throws Exception {
+        List<LoadTestDto.Step> steps = List.of(
+                step("ok", "POST", "/ok", 1),
+                step("fail", "GET", "/fail", 1),
+                step("missing", "GET", "/missing", 1));
+
+        LoadTestDto.Report report = driver.run(baseUrl, steps, 2, Duration.ofSeconds(30), 300);
+
+        Map<String, LoadTestDto.StepReport> byName = byName(report);
+        assertThat(byName.get("ok").errors()).isZero();
+        assertThat(byName.get("missing").errors()).isZero();
+        assertThat(byName.get("missing").statuses()).containsOnlyKeys(404);
+        assertThat(byName.get("fail").errors()).isEqualTo(byName.get("fail").requests());
+        assertThat(byName.get("fail").statuses()).containsOnlyKeys(500);
+        assertThat(report.errors()).isEqualTo(byName.get("fail").requests());
+
+        server.stop(0);
+        LoadTestDto.Report refused = driver.run(baseUrl, List.of(step("ok", "GET", "/ok", 1)), 1, Duration.ofSeconds(30), 3);
+        assertThat(refused.errors()).isEqualTo(3);
+        assertThat(refused.steps().get(0).statuses()).containsOnlyKeys(-1);
+    }
+
+    @Test
+    void sendsEncodedPathsAndQueries() throws Exception {
+        LoadTestDto.Report report = driver.run(baseUrl,
+                List.of(step("search", "GET", "/search%20items/%EA%B0%80?q=a%26b", 1)), 1, Duration.ofSeconds(30), 2);
+
+        assertThat(report.errors()).isZero();
+        assertThat(hits.get("GET /search items/가").get()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsUnencodedPaths() {
+        assertThatThrownBy(() -> LoadTestDriver.toUri(baseUrl, "/raw path/{id}"))
+                .isInstanceOf(ArtifactException.class)
+                .hasMessageContaining("/raw path/{id}");
+        assertThat(LoadTestDriver.toUri(URI.create("http://localhost:8080/api/"), "/orders/1?x=1"))
+                .isEqualTo(URI.create("http://localhost:8080/api/orders/1?x=1"));
+    }
+
+    @Test
+    void usesNearestRankPercentiles() {
+        long[] sorted = new long[100];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = (i + 1) * 1_000_000L; // 1ms .. 100ms
+        }
+
+        LoadTestDto.Latency latency = LoadTestDriver.latency(sorted);
+
+        assertThat(latency.p50()).isEqualTo(50.0);
+        assertThat(latency.p90()).isEqualTo(90.0);
+        assertThat(latency.p99()).isEqualTo(99.0);
+        assertThat(latency.max()).isEqualTo(100.0);
+        assertThat(latency.mean()).isEqualTo(50.5);
+        assertThat(LoadTestDriver.latency(new long[]{7_000_000L}).p99()).isEqualTo(7.0);
+        assertThat(LoadTestDriver.latency(new long[0]).max()).isZero();
+    }
+
+    private static LoadTestDto.Step step(String name, String method, String path, int weight) {
+        return new LoadTestDto.Step(name, method, path, Map.of(), null, weight);
+    }
+
+    private static Map<String, LoadTestDto.StepReport> byName(LoadTestDto.Report report) {
+        Map<String, LoadTestDto.StepReport> byName = new ConcurrentHashMap<>();
+        report.steps().forEach(step -> byName.put(step.name(), step));
+        return byName;
+    }
+}
@@ -0,0 +1,85 @@
+package com.gunho.artifact.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 이전 위치 산출물 복사와, 다른 키의 삭제가 상위 디렉터리를 지우는 중에도 쓰기가 성공하는지 확인한다
+ */
+class LocalArtifactStorageTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    void copiesLegacyArtifactsOnce() throws Exception {
+        Path legacy = temp.resolve("legacy");
+        Files.createDirectories(legacy.resolve("user/flowcharts/1"));
+        Files.writeString(legacy.resolve("user/flowcharts/1/흐름 A.html"), "legacy");
+        Files.createDirectories(legacy.resolve("user/docs/2"));
+        Files.writeString(legacy.resolve("user/docs/2/api.html"), "legacy docs");
+
+        LocalArtifactStorage storage = storage(legacy);
+        storage.write("user/docs/2/api.html", out -> out.write("regenerated".getBytes(StandardCharsets.UTF_8)));
+        Files.delete(temp.resolve("artifact.legacy-migrated"));
+
+        // 다시 시작: 이미 있는 파일은 덮어쓰지 않는다
+        storage = storage(legacy);
+        assertThat(read(storage, "user/flowcharts/1/흐름 A.html")).isEqualTo("legacy");
+        assertThat(read(storage, "user/docs/2/api.html")).isEqualTo("regenerated");
+
+        // 표시 파일이 있으면 다시 복사하지 않는다
+        storage.delete("user/flowcharts/1/흐름 A.html");
+        storage = storage(legacy);
+        assertThat(storage.exists("user/flowcharts/1/흐름 A.html")).isFalse();
+        assertThat(Files.exists(legacy.resolve("user/flowcharts/1/흐름 A.html"))).isTrue();
+    }
+
+    @Test
+    void writesSurviveConcurrentPruningOfEmptyParents() throws Exception {
+        LocalArtifactStorage storage = storage(null);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 200; i++) {
+                String dir = "user/flowcharts/" + i;
+                storage.write(dir + "/old.html", out -> out.write('x'));
+                // old.html 삭제가 비게 된 dir 을 지우는 동안 같은 dir 의 다른 키를 쓴다
+                Future<?> delete = executor.submit(() -> {
+                    storage.delete(dir + "/old.html");
+                    return null;
+                });
+                Future<Long> write = executor.submit(() -> storage.write(dir + "/new.html", out -> out.write('y')));
+                delete.get();
+                assertThat(write.get()).isEqualTo(1);
+                assertThat(storage.exists(dir + "/new.html")).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LocalArtifactStorage storage(Path legacy) throws IOException {
+        LocalArtifactStorage storage = new LocalArtifactStorage();
+        ReflectionTestUtils.setField(storage, "rootLocation", temp.resolve("artifact").toString());
+        ReflectionTestUtils.setField(storage, "legacyLocation", legacy != null ? legacy.toString() : "");
+        storage.init();
+        return storage;
+    }
+
+    private static String read(LocalArtifactStorage storage, String key) throws IOException {
+        try (var in = storage.read(key)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.gunho.artifact.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gunho.artifact.dto.ApiDocsRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 병렬로 변환해도 순차 변환과 같은 paths(키 순서 포함)가 나오는지 확인한다
+ */
+class OpenApiSpecCompilerTest {
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE"};
+    private static final String[] TAGS = {"orders", "users", "billing", "admin", "search"};
+
+    private final OpenApiSpecCompiler compiler = new OpenApiSpecCompiler(new ObjectMapper(), null);
+
+    @AfterEach
+    void tearDown() {
+        compiler.shutdown();
+    }
+
+    @Test
+    void parallelCompileMatchesSequential() {
+        List<ApiDocsRequest.Endpoint> endpoints = endpoints(2_000);
+
+        ReflectionTestUtils.setField(compiler, "parallelThreshold", Integer.MAX_VALUE);
+        Map<String, Object> sequential = compiler.compile("spec", "1.0", endpoints);
+        ReflectionTestUtils.setField(compiler, "parallelThreshold", 1);
+        Map<String, Object> parallel = compiler.compile("spec", "1.0", endpoints);
+
+        Map<String, Object> sequentialPaths = paths(sequential);
+        Map<String, Object> parallelPaths = paths(parallel);
+        assertThat(parallelPaths).isEqualTo(sequentialPaths);
+        assertThat(new ArrayList<>(parallelPaths.keySet())).isEqualTo(new ArrayList<>(sequentialPaths.keySet()));
+        sequentialPaths.forEach((path, item) -> assertThat(new ArrayList<>(paths(parallelPaths, path).keySet()))
+                .isEqualTo(new ArrayList<>(((Map<?, ?>) item).keySet())));
+        // 공통 스키마 이름(components)도 입력 순서로 정해져야 한다
+        assertThat(parallel).isEqualTo(sequential);
+    }
+
+    private static List<ApiDocsRequest.Endpoint> endpoints(int count) {
+        List<ApiDocsRequest.Endpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ApiDocsRequest.Endpoint ep = new ApiDocsRequest.Endpoint();
+            // 같은 경로에 여러 메서드가 붙도록 경로는 메서드 수만큼 반복
+            ep.setMethod(METHODS[i % METHODS.length]);
+            ep.setPath(i % 97 == 0 ? null : "/" + TAGS[i % TAGS.length] + "/" + (i / METHODS.length) + "/{id}");
+            ep.setSummary("endpoint " + i);
+            ep.setTags(List.of(TAGS[i % TAGS.length], TAGS[(i + 2) % TAGS.length]));
+            ep.setParams(List.of(Map.of("in", "path", "name", "id", "required", true)));
+            if (i % 3 == 0) {
+                Map<String, Object> schema = new LinkedHashMap<>();
+                schema.put("type", "object");
+                schema.put("properties", Map.of("name", Map.of("type", "string"), "kind", Map.of("type", "string", "example", TAGS[i % TAGS.length])));
+                ep.setRequestBody(Map.of("content", Map.of("application/json", Map.of("schema", schema))));
+            }
+            endpoints.add(ep);
+        }
+        return endpoints;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> paths(Map<String, Object> root) {
+        return (Map<String, Object>) root.get("paths");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> paths(Map<String, Object> paths, String path) {
+        return (Map<String, Object>) paths.get(path);
+    }
+}
@@ -0,0 +1,126 @@
+package com.gunho.artifact.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * MinIO 컨테이너를 S3 대역으로 써서 멀티파트 스트리밍 업로드와 실패 시 원자성을 확인한다.
+ * Docker 가 없으면 건너뛴다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class S3ArtifactStorageTest {
+
+    private static final int PART_SIZE_MB = 5;
+
+    @Container
+    static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-12-18T13-15-44Z");
+
+    private S3ArtifactStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new S3ArtifactStorage();
+        ReflectionTestUtils.setField(storage, "endpoint", MINIO.getS3URL());
+        ReflectionTestUtils.setField(storage, "region", "us-east-1");
+        ReflectionTestUtils.setField(storage, "bucket", "artifact-test");
+        ReflectionTestUtils.setField(storage, "accessKey", MINIO.getUserName());
+        ReflectionTestUtils.setField(storage, "secretKey", MINIO.getPassword());
+        ReflectionTestUtils.setField(storage, "pathStyle", true);
+        ReflectionTestUtils.setField(storage, "prefix", "it");
+        ReflectionTestUtils.setField(storage, "partSizeMb", PART_SIZE_MB);
+        ReflectionTestUtils.setField(storage, "createBucket", true);
+        ReflectionTestUtils.setField(storage, "downloadMode", "presigned");
+        ReflectionTestUtils.setField(storage, "presignTtlSeconds", 60L);
+        storage.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+    }
+
+    @Test
+    void streamsLargeOutputInPartsAndReadsRanges() throws Exception {
+        byte[] payload = new byte[PART_SIZE_MB * 1024 * 1024 * 2 + 12_345]; // 파트 3개
+        new Random(42).nextBytes(payload);
+
+        long size = storage.write("u/flowcharts/1/big.bin", out -> {
+            for (int off = 0; off < payload.length; off += 64 * 1024) {
+                out.write(payload, off, Math.min(64 * 1024, payload.length - off));
+            }
+        });
+
+        assertThat(size).isEqualTo(payload.length);
+        assertThat(readAll("u/flowcharts/1/big.bin")).isEqualTo(payload);
+
+        ByteArrayOutputStream range = new ByteArrayOutputStream();
+        storage.copyRange("u/flowcharts/1/big.bin", 1000, 500, range);
+        assertThat(range.toByteArray()).isEqualTo(Arrays.copyOfRange(payload, 1000, 1500));
+        assertThat(storage.resource("u/flowcharts/1/big.bin").contentLength()).isEqualTo(payload.length);
+        assertThat(storage.downloadUrl("u/flowcharts/1/big.bin", "big.bin", true)).isPresent();
+    }
+
+    @Test
+    void writesGzipSiblingInSamePass() throws Exception {
+        String html = "<html>" + "흐름도 ".repeat(1000) + "</html>";
+
+        long size = storage.writeWithGzip("u/docs/2/문서.html", out -> out.write(html.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(size).isEqualTo(html.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(new String(readAll("u/docs/2/문서.html"), StandardCharsets.UTF_8)).isEqualTo(html);
+        try (InputStream in = new GZIPInputStream(storage.read("u/docs/2/문서.html.gz"))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(html);
+        }
+    }
+
+    @Test
+    void failedWriteKeepsPreviousObject() throws Exception {
+        storage.write("u/flowcharts/3/t.html", out -> out.write("v1".getBytes(StandardCharsets.UTF_8)));
+
+        byte[] part = new byte[PART_SIZE_MB * 1024 * 1024];
+        assertThatThrownBy(() -> storage.write("u/flowcharts/3/t.html", out -> {
+            out.write(part); // 첫 파트 업로드까지 진행된 뒤 실패
+            out.write(part);
+            throw new IOException("render failed");
+        })).hasMessage("render failed");
+
+        assertThat(new String(readAll("u/flowcharts/3/t.html"), StandardCharsets.UTF_8)).isEqualTo("v1");
+    }
+
+    @Test
+    void retainDeletesStaleChunksWithTheirGzip() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            storage.writeWithGzip("u/flowcharts/4/t.chunks/" + i + ".json", out -> out.write("{}".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        storage.retain("u/flowcharts/4/t.chunks", Set.of("u/flowcharts/4/t.chunks/0.json"));
+
+        assertThat(storage.exists("u/flowcharts/4/t.chunks/0.json")).isTrue();
+        assertThat(storage.exists("u/flowcharts/4/t.chunks/0.json.gz")).isTrue();
+        assertThat(storage.exists("u/flowcharts/4/t.chunks/1.json")).isFalse();
+        assertThat(storage.exists("u/flowcharts/4/t.chunks/2.json.gz")).isFalse();
+    }
+
+    private byte[] readAll(String key) throws IOException {
+        try (InputStream in = storage.read(key)) {
+            return in.readAllBytes();
+        }
+    }
+}
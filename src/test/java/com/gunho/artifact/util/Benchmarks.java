@@ -0,0 +1,44 @@
+package com.gunho.artifact.util;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 수동 벤치마크 공용 측정기. 워밍업 후 같은 스레드에서 반복 실행해 1회당 시간/할당량을 잰다
+ */
+final class Benchmarks {
+
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    private Benchmarks() {
+    }
+
+    static Measurement measure(Task task) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            task.run();
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measurement(elapsed / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    @FunctionalInterface
+    interface Task {
+        void run() throws IOException;
+    }
+
+    record Measurement(long nanosPerOp, long bytesPerOp) {
+        @Override
+        public String toString() {
+            return "%.2f ms, %d KB/op".formatted(nanosPerOp / 1_000_000.0, bytesPerOp / 1024);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.gunho.artifact.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 경계가 내용으로 정해져서 중간에 바이트가 끼어들어도 나머지 청크가 그대로인지 확인한다
+ */
+class ChunkingOutputStreamTest {
+
+    @Test
+    void passesBytesThroughAndChunksCoverInput() throws IOException {
+        byte[] data = random(300_000, 1);
+        ByteArrayOutputStream passed = new ByteArrayOutputStream();
+
+        List<byte[]> chunks = chunk(data, passed);
+
+        assertThat(passed.toByteArray()).isEqualTo(data);
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (byte[] chunk : chunks) {
+            joined.write(chunk);
+        }
+        assertThat(joined.toByteArray()).isEqualTo(data);
+        // 마지막 청크를 빼면 모두 최소~최대 크기 안에 있다
+        for (byte[] chunk : chunks.subList(0, chunks.size() - 1)) {
+            assertThat(chunk.length).isBetween(ChunkingOutputStream.MIN_SIZE, ChunkingOutputStream.MAX_SIZE);
+        }
+    }
+
+    @Test
+    void insertionOnlyChangesNearbyChunks() throws IOException {
+        byte[] original = random(400_000, 2);
+        byte[] inserted = new byte[original.length + 10];
+        int at = original.length / 2;
+        System.arraycopy(original, 0, inserted, 0, at);
+        Arrays.fill(inserted, at, at + 10, (byte) 'x');
+        System.arraycopy(original, at, inserted, at + 10, original.length - at);
+
+        List<byte[]> before = chunk(original, new ByteArrayOutputStream());
+        List<byte[]> after = chunk(inserted, new ByteArrayOutputStream());
+
+        Set<String> beforeKeys = keys(before);
+        long changed = after.stream().filter(chunk -> !beforeKeys.contains(Arrays.toString(chunk))).count();
+        assertThat(before.size()).isGreaterThan(20);
+        assertThat(changed).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void finishIsIdempotent() throws IOException {
+        List<byte[]> chunks = new ArrayList<>();
+        ChunkingOutputStream out = new ChunkingOutputStream(new ByteArrayOutputStream(), (buffer, length) -> chunks.add(Arrays.copyOf(buffer, length)));
+        out.write(new byte[]{1, 2, 3});
+        out.finish();
+        out.close();
+
+        assertThat(chunks).hasSize(1);
+    }
+
+    private static List<byte[]> chunk(byte[] data, ByteArrayOutputStream passed) throws IOException {
+        List<byte[]> chunks = new ArrayList<>();
+        ChunkingOutputStream out = new ChunkingOutputStream(passed, (buffer, length) -> chunks.add(Arrays.copyOf(buffer, length)));
+        // 쓰기 단위가 경계에 영향을 주지 않아야 하므로 크기를 섞어 쓴다
+        Random sizes = new Random(7);
+        for (int off = 0; off < data.length; ) {
+            int n = Math.min(data.length - off, 1 + sizes.nextInt(5000));
+            out.write(data, off, n);
+            off += n;
+        }
+        out.finish();
+        return chunks;
+    }
+
+    private static Set<String> keys(List<byte[]> chunks) {
+        Set<String> keys = new HashSet<>();
+        chunks.forEach(chunk -> keys.add(Arrays.toString(chunk)));
+        return keys;
+    }
+
+    private static byte[] random(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
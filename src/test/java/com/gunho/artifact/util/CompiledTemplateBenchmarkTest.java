@@ -0,0 +1,39 @@
+package com.gunho.artifact.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Writer;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * flowchart-template.html 을 10k 노드 플로우로 렌더링할 때
+ * String.replace 체인과 CompiledTemplate 의 지연/할당량 비교.
+ * 수동 실행 전용: ./gradlew test -Pbenchmark --tests '*BenchmarkTest'
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CompiledTemplateBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CompiledTemplateBenchmarkTest.class);
+    private static final int NODE_COUNT = 10_000;
+
+    @Test
+    void compiledTemplateAllocatesLessThanReplaceChain() throws Exception {
+        String source = CompiledTemplateTest.flowchartTemplate();
+        CompiledTemplate template = CompiledTemplate.compile(source);
+        Map<String, String> values = CompiledTemplateTest.sampleValues(NODE_COUNT);
+        Map<String, CompiledTemplate.Slot> slots = CompiledTemplateTest.slots(values);
+
+        Benchmarks.Measurement legacy = Benchmarks.measure(() -> CompiledTemplateTest.replaceChain(source, values));
+        Benchmarks.Measurement streaming = Benchmarks.measure(() -> template.render(Writer.nullWriter(), slots));
+
+        log.info("[flowchart-template {} nodes] replace-chain: {} | compiled: {}", NODE_COUNT, legacy, streaming);
+        assertThat(streaming.bytesPerOp()).isLessThan(legacy.bytesPerOp());
+    }
+}
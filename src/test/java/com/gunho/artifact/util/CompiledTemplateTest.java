@@ -0,0 +1,110 @@
+package com.gunho.artifact.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CompiledTemplate 렌더링 결과가 기존 String.replace 체인과 같은지 확인한다
+ */
+class CompiledTemplateTest {
+
+    @Test
+    void rendersFlowchartTemplateLikeReplaceChain() throws Exception {
+        String source = flowchartTemplate();
+        Map<String, String> values = sampleValues(200);
+
+        StringWriter compiled = new StringWriter();
+        CompiledTemplate.compile(source).render(compiled, slots(values));
+
+        assertThat(compiled.toString()).isEqualTo(replaceChain(source, values));
+    }
+
+    @Test
+    void copiesValuesVerbatim() {
+        CompiledTemplate template = CompiledTemplate.compile("<h1>{{TITLE}}</h1>{{LAYOUT}}");
+
+        String rendered = template.render(slots(Map.of("TITLE", "$1 \\n \"quoted\"", "LAYOUT", "")));
+
+        assertThat(rendered).isEqualTo("<h1>$1 \\n \"quoted\"</h1>");
+    }
+
+    @Test
+    void leavesUnknownPlaceholdersAsIs() {
+        CompiledTemplate template = CompiledTemplate.compile("{{A}}-{{B}}-{{A}}");
+
+        assertThat(template.render(slots(Map.of("A", "x")))).isEqualTo("x-{{B}}-x");
+        assertThat(template.placeholders()).containsExactly("A", "B", "A");
+    }
+
+    static String flowchartTemplate() throws IOException {
+        return StreamUtils.copyToString(
+                new ClassPathResource("templates/common/flowchart-template.html").getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    static Map<String, CompiledTemplate.Slot> slots(Map<String, String> values) {
+        Map<String, CompiledTemplate.Slot> slots = new LinkedHashMap<>();
+        values.forEach((key, value) -> slots.put(key, CompiledTemplate.Slot.text(value)));
+        return slots;
+    }
+
+    // 기존 FlowChartGenerator 의 치환 방식
+    static String replaceChain(String template, Map<String, String> values) {
+        return template
+                .replace("{{TITLE}}", values.get("TITLE"))
+                .replace("{{THEME}}", values.get("THEME"))
+                .replace("{{FONT_FAMILY}}", values.get("FONT_FAMILY"))
+                .replace("{{THEME_STYLES}}", values.get("THEME_STYLES"))
+                .replace("{{ELEMENTS_JSON}}", values.get("ELEMENTS_JSON"))
+                .replace("{{CYTOSCAPE_STYLES}}", values.get("CYTOSCAPE_STYLES"))
+                .replace("{{LAYOUT}}", values.get("LAYOUT"));
+    }
+
+    static Map<String, String> sampleValues(int nodeCount) {
+        StringBuilder elements = new StringBuilder("[\n");
+        for (int i = 0; i < nodeCount; i++) {
+            elements.append("""
+                    {
+                      "data": {
+                        "id": "n%d",
+                        "label": "Service %d",
+                        "type": "service",
+                        "nodeClass": ""
+                      }
+                    },
+                    """.formatted(i, i));
+        }
+        for (int i = 1; i < nodeCount; i++) {
+            elements.append("""
+                    {
+                      "data": {
+                        "id": "n%d-n%d",
+                        "source": "n%d",
+                        "target": "n%d",
+                        "label": "call",
+                        "styleType": ""
+                      }
+                    }%s
+                    """.formatted(i - 1, i, i - 1, i, i < nodeCount - 1 ? "," : ""));
+        }
+        elements.append("]");
+
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("TITLE", "Benchmark Flow");
+        values.put("THEME", "default");
+        values.put("FONT_FAMILY", "Inter,+Pretendard,+sans-serif");
+        values.put("THEME_STYLES", ".theme-default { --primary-color: #E3F2FD; }");
+        values.put("ELEMENTS_JSON", elements.toString());
+        values.put("CYTOSCAPE_STYLES", "[{\"selector\": \"node\", \"style\": {}}]");
+        values.put("LAYOUT", "LR");
+        return values;
+    }
+}
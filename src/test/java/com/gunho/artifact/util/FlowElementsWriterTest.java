@@ -0,0 +1,158 @@
+package com.gunho.artifact.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FlowElementsWriter 출력이 기존 String.format + escapeJson 결과와 바이트 단위로 같은지 확인한다
+ */
+class FlowElementsWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void matchesLegacyOutputWithEscapedCharacters() throws Exception {
+        List<Map<String, Object>> nodes = List.of(
+                node("a\"1", "say \"hi\"\\ 줄\n바꿈", "decision", "highlight"),
+                node("b\\2", "탭\t캐리지\r끝", null, null),
+                node("c", null, "process", "x\"y"));
+        List<Map<String, Object>> edges = List.of(
+                edge("a\"1", "b\\2", "호출 \"sync\"\n", "dashed"),
+                edge("b\\2", "c", null, null));
+
+        assertThat(write(nodes, edges)).isEqualTo(legacyElementsJson(nodes, edges));
+    }
+
+    @Test
+    void matchesLegacyOutputForEdgeCases() throws Exception {
+        List<Map<String, Object>> single = List.of(node("only", "노드", null, null));
+
+        assertThat(write(List.of(), List.of())).isEqualTo(legacyElementsJson(List.of(), List.of()));
+        assertThat(write(single, List.of())).isEqualTo(legacyElementsJson(single, List.of()));
+    }
+
+    @Test
+    void writesPositionsAndHeatAsValidJson() throws Exception {
+        List<Map<String, Object>> nodes = List.of(node("a", "A", null, null), node("b", "B", null, null));
+        List<Map<String, Object>> edges = List.of(edge("a", "b", "call", null));
+        LayeredLayout.Positions positions = new LayeredLayout.Positions(new double[]{10.4, 20.6}, new double[]{0, 100});
+
+        StringWriter out = new StringWriter();
+        FlowElementsWriter.write(nodes, edges, positions, new double[]{1.0, 0.12345}, new double[]{0.5}, out);
+
+        JsonNode json = objectMapper.readTree(out.toString());
+        assertThat(json.get(0).get("position").get("x").asLong()).isEqualTo(10);
+        assertThat(json.get(1).get("position").get("x").asLong()).isEqualTo(21);
+        assertThat(json.get(1).get("data").get("heat").asDouble()).isEqualTo(0.123);
+        assertThat(json.get(2).get("data").get("heat").asDouble()).isEqualTo(0.5);
+    }
+
+    private static String write(List<Map<String, Object>> nodes, List<Map<String, Object>> edges) throws Exception {
+        StringWriter out = new StringWriter();
+        FlowElementsWriter.write(nodes, edges, out);
+        return out.toString();
+    }
+
+    private static Map<String, Object> node(String id, String label, String shape, String nodeClass) {
+        Map<String, Object> node = new HashMap<>();
+        node.put("id", id);
+        if (label != null) node.put("label", label);
+        if (shape != null) node.put("shape", shape);
+        if (nodeClass != null) node.put("class", nodeClass);
+        return node;
+    }
+
+    private static Map<String, Object> edge(String from, String to, String label, String styleType) {
+        Map<String, Object> edge = new HashMap<>();
+        edge.put("from", from);
+        edge.put("to", to);
+        if (label != null) edge.put("label", label);
+        if (styleType != null) edge.put("style", Map.of("type", styleType));
+        return edge;
+    }
+
+    // 기존 FlowChartGenerator.generateElementsJson
+    @SuppressWarnings("unchecked")
+    private static String legacyElementsJson(List<Map<String, Object>> nodes, List<Map<String, Object>> edges) {
+        StringBuilder json = new StringBuilder("[\n");
+
+        for (int i = 0; i < nodes.size(); i++) {
+            Map<String, Object> node = nodes.get(i);
+            String id = (String) node.get("id");
+            String label = String.valueOf(node.getOrDefault("label", id));
+            String shape = String.valueOf(node.getOrDefault("shape", "process"));
+            String nodeClass = String.valueOf(node.getOrDefault("class", ""));
+
+            json.append(String.format("""
+                    {
+                      "data": {
+                        "id": "%s",
+                        "label": "%s",
+                        "type": "%s",
+                        "nodeClass": "%s"
+                      }
+                    }""",
+                    escapeJson(id),
+                    escapeJson(label),
+                    escapeJson(shape),
+                    escapeJson(nodeClass)));
+
+            if (i < nodes.size() - 1 || !edges.isEmpty()) {
+                json.append(",");
+            }
+            json.append("\n");
+        }
+
+        for (int i = 0; i < edges.size(); i++) {
+            Map<String, Object> edge = edges.get(i);
+            String from = (String) edge.get("from");
+            String to = (String) edge.get("to");
+            String label = String.valueOf(edge.getOrDefault("label", ""));
+
+            Map<String, Object> style = (Map<String, Object>) edge.get("style");
+            String styleType = "";
+            if (style != null && style.get("type") != null) {
+                styleType = String.valueOf(style.get("type"));
+            }
+
+            json.append(String.format("""
+                    {
+                      "data": {
+                        "id": "%s-%s",
+                        "source": "%s",
+                        "target": "%s",
+                        "label": "%s",
+                        "styleType": "%s"
+                      }
+                    }""",
+                    escapeJson(from), escapeJson(to),
+                    escapeJson(from), escapeJson(to),
+                    escapeJson(label), escapeJson(styleType)));
+
+            if (i < edges.size() - 1) {
+                json.append(",");
+            }
+            json.append("\n");
+        }
+
+        json.append("]");
+        return json.toString();
+    }
+
+    private static String escapeJson(String str) {
+        if (str == null) return "";
+        return str.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r")
+                .replace("\t", "\\t");
+    }
+}
@@ -0,0 +1,157 @@
+package com.gunho.artifact.util;
+
+import com.gunho.artifact.model.FlowGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 분포 파싱, 백분위수, 임계 경로 역추적, seed 고정 시 스레드 수와 무관한 결과를 확인한다
+ */
+class LatencySimulationTest {
+
+    private static final LatencySimulation.Distribution.Kind FIXED = LatencySimulation.Distribution.Kind.FIXED;
+
+    @Test
+    void parsesDistributions() {
+        assertThat(LatencySimulation.Distribution.parse(12)).isEqualTo(new LatencySimulation.Distribution(FIXED, 12, 0));
+        assertThat(LatencySimulation.Distribution.parse(-3)).isEqualTo(new LatencySimulation.Distribution(FIXED, 0, 0));
+        assertThat(LatencySimulation.Distribution.parse(Map.of("p50", 10))).isEqualTo(new LatencySimulation.Distribution(FIXED, 10, 0));
+        assertThat(LatencySimulation.Distribution.parse(Map.of("p50", 10, "p99", 5))).isEqualTo(new LatencySimulation.Distribution(FIXED, 10, 0));
+        assertThat(LatencySimulation.Distribution.parse(Map.of("min", "-1", "max", "4")))
+                .isEqualTo(new LatencySimulation.Distribution(LatencySimulation.Distribution.Kind.UNIFORM, 0, 4));
+        assertThat(LatencySimulation.Distribution.parse(Map.of("mean", 5, "stddev", 2)))
+                .isEqualTo(new LatencySimulation.Distribution(LatencySimulation.Distribution.Kind.NORMAL, 5, 2));
+        assertThat(LatencySimulation.Distribution.parse(Map.of("mean", 5))).isEqualTo(new LatencySimulation.Distribution(FIXED, 5, 0));
+        assertThat(LatencySimulation.Distribution.parse("fast")).isEqualTo(LatencySimulation.Distribution.ZERO);
+        assertThat(LatencySimulation.Distribution.parse(Map.of("min", "x", "max", 3))).isEqualTo(LatencySimulation.Distribution.ZERO);
+
+        LatencySimulation.Distribution lognormal = LatencySimulation.Distribution.parse(Map.of("p50", 100, "p99", 400));
+        assertThat(lognormal.kind()).isEqualTo(LatencySimulation.Distribution.Kind.LOGNORMAL);
+        assertThat(lognormal.a()).isCloseTo(Math.log(100), within(1e-12));
+        assertThat(lognormal.b()).isCloseTo(Math.log(4) / 2.3263478740408408, within(1e-12));
+    }
+
+    @Test
+    void sumsFixedLatenciesAlongTheChain() {
+        Fixture graph = graph(List.of("a", "b"), List.of(edge("a", "b", 5)), Map.of("a", 10, "b", 20));
+
+        LatencySimulation.Result result = run(graph, 100, 1L);
+
+        assertThat(result.p50()).isEqualTo(35);
+        assertThat(result.p99()).isEqualTo(35);
+        assertThat(result.mean()).isEqualTo(35);
+        assertThat(result.criticalPath()).containsExactly("a", "b");
+        assertThat(result.criticalPathShare()).isEqualTo(1.0);
+    }
+
+    @Test
+    void backtracksTheSlowestBranchOfAFanOut() {
+        Fixture graph = graph(List.of("a", "b", "c", "d"),
+                List.of(edge("a", "b", 0), edge("a", "c", 0), edge("b", "d", 0), edge("c", "d", 0)),
+                Map.of("a", 1, "b", 100, "c", Map.of("min", 0, "max", 50), "d", 1));
+
+        LatencySimulation.Result result = run(graph, 2_000, 7L);
+
+        assertThat(result.criticalPath()).containsExactly("a", "b", "d");
+        assertThat(result.criticalPathShare()).isEqualTo(1.0);
+        assertThat(result.nodeCriticality()).containsExactly(1.0, 1.0, 0.0, 1.0);
+        assertThat(result.edgeCriticality()).containsExactly(1.0, 0.0, 1.0, 0.0);
+        assertThat(result.p50()).isEqualTo(102);
+    }
+
+    @Test
+    void usesNearestRankPercentilesOfTheSampledTotals() {
+        Fixture graph = graph(List.of("only"), List.of(), Map.of("only", Map.of("min", 0, "max", 100)));
+
+        LatencySimulation.Result result = run(graph, 20_000, 3L);
+
+        assertThat(result.iterations()).isEqualTo(20_000);
+        assertThat(result.p50()).isCloseTo(50, within(2.0));
+        assertThat(result.p90()).isCloseTo(90, within(2.0));
+        assertThat(result.p99()).isCloseTo(99, within(1.0));
+        assertThat(result.mean()).isCloseTo(50, within(1.5));
+        assertThat(result.p50()).isLessThanOrEqualTo(result.p90()).isLessThanOrEqualTo(result.p99());
+    }
+
+    @Test
+    void sameSeedGivesSameResultRegardlessOfThreadCount() throws Exception {
+        Fixture graph = graph(List.of("a", "b", "c", "d"),
+                List.of(edge("a", "b", Map.of("p50", 3, "p99", 30)), edge("a", "c", 1), edge("b", "d", 0), edge("c", "d", 0)),
+                Map.of("a", Map.of("mean", 10, "stddev", 3), "b", Map.of("p50", 20, "p99", 80), "c", Map.of("min", 10, "max", 60), "d", 1));
+
+        // 청크(1024회) 여러 개로 나뉘는 반복 수
+        LatencySimulation.Result single = inPool(1, () -> run(graph, 5_000, 42L));
+        LatencySimulation.Result parallel = inPool(4, () -> run(graph, 5_000, 42L));
+        LatencySimulation.Result again = run(graph, 5_000, 42L);
+        LatencySimulation.Result otherSeed = run(graph, 5_000, 43L);
+
+        for (LatencySimulation.Result result : List.of(parallel, again)) {
+            assertThat(result.p50()).isEqualTo(single.p50());
+            assertThat(result.p99()).isEqualTo(single.p99());
+            assertThat(result.mean()).isEqualTo(single.mean());
+            assertThat(result.nodeCriticality()).containsExactly(single.nodeCriticality());
+            assertThat(result.edgeCriticality()).containsExactly(single.edgeCriticality());
+            assertThat(result.criticalPath()).isEqualTo(single.criticalPath());
+            assertThat(result.criticalPathShare()).isEqualTo(single.criticalPathShare());
+        }
+        assertThat(otherSeed.mean()).isNotEqualTo(single.mean());
+    }
+
+    @Test
+    void excludesNodesOnCycles() {
+        Fixture graph = graph(List.of("a", "b", "c"), List.of(edge("a", "b", 0), edge("b", "c", 0), edge("c", "b", 0)),
+                Map.of("a", 5, "b", 100, "c", 100));
+
+        LatencySimulation.Result result = run(graph, 10, 1L);
+
+        assertThat(result.excludedNodes()).containsExactly("b", "c");
+        assertThat(result.p50()).isEqualTo(5);
+        assertThat(result.criticalPath()).containsExactly("a");
+    }
+
+    private static LatencySimulation.Result run(Fixture fixture, int iterations, long seed) {
+        return LatencySimulation.run(fixture.graph(), fixture.nodes(), fixture.edges(), iterations, seed);
+    }
+
+    private static <T> T inPool(int parallelism, Callable<T> task) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(task).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private record Fixture(FlowGraph graph, LatencySimulation.Distribution[] nodes, LatencySimulation.Distribution[] edges) {
+    }
+
+    // FlowChartGenerator.simulate 와 같은 방식으로 latency 입력을 분포로 바꾼다
+    private static Fixture graph(List<String> ids, List<Map<String, Object>> edges, Map<String, Object> latency) {
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        ids.forEach(id -> nodes.add(Map.of("id", id)));
+        FlowGraph graph = FlowGraph.of(nodes, edges);
+
+        LatencySimulation.Distribution[] nodeLatency = new LatencySimulation.Distribution[graph.nodeCount()];
+        for (int v = 0; v < nodeLatency.length; v++) {
+            nodeLatency[v] = LatencySimulation.Distribution.parse(latency.get(graph.nodeId(v)));
+        }
+        List<Map<String, Object>> kept = graph.keptEdges(edges);
+        LatencySimulation.Distribution[] edgeLatency = new LatencySimulation.Distribution[graph.edgeCount()];
+        for (int e = 0; e < edgeLatency.length; e++) {
+            edgeLatency[e] = LatencySimulation.Distribution.parse(kept.get(e).get("latency"));
+        }
+        return new Fixture(graph, nodeLatency, edgeLatency);
+    }
+
+    private static Map<String, Object> edge(String from, String to, Object latency) {
+        return Map.of("from", from, "to", to, "latency", latency);
+    }
+}
@@ -0,0 +1,102 @@
+package com.gunho.artifact.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 작은 그래프에서 계층(rank)과 계층 내 순서를 좌표로 확인한다.
+ * TB 에서 y / (NODE_HEIGHT + RANK_SEP) 가 계층 번호, 같은 계층에서 x 가 작을수록 앞 순서다
+ */
+class LayeredLayoutTest {
+
+    private static final double TB_RANK = LayeredLayout.NODE_HEIGHT + LayeredLayout.RANK_SEP;
+    private static final double LR_RANK = LayeredLayout.NODE_WIDTH + LayeredLayout.RANK_SEP;
+    private static final double TB_CROSS = LayeredLayout.NODE_WIDTH + LayeredLayout.NODE_SEP;
+
+    @Test
+    void placesChainOnConsecutiveRanks() {
+        LayeredLayout.Positions positions = LayeredLayout.compute(3, new int[]{0, 1}, new int[]{1, 2}, "TB");
+
+        assertThat(ranks(positions, TB_RANK)).containsExactly(0, 1, 2);
+        assertThat(positions.x()).containsExactly(0, 0, 0);
+    }
+
+    @Test
+    void assignsLongestPathRank() {
+        // 0→2 는 0→1→2 보다 짧지만 2 는 가장 긴 경로 기준으로 2계층
+        LayeredLayout.Positions positions = LayeredLayout.compute(3, new int[]{0, 1, 0}, new int[]{1, 2, 2}, "TB");
+
+        assertThat(ranks(positions, TB_RANK)).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void breaksCyclesAndIgnoresSelfLoops() {
+        // 0→1→2→0 사이클과 1→1 셀프 루프
+        LayeredLayout.Positions positions = LayeredLayout.compute(3, new int[]{0, 1, 2, 1}, new int[]{1, 2, 0, 1}, "TB");
+
+        int[] ranks = ranks(positions, TB_RANK);
+        assertThat(ranks[0]).isZero();
+        assertThat(ranks).containsExactlyInAnyOrder(0, 1, 2);
+    }
+
+    @Test
+    void reordersLayerToRemoveCrossing() {
+        // 0→3, 1→2 를 인덱스 순서로 두면 교차한다. 무게중심 정렬 후 3 이 2 보다 앞에 와야 한다
+        LayeredLayout.Positions positions = LayeredLayout.compute(4, new int[]{0, 1}, new int[]{3, 2}, "TB");
+
+        assertThat(ranks(positions, TB_RANK)).containsExactly(0, 0, 1, 1);
+        assertThat(positions.x()[0]).isLessThan(positions.x()[1]);
+        assertThat(positions.x()[3]).isLessThan(positions.x()[2]);
+        assertThat(positions.x()[3]).isEqualTo(-TB_CROSS / 2);
+        assertThat(positions.x()[2]).isEqualTo(TB_CROSS / 2);
+    }
+
+    @Test
+    void mapsRanksToAxisByDirection() {
+        int[] from = {0, 1};
+        int[] to = {1, 2};
+
+        LayeredLayout.Positions lr = LayeredLayout.compute(3, from, to, "LR");
+        assertThat(lr.x()).containsExactly(0, LR_RANK, 2 * LR_RANK);
+        assertThat(lr.y()).containsExactly(0, 0, 0);
+
+        LayeredLayout.Positions bt = LayeredLayout.compute(3, from, to, "BT");
+        assertThat(bt.y()).containsExactly(2 * TB_RANK, TB_RANK, 0);
+
+        LayeredLayout.Positions rl = LayeredLayout.compute(3, from, to, "RL");
+        assertThat(rl.x()).containsExactly(2 * LR_RANK, LR_RANK, 0);
+    }
+
+    @Test
+    void longEdgesDoNotExpandIntoDummyChains() {
+        // 0→…→11 체인과 0→11 을 건너뛰는 간선. 더미 없이도 모든 노드가 제 계층에 놓인다
+        int n = 12;
+        int[] from = new int[n];
+        int[] to = new int[n];
+        for (int i = 0; i < n - 1; i++) {
+            from[i] = i;
+            to[i] = i + 1;
+        }
+        from[n - 1] = 0;
+        to[n - 1] = n - 1;
+
+        LayeredLayout.Positions positions = LayeredLayout.compute(n, from, to, "TB");
+
+        int[] expected = new int[n];
+        Arrays.setAll(expected, i -> i);
+        assertThat(ranks(positions, TB_RANK)).containsExactly(expected);
+        assertThat(positions.x()).containsOnly(0);
+    }
+
+    private static int[] ranks(LayeredLayout.Positions positions, double rankStep) {
+        double[] axis = positions.y();
+        int[] ranks = new int[axis.length];
+        for (int i = 0; i < axis.length; i++) {
+            ranks[i] = (int) Math.round(axis[i] / rankStep);
+        }
+        return ranks;
+    }
+}
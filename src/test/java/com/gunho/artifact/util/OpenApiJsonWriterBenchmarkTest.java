@@ -0,0 +1,36 @@
+package com.gunho.artifact.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Writer;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 5,000 개 엔드포인트 OpenAPI 문서를 직렬화할 때
+ * 기존 재귀 toJson(StringBuilder 중첩)과 OpenApiJsonWriter 의 지연/할당량 비교.
+ * 수동 실행 전용: ./gradlew test -Pbenchmark --tests '*BenchmarkTest'
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OpenApiJsonWriterBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenApiJsonWriterBenchmarkTest.class);
+    private static final int ENDPOINT_COUNT = 5_000;
+
+    @Test
+    void streamingWriterAllocatesLessThanRecursiveToJson() throws Exception {
+        Map<String, Object> spec = OpenApiJsonWriterTest.sampleSpec(ENDPOINT_COUNT);
+
+        Benchmarks.Measurement legacy = Benchmarks.measure(() -> OpenApiJsonWriterTest.legacyToJson(spec));
+        Benchmarks.Measurement streaming = Benchmarks.measure(() -> OpenApiJsonWriter.write(spec, Writer.nullWriter()));
+
+        log.info("[openapi {} endpoints] toJson: {} | streaming: {}", ENDPOINT_COUNT, legacy, streaming);
+        assertThat(streaming.bytesPerOp()).isLessThan(legacy.bytesPerOp());
+    }
+}
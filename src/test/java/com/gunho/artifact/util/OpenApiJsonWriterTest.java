@@ -0,0 +1,103 @@
+package com.gunho.artifact.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OpenApiJsonWriter 직렬화 결과가 기존 재귀 toJson 과 같은 JSON 인지 확인한다
+ */
+class OpenApiJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesSameJsonAsRecursiveToJson() throws Exception {
+        Map<String, Object> spec = sampleSpec(200);
+
+        StringWriter streamed = new StringWriter();
+        OpenApiJsonWriter.write(spec, streamed);
+
+        assertThat(objectMapper.readTree(streamed.toString())).isEqualTo(objectMapper.readTree(legacyToJson(spec)));
+        assertThat(OpenApiJsonWriter.toJson(spec)).isEqualTo(streamed.toString());
+    }
+
+    @Test
+    void escapesControlCharactersAndScriptTerminators() throws Exception {
+        String summary = "탭\t줄\n제어\u0001 </script><b>&";
+        String json = OpenApiJsonWriter.toJson(Map.of("summary", summary));
+
+        assertThat(json).doesNotContain("</script>").doesNotContain("<").doesNotContain("\u0001");
+        assertThat(objectMapper.readTree(json).get("summary").asText()).isEqualTo(summary);
+    }
+
+    static Map<String, Object> sampleSpec(int endpointCount) {
+        Map<String, Object> paths = new LinkedHashMap<>();
+        for (int i = 0; i < endpointCount; i++) {
+            Map<String, Object> schema = new LinkedHashMap<>();
+            schema.put("type", "object");
+            schema.put("properties", Map.of(
+                    "id", Map.of("type", "integer", "format", "int64"),
+                    "name", Map.of("type", "string", "description", "이름 \"%d\"".formatted(i)),
+                    "tags", Map.of("type", "array", "items", Map.of("type", "string"))
+            ));
+
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("summary", "Resource %d 조회".formatted(i));
+            operation.put("tags", List.of("group-" + (i % 50)));
+            operation.put("parameters", List.of(Map.of("name", "id", "in", "path", "required", true,
+                    "schema", Map.of("type", "integer"))));
+            operation.put("requestBody", Map.of("content", Map.of("application/json", Map.of("schema", schema))));
+            operation.put("responses", Map.of("200", Map.of("description", "OK",
+                    "content", Map.of("application/json", Map.of("schema", schema)))));
+
+            paths.put("/api/v1/resources-%d/{id}".formatted(i), Map.of("get", operation));
+        }
+
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("openapi", "3.0.3");
+        root.put("info", Map.of("title", "Benchmark", "version", "1.0.0"));
+        root.put("paths", paths);
+        return root;
+    }
+
+    // 기존 ApiDocsGenerator.toJson 과 같은 방식 (단계마다 문자열 생성 후 부모가 복사)
+    static String legacyToJson(Object obj) {
+        if (obj == null) return "null";
+        if (obj instanceof String s) return "\"" + legacyEscape(s) + "\"";
+        if (obj instanceof Number || obj instanceof Boolean) return obj.toString();
+        if (obj instanceof Map<?, ?> map) {
+            StringBuilder sb = new StringBuilder("{");
+            boolean first = true;
+            for (var e : map.entrySet()) {
+                if (!first) sb.append(",");
+                sb.append(legacyToJson(String.valueOf(e.getKey()))).append(":").append(legacyToJson(e.getValue()));
+                first = false;
+            }
+            sb.append("}");
+            return sb.toString();
+        }
+        if (obj instanceof Iterable<?> it) {
+            StringBuilder sb = new StringBuilder("[");
+            boolean first = true;
+            for (var v : it) {
+                if (!first) sb.append(",");
+                sb.append(legacyToJson(v));
+                first = false;
+            }
+            sb.append("]");
+            return sb.toString();
+        }
+        return "\"" + legacyEscape(String.valueOf(obj)) + "\"";
+    }
+
+    private static String legacyEscape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,140 @@
+package com.gunho.artifact.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 구조가 같은 스키마를 components 로 올리고 $ref 로 바꾸는지 확인한다
+ */
+class OpenApiSchemaDeduplicatorTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void matchesGoldenSpec() throws Exception {
+        Map<String, Object> spec = spec("openapi/petstore.json");
+
+        int hoisted = OpenApiSchemaDeduplicator.apply(spec);
+
+        assertThat(hoisted).isEqualTo(2);
+        assertThat(objectMapper.<JsonNode>valueToTree(spec)).isEqualTo(objectMapper.valueToTree(spec("openapi/petstore-dedup.json")));
+    }
+
+    @Test
+    void hashesIgnoreKeyOrder() {
+        Map<String, Object> spec = root(
+                operation(body(Map.of("type", "object", "properties", Map.of("a", Map.of("type", "string"), "b", Map.of("type", "integer"))))),
+                operation(body(ordered("properties", ordered("b", Map.of("type", "integer"), "a", Map.of("type", "string")), "type", "object"))));
+
+        assertThat(OpenApiSchemaDeduplicator.apply(spec)).isEqualTo(1);
+        assertThat(schemaOf(spec, "/op0")).isEqualTo(Map.of("$ref", "#/components/schemas/Schema1"));
+        assertThat(schemaOf(spec, "/op1")).isEqualTo(Map.of("$ref", "#/components/schemas/Schema1"));
+    }
+
+    @Test
+    void leavesSingleAndPropertylessSchemasInline() {
+        Map<String, Object> single = Map.of("type", "object", "properties", Map.of("only", Map.of("type", "string")));
+        Map<String, Object> spec = root(
+                operation(body(single)),
+                operation(body(Map.of("type", "string"))),
+                operation(body(Map.of("type", "string"))));
+
+        assertThat(OpenApiSchemaDeduplicator.apply(spec)).isZero();
+        assertThat(spec).doesNotContainKey("components");
+        assertThat(schemaOf(spec, "/op0")).isEqualTo(single);
+    }
+
+    @Test
+    void resolvesNameCollisions() {
+        Map<String, Object> user = Map.of("title", "User", "type", "object", "properties", Map.of("id", Map.of("type", "integer")));
+        Map<String, Object> otherUser = Map.of("title", "User", "type", "object", "properties", Map.of("name", Map.of("type", "string")));
+        Map<String, Object> existing = Map.of("type", "object", "properties", Map.of("legacy", Map.of("type", "boolean")));
+        Map<String, Object> spec = root(operation(body(user)), operation(body(user)), operation(body(otherUser)), operation(body(otherUser)));
+        spec.put("components", Map.of("schemas", Map.of("User", existing)));
+
+        assertThat(OpenApiSchemaDeduplicator.apply(spec)).isEqualTo(2);
+
+        Map<String, Object> schemas = schemas(spec);
+        assertThat(schemas.keySet()).containsExactly("User", "User2", "User3");
+        assertThat(schemas.get("User")).isEqualTo(existing);
+        assertThat(schemaOf(spec, "/op0")).isEqualTo(Map.of("$ref", "#/components/schemas/User2"));
+        assertThat(schemaOf(spec, "/op2")).isEqualTo(Map.of("$ref", "#/components/schemas/User3"));
+    }
+
+    @Test
+    void rewritesNestedSchemasInsideCopies() {
+        Map<String, Object> address = Map.of("type", "object", "properties", Map.of("city", Map.of("type", "string")));
+        Map<String, Object> home = Map.of("type", "object", "properties", Map.of("address", address, "rooms", Map.of("type", "integer")));
+        Map<String, Object> office = Map.of("type", "object", "properties", Map.of("address", address),
+                "allOf", List.of(Map.of("type", "object", "properties", Map.of("home", home))));
+        Map<String, Object> spec = root(operation(body(home)), operation(body(office)));
+
+        assertThat(OpenApiSchemaDeduplicator.apply(spec)).isEqualTo(2);
+
+        // 원본 스키마 Map 은 그대로 두고 복사본에서만 $ref 로 바뀐다
+        assertThat(home.get("properties")).isEqualTo(Map.of("address", address, "rooms", Map.of("type", "integer")));
+        Map<?, ?> rewrittenOffice = (Map<?, ?>) schemaOf(spec, "/op1");
+        assertThat(((Map<?, ?>) rewrittenOffice.get("properties")).get("address")).isEqualTo(Map.of("$ref", "#/components/schemas/Schema1"));
+        assertThat(rewrittenOffice.get("allOf")).isEqualTo(List.of(Map.of("type", "object",
+                "properties", Map.of("home", Map.of("$ref", "#/components/schemas/Schema2")))));
+    }
+
+    static Map<String, Object> spec(String location) throws IOException {
+        try (InputStream in = new ClassPathResource(location).getInputStream()) {
+            return objectMapper.readValue(in, new TypeReference<LinkedHashMap<String, Object>>() {
+            });
+        }
+    }
+
+    @SafeVarargs
+    private static Map<String, Object> root(Map<String, Object>... operations) {
+        Map<String, Object> paths = new LinkedHashMap<>();
+        for (int i = 0; i < operations.length; i++) {
+            paths.put("/op" + i, Map.of("post", operations[i]));
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("openapi", "3.0.3");
+        root.put("paths", paths);
+        return root;
+    }
+
+    private static Map<String, Object> operation(Map<String, Object> requestBody) {
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("requestBody", requestBody);
+        return operation;
+    }
+
+    private static Map<String, Object> body(Map<String, Object> schema) {
+        return Map.of("content", Map.of("application/json", Map.of("schema", schema)));
+    }
+
+    private static Map<String, Object> ordered(Object... keyValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> schemas(Map<String, Object> spec) {
+        return (Map<String, Object>) ((Map<?, ?>) spec.get("components")).get("schemas");
+    }
+
+    private static Object schemaOf(Map<String, Object> spec, String path) {
+        Map<?, ?> operation = (Map<?, ?>) ((Map<?, ?>) ((Map<?, ?>) spec.get("paths")).get(path)).get("post");
+        Map<?, ?> content = (Map<?, ?>) ((Map<?, ?>) operation.get("requestBody")).get("content");
+        return ((Map<?, ?>) content.get("application/json")).get("schema");
+    }
+}
@@ -0,0 +1,121 @@
+package com.gunho.artifact.util;
+
+import com.gunho.artifact.exception.ArtifactException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 경로별 엔드포인트 변환과 $ref 펼치기(순환, 크기 한도)를 확인한다
+ */
+class OpenApiStreamReaderTest {
+
+    @Test
+    void readsYamlEndpointsAndResolvesRefs() throws Exception {
+        String yaml = """
+                openapi: 3.0.3
+                info: {title: Pets, version: 2.0.0}
+                paths:
+                  /pets/{id}:
+                    parameters:
+                      - {name: id, in: path, required: true}
+                    get:
+                      operationId: getPet
+                      tags: [pets]
+                      responses:
+                        '200':
+                          content:
+                            application/json:
+                              schema: {$ref: '#/components/schemas/Pet'}
+                components:
+                  schemas:
+                    Pet:
+                      type: object
+                      properties:
+                        parent: {$ref: '#/components/schemas/Pet'}
+                """;
+
+        OpenApiStreamReader.Result result = read(yaml, "pets.yaml");
+
+        assertThat(result.title()).isEqualTo("Pets");
+        assertThat(result.version()).isEqualTo("2.0.0");
+        Map<String, Object> endpoint = result.endpoints().get(0);
+        assertThat(endpoint).containsEntry("method", "GET").containsEntry("path", "/pets/{id}")
+                .containsEntry("summary", "getPet").containsEntry("tags", List.of("pets"));
+        assertThat((List<?>) endpoint.get("params")).hasSize(1);
+
+        Map<?, ?> schema = (Map<?, ?>) ((Map<?, ?>) ((Map<?, ?>) ((Map<?, ?>) ((Map<?, ?>) endpoint.get("responses"))
+                .get("200")).get("content")).get("application/json")).get("schema");
+        Map<?, ?> parent = (Map<?, ?>) ((Map<?, ?>) schema.get("properties")).get("parent");
+        assertThat(parent).isEqualTo(Map.of("type", "object", "description", "순환 참조: Pet"));
+    }
+
+    @Test
+    void rejectsSpecsWhoseExpandedRefsExceedTheLimit() {
+        // S0 -> S1 x2 -> S2 x4 ... 재사용 캐시로는 금방 풀리지만 저장할 때는 2^30 개 노드로 펼쳐진다
+        StringBuilder schemas = new StringBuilder();
+        int depth = 30;
+        for (int i = 0; i < depth; i++) {
+            schemas.append(i > 0 ? "," : "").append("\"S").append(i).append("\":");
+            schemas.append(i + 1 < depth
+                    ? "{\"type\":\"object\",\"properties\":{\"a\":{\"$ref\":\"#/components/schemas/S%d\"},\"b\":{\"$ref\":\"#/components/schemas/S%d\"}}}"
+                    .formatted(i + 1, i + 1)
+                    : "{\"type\":\"string\"}");
+        }
+        String json = """
+                {"openapi":"3.0.3","info":{"title":"Bomb"},
+                 "paths":{"/x":{"get":{"responses":{"200":{"content":{"application/json":{"schema":{"$ref":"#/components/schemas/S0"}}}}}}}},
+                 "components":{"schemas":{%s}}}
+                """.formatted(schemas);
+
+        assertThatThrownBy(() -> read(json, "bomb.json"))
+                .isInstanceOf(ArtifactException.class)
+                .hasMessageContaining("너무 큽니다");
+    }
+
+    @Test
+    void readsYamlLargerThanSnakeYamlDefaultLimit() throws Exception {
+        StringBuilder yaml = new StringBuilder("openapi: 3.0.3\ninfo: {title: Large, version: 1.0.0}\npaths:\n");
+        int count = 0;
+        // SnakeYAML 기본 한도 3MiB 를 넘긴다
+        while (yaml.length() < 4 * 1024 * 1024) {
+            yaml.append("  /items/").append(count).append(":\n")
+                    .append("    get:\n")
+                    .append("      summary: '").append("x".repeat(200)).append("'\n")
+                    .append("      responses: {'200': {description: OK}}\n");
+            count++;
+        }
+
+        OpenApiStreamReader.Result result = read(yaml.toString(), "large.yaml");
+
+        assertThat(result.endpoints()).hasSize(count);
+        assertThat(result.endpoints().get(count - 1)).containsEntry("path", "/items/" + (count - 1));
+    }
+
+    @Test
+    void rejectsYamlOverTheConfiguredLimit() {
+        String yaml = "openapi: 3.0.3\ninfo: {title: '" + "x".repeat(2048) + "', version: 1.0.0}\npaths: {}\n";
+
+        assertThatThrownBy(() -> OpenApiStreamReader.read(
+                new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)), "small.yaml", 1024))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void rejectsSwagger2() {
+        assertThatThrownBy(() -> read("{\"swagger\":\"2.0\"}", null))
+                .isInstanceOf(ArtifactException.class)
+                .hasMessageContaining("Swagger 2.0");
+    }
+
+    private static OpenApiStreamReader.Result read(String source, String filename) throws IOException {
+        return OpenApiStreamReader.read(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)), filename, 16 * 1024 * 1024);
+    }
+}
@@ -0,0 +1,90 @@
+package com.gunho.artifact.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 태그별 조각이 자기 operation 과 참조하는 스키마만 담는지 확인한다
+ */
+class OpenApiTagSplitterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void matchesGoldenIndex() throws Exception {
+        Map<String, Object> spec = OpenApiSchemaDeduplicatorTest.spec("openapi/petstore.json");
+
+        OpenApiTagSplitter.Split split = OpenApiTagSplitter.split(spec);
+
+        assertThat(objectMapper.<JsonNode>valueToTree(split.index()))
+                .isEqualTo(objectMapper.valueToTree(OpenApiSchemaDeduplicatorTest.spec("openapi/petstore-split-index.json")));
+        assertThat(split.fragments()).hasSize(3);
+    }
+
+    @Test
+    void groupsOperationsByTagAndKeepsMultiTagOperationsInEach() throws Exception {
+        Map<String, Object> spec = OpenApiSchemaDeduplicatorTest.spec("openapi/petstore.json");
+
+        OpenApiTagSplitter.Split split = OpenApiTagSplitter.split(spec);
+
+        assertThat(paths(split.fragments().get(0)).keySet()).containsExactly("/pets", "/owners/{id}");
+        assertThat(paths(split.fragments().get(0)).get("/pets")).isEqualTo(Map.of("get", operation(spec, "/pets", "get"), "post", operation(spec, "/pets", "post")));
+        assertThat(paths(split.fragments().get(1)).keySet()).containsExactly("/owners/{id}");
+        assertThat(paths(split.fragments().get(2)).keySet()).containsExactly("/health");
+        assertThat(split.fragments().get(0).get("info")).isEqualTo(Map.of("title", "Petstore", "version", "1.0.0"));
+    }
+
+    @Test
+    void includesTransitivelyReferencedSchemasOnly() throws Exception {
+        OpenApiTagSplitter.Split split = OpenApiTagSplitter.split(OpenApiSchemaDeduplicatorTest.spec("openapi/petstore.json"));
+
+        // Error -> ErrorDetail -> ErrorDetail(순환) 을 따라가되 Unused 는 넣지 않는다
+        assertThat(schemaNames(split.fragments().get(0))).containsExactly("Error", "ErrorDetail");
+        assertThat(schemaNames(split.fragments().get(1))).containsExactly("Error", "ErrorDetail");
+        assertThat(split.fragments().get(2)).doesNotContainKey("components");
+    }
+
+    @Test
+    void keepsOriginalSchemaOrderRegardlessOfReferenceOrder() {
+        Map<String, Object> schemas = new LinkedHashMap<>();
+        schemas.put("A", Map.of("type", "string"));
+        schemas.put("B", Map.of("type", "object", "properties", Map.of("a", ref("A"))));
+        schemas.put("C", Map.of("type", "integer"));
+        Map<String, Object> operation = Map.of("tags", List.of("x", " ", "x"), "parameters", List.of(Map.of("schema", ref("C"))),
+                "responses", Map.of("200", Map.of("content", Map.of("application/json", Map.of("schema", ref("B"))))));
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("paths", Map.of("/x", Map.of("get", operation)));
+        spec.put("components", Map.of("schemas", schemas));
+
+        OpenApiTagSplitter.Split split = OpenApiTagSplitter.split(spec);
+
+        assertThat(split.fragments()).hasSize(1);
+        assertThat(schemaNames(split.fragments().get(0))).containsExactly("A", "B", "C");
+        assertThat(split.index().get("tags")).isEqualTo(List.of(Map.of("name", "x", "file", "0.json", "operations", 1)));
+    }
+
+    private static Map<String, Object> ref(String name) {
+        return Map.of("$ref", "#/components/schemas/" + name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> paths(Map<String, Object> fragment) {
+        return (Map<String, Object>) fragment.get("paths");
+    }
+
+    private static Object operation(Map<String, Object> spec, String path, String method) {
+        return ((Map<?, ?>) paths(spec).get(path)).get(method);
+    }
+
+    private static List<String> schemaNames(Map<String, Object> fragment) {
+        Map<?, ?> schemas = (Map<?, ?>) ((Map<?, ?>) fragment.get("components")).get("schemas");
+        return schemas.keySet().stream().map(String::valueOf).toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.gunho.artifact.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 고정 세그먼트 우선, 막히면 변수 세그먼트로 되돌아가는 매칭을 확인한다
+ */
+class RouteTrieTest {
+
+    @Test
+    void prefersLiteralSegments() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add("GET", "/orders/{id}", "byId");
+        trie.add("GET", "/orders/latest", "latest");
+
+        assertThat(trie.match("get", "/orders/latest").value()).isEqualTo("latest");
+        assertThat(trie.match("GET", "/orders/42").value()).isEqualTo("byId");
+    }
+
+    @Test
+    void backtracksToVariableWhenLiteralBranchDeadEnds() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add("GET", "/orders/latest/summary", "latestSummary");
+        trie.add("GET", "/orders/{id}/items", "items");
+
+        RouteTrie.Match<String> match = trie.match("GET", "/orders/latest/items");
+
+        assertThat(match.value()).isEqualTo("items");
+        assertThat(match.template()).isEqualTo("/orders/{id}/items");
+        assertThat(match.variables()).isEqualTo(Map.of("id", "latest"));
+    }
+
+    @Test
+    void backtracksWhenLiteralBranchLacksTheMethod() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add("GET", "/users/me", "me");
+        trie.add("DELETE", "/users/{userId}", "delete");
+
+        assertThat(trie.match("DELETE", "/users/me").variables()).isEqualTo(Map.of("userId", "me"));
+        assertThat(trie.match("POST", "/users/me")).isNull();
+        assertThat(trie.hasPath("/users/me")).isTrue();
+        assertThat(trie.hasPath("/users/me/extra")).isFalse();
+    }
+
+    @Test
+    void keepsVariableNamesPerMethod() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add("GET", "/teams/{teamId}/members/{memberId}", "get");
+        trie.add("PUT", "/teams/{id}/members/{mid}", "put");
+
+        assertThat(trie.match("GET", "/teams/1/members/2").variables()).containsExactly(Map.entry("teamId", "1"), Map.entry("memberId", "2"));
+        assertThat(trie.match("PUT", "/teams/1/members/2").variables()).containsExactly(Map.entry("id", "1"), Map.entry("mid", "2"));
+    }
+
+    @Test
+    void ignoresDuplicateRoutesAndExtraSlashes() {
+        RouteTrie<String> trie = new RouteTrie<>();
+
+        assertThat(trie.add("GET", "/a/{x}", "first")).isTrue();
+        assertThat(trie.add("get", "/a/{y}", "second")).isFalse();
+        assertThat(trie.match("GET", "//a//1/").value()).isEqualTo("first");
+        assertThat(trie.add("GET", "/", "root")).isTrue();
+        assertThat(trie.match("GET", "").value()).isEqualTo("root");
+    }
+}
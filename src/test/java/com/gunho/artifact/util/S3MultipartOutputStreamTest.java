@@ -0,0 +1,86 @@
+package com.gunho.artifact.util;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 작은 객체는 작은 버퍼로 PutObject 한 번, 파트 크기를 넘으면 파트 크기 버퍼로 멀티파트 업로드하는지 확인한다
+ */
+class S3MultipartOutputStreamTest {
+
+    private static final int PART_SIZE = S3MultipartOutputStream.MIN_PART_SIZE;
+
+    @Test
+    void smallObjectKeepsInitialBufferAndUsesSinglePut() throws IOException {
+        S3Client client = mock(S3Client.class);
+        byte[] data = bytes(10_000);
+
+        S3MultipartOutputStream out = new S3MultipartOutputStream(client, "bucket", "a.json", "application/json", null, PART_SIZE);
+        out.write(data);
+        out.close();
+
+        assertThat(out.capacity()).isEqualTo(S3MultipartOutputStream.INITIAL_BUFFER_SIZE);
+        ArgumentCaptor<RequestBody> body = ArgumentCaptor.forClass(RequestBody.class);
+        verify(client).putObject(any(PutObjectRequest.class), body.capture());
+        assertThat(read(body.getValue())).isEqualTo(data);
+        verify(client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void bufferGrowsUpToPartSizeThenUploadsParts() throws IOException {
+        S3Client client = mock(S3Client.class);
+        when(client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload").build());
+        ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+        when(client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            uploaded.write(read(invocation.getArgument(1)));
+            return UploadPartResponse.builder().eTag("etag").build();
+        });
+        byte[] data = bytes(PART_SIZE * 2 + 123);
+
+        S3MultipartOutputStream out = new S3MultipartOutputStream(client, "bucket", "a.html", "text/html", null, PART_SIZE);
+        // 1바이트 쓰기와 배열 쓰기가 섞여도 경계가 맞아야 한다
+        out.write(data[0]);
+        out.write(data, 1, data.length - 1);
+        out.close();
+
+        assertThat(out.capacity()).isEqualTo(PART_SIZE);
+        assertThat(out.size()).isEqualTo(data.length);
+        verify(client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        assertThat(uploaded.toByteArray()).isEqualTo(data);
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] data = new byte[length];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] read(RequestBody body) throws IOException {
+        try (InputStream in = body.contentStreamProvider().newStream()) {
+            return in.readAllBytes();
+        }
+    }
+}